@@ -0,0 +1,345 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.player.User;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Dispatches events to listeners with {@link ExecutionMode#ASYNC}.
+ * Every user has its own queue, so events of a connection are always processed in order,
+ * while different connections are processed concurrently on the executor.
+ * The netty threads never wait for asynchronous listeners: if the queue of a user is full,
+ * further events are dropped until it was drained.
+ */
+public class AsyncEventDispatcher {
+
+    // Events processed in one go before the queue yields its thread to other users
+    private static final int MAX_EVENTS_PER_RUN = 256;
+
+    private final Map<User, UserQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+    private final LongAdder dispatchedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private volatile Executor executor;
+
+    /**
+     * Queues a copy of the event for the asynchronous listeners.
+     * Packet events are copied including their buffer, as the original is modified and released by the pipeline.
+     *
+     * @param event     Event, which was processed by the synchronous listeners
+     * @param listeners Asynchronous listeners for the event
+     * @param preVia    Whether the listeners are called before ViaVersion
+     */
+    void dispatch(PacketEvent event, PacketListenerCommon[] listeners, boolean preVia) {
+        boolean listening = false;
+        for (PacketListenerCommon listener : listeners) {
+            if (listener.isPreVia() == preVia) {
+                listening = true;
+                break;
+            }
+        }
+        if (!listening) {
+            return;
+        }
+
+        PacketEvent copy = event;
+        if (event instanceof ProtocolPacketEvent) {
+            copy = copy((ProtocolPacketEvent) event);
+            if (copy == null) {
+                return;
+            }
+        }
+        AsyncEvent asyncEvent = new AsyncEvent(copy, listeners, preVia);
+        if (copy instanceof UserEvent && ((UserEvent) copy).getUser() != null) {
+            User user = ((UserEvent) copy).getUser();
+            Object channel = user.getChannel();
+            if (channel != null && !ChannelHelper.isOpen(channel) && !this.queues.containsKey(user)) {
+                // the user already disconnected and its queue was drained
+                this.drop(asyncEvent);
+                return;
+            }
+            // the queue may have been retired concurrently, the event then starts a new queue
+            while (!this.queues.computeIfAbsent(user, UserQueue::new).offer(asyncEvent)) {
+                Thread.yield();
+            }
+        } else {
+            // events without a user don't need any ordering
+            UserQueue queue = new UserQueue(null);
+            queue.offer(asyncEvent);
+        }
+    }
+
+    private static @Nullable ProtocolPacketEvent copy(ProtocolPacketEvent event) {
+        ProtocolPacketEvent copy = event.clone();
+        if (copy == null) {
+            return null;
+        }
+        // the clone shares the memory of the original buffer, which may be rewritten before the listeners run
+        Object duplicate = copy.getByteBuf();
+        copy.setByteBuf(ByteBufHelper.copy(duplicate));
+        ByteBufHelper.release(duplicate);
+        copy.setCancelled(event.isCancelled());
+        return copy;
+    }
+
+    /**
+     * Closes the queue of a disconnected user.
+     * Events which are already queued will still be dispatched, events arriving later are dropped.
+     * The queue is removed once it was drained.
+     *
+     * @param user Disconnected user
+     */
+    public void removeUser(User user) {
+        UserQueue queue = this.queues.get(user);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    /**
+     * @return The amount of events, which are waiting for asynchronous listeners
+     */
+    public int getPendingEvents() {
+        return this.pendingEvents.get();
+    }
+
+    /**
+     * @param user User
+     * @return The amount of events of the user, which are waiting for asynchronous listeners
+     */
+    public int getPendingEvents(User user) {
+        UserQueue queue = this.queues.get(user);
+        return queue == null ? 0 : queue.size.get();
+    }
+
+    /**
+     * @return The amount of events, which were passed to the asynchronous listeners
+     */
+    public long getDispatchedEvents() {
+        return this.dispatchedEvents.sum();
+    }
+
+    /**
+     * @return The amount of events, which were dropped because the queue of their user was full
+     */
+    public long getDroppedEvents() {
+        return this.droppedEvents.sum();
+    }
+
+    private Executor getExecutor() {
+        Executor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    executor = PacketEvents.getAPI().getSettings().getAsyncListenerExecutor();
+                    if (executor == null) {
+                        executor = createDefaultExecutor();
+                    }
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            // Virtual threads are only available on Java 21 and above
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor) method.invoke(null);
+        } catch (ReflectiveOperationException ignored) {
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "packetevents-async-listener-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void drop(AsyncEvent event) {
+        this.droppedEvents.increment();
+        if (event.event instanceof ProtocolPacketEvent) {
+            ((ProtocolPacketEvent) event.event).cleanUp();
+        }
+    }
+
+    private void release(AsyncEvent event) {
+        this.pendingEvents.decrementAndGet();
+        if (event.event instanceof ProtocolPacketEvent) {
+            ((ProtocolPacketEvent) event.event).cleanUp();
+        }
+    }
+
+    private static final class AsyncEvent {
+
+        private final PacketEvent event;
+        private final PacketListenerCommon[] listeners;
+        private final boolean preVia;
+
+        private AsyncEvent(PacketEvent event, PacketListenerCommon[] listeners, boolean preVia) {
+            this.event = event;
+            this.listeners = listeners;
+            this.preVia = preVia;
+        }
+
+        private void call() {
+            Object buffer = this.event instanceof ProtocolPacketEvent ? ((ProtocolPacketEvent) this.event).getByteBuf() : null;
+            int readerIndex = buffer != null ? ByteBufHelper.readerIndex(buffer) : 0;
+            for (PacketListenerCommon listener : this.listeners) {
+                try {
+                    if (listener.isPreVia() == this.preVia) {
+                        this.event.call(listener);
+                    }
+                } catch (Exception t) {
+                    // ignore handshake exceptions
+                    if (t.getClass() != InvalidHandshakeException.class) {
+                        PacketEvents.getAPI().getLogger().log(Level.WARNING, "PacketEvents caught an unhandled exception while calling your listener.", t);
+                    }
+                }
+                if (buffer != null) {
+                    ByteBufHelper.readerIndex(buffer, readerIndex);
+                }
+            }
+        }
+    }
+
+    private final class UserQueue implements Runnable {
+
+        private final @Nullable User user;
+        private final Queue<AsyncEvent> events = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // guarded by this queue
+        private boolean closed;
+        private boolean retired;
+
+        private UserQueue(@Nullable User user) {
+            this.user = user;
+        }
+
+        /**
+         * @return false if this queue was retired and the event has to go to a new queue
+         */
+        private boolean offer(AsyncEvent event) {
+            synchronized (this) {
+                if (this.retired) {
+                    return false;
+                }
+                if (this.closed || this.size.get() >= PacketEvents.getAPI().getSettings().getAsyncListenerQueueSize()) {
+                    drop(event);
+                    return true;
+                }
+                this.size.incrementAndGet();
+                pendingEvents.incrementAndGet();
+                this.events.offer(event);
+            }
+            this.schedule();
+            return true;
+        }
+
+        private void close() {
+            synchronized (this) {
+                this.closed = true;
+                // a scheduled run retires the queue once it is drained
+                if (!this.scheduled.get()) {
+                    this.retireIfDrained();
+                }
+            }
+        }
+
+        // has to be called while holding the lock of this queue
+        private boolean retireIfDrained() {
+            if (!this.closed || !this.events.isEmpty()) {
+                return false;
+            }
+            this.retired = true;
+            if (this.user != null) {
+                queues.remove(this.user, this);
+            }
+            return true;
+        }
+
+        private void schedule() {
+            if (!this.scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                getExecutor().execute(this);
+            } catch (RejectedExecutionException exception) {
+                // the executor was shut down, nothing will process these events anymore
+                synchronized (this) {
+                    AsyncEvent event;
+                    while ((event = this.events.poll()) != null) {
+                        this.size.decrementAndGet();
+                        pendingEvents.decrementAndGet();
+                        drop(event);
+                    }
+                    this.scheduled.set(false);
+                    this.retireIfDrained();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                AsyncEvent event;
+                for (int i = 0; i < MAX_EVENTS_PER_RUN && (event = this.events.poll()) != null; i++) {
+                    this.size.decrementAndGet();
+                    try {
+                        event.call();
+                    } finally {
+                        dispatchedEvents.increment();
+                        release(event);
+                    }
+                }
+            } finally {
+                boolean retired;
+                synchronized (this) {
+                    this.scheduled.set(false);
+                    retired = this.retireIfDrained();
+                }
+                // events may have been added after the last poll, or the run limit was reached
+                if (!retired && !this.events.isEmpty()) {
+                    this.schedule();
+                }
+            }
+        }
+    }
+}
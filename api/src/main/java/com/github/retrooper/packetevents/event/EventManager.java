@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -49,9 +50,12 @@ public class EventManager {
     //2. ConcurrentHashMap won't fail in a multi-thread environment, while Collections.synchronizedMap is said to have a lot of potential problems,
     //being a generalized method for synchronization
     private final Map<PacketListenerPriority, Set<PacketListenerCommon>> listenersMap = new ConcurrentHashMap<>();
-    //Since reads greatly outnumber writes, create an array for the best possible iteration time
+    //Since reads greatly outnumber writes, create arrays for the best possible iteration time
     //Updated as a whole on writes, no index modifications are allowed
-    private volatile PacketListenerCommon[] listeners = new PacketListenerCommon[0];
+    private volatile Listeners listeners = Listeners.EMPTY;
+    //Listeners with ExecutionMode.ASYNC, they receive copies of the events through the dispatcher
+    private volatile Listeners asyncListeners = Listeners.EMPTY;
+    private final AsyncEventDispatcher asyncDispatcher = new AsyncEventDispatcher();
 
 
     /**
@@ -74,12 +78,15 @@ public class EventManager {
      * The {@link PacketListenerPriority#LOWEST} prioritized listeners will be processing first,
      * the {@link PacketListenerPriority#MONITOR} will be processing last and can
      * be the final decider whether the event has been cancelled or not.
+     * Afterward, a copy of the event is queued for the {@link ExecutionMode#ASYNC} listeners.
      *
      * @param event                  {@link PacketEvent}
      * @param postCallListenerAction The action to be ran after all the listeners have finished processing
      */
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction, boolean preVia) {
-        for (PacketListenerCommon listener : listeners) {
+        PacketTypeCommon packetType = event instanceof ProtocolPacketEvent
+                ? ((ProtocolPacketEvent) event).getPacketType() : null;
+        for (PacketListenerCommon listener : this.listeners.get(packetType)) {
             try {
                 if (listener.isPreVia() == preVia)
                     event.call(listener);
@@ -93,6 +100,10 @@ public class EventManager {
                 postCallListenerAction.run();
             }
         }
+        PacketListenerCommon[] asyncListeners = this.asyncListeners.get(packetType);
+        if (asyncListeners.length != 0) {
+            this.asyncDispatcher.dispatch(event, asyncListeners, preVia);
+        }
         // For performance reasons, we don't want to re-encode the packet if it's not needed.
         if (event instanceof ProtocolPacketEvent && !((ProtocolPacketEvent) event).needsReEncode()) {
             ((ProtocolPacketEvent) event).setLastUsedWrapper(null);
@@ -103,6 +114,38 @@ public class EventManager {
         callEvent(event, postCallListenerAction, false);
     }
 
+    /**
+     * Checks if any registered listener is interested in packets of the specified type.
+     * If this returns false, processing the packet can be skipped entirely.
+     *
+     * @param packetType the type of the packet
+     * @param preVia     whether the listeners are called before ViaVersion
+     * @return true if at least one listener would receive the packet
+     * @see PacketListenerCommon#getPacketTypes()
+     */
+    public boolean hasListeners(@Nullable PacketTypeCommon packetType, boolean preVia) {
+        return hasListeners(this.listeners.get(packetType), preVia)
+                || hasListeners(this.asyncListeners.get(packetType), preVia);
+    }
+
+    private static boolean hasListeners(PacketListenerCommon[] listeners, boolean preVia) {
+        for (PacketListenerCommon listener : listeners) {
+            if (listener.isPreVia() == preVia) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The dispatcher of the {@link ExecutionMode#ASYNC} listeners, which provides metrics about their queues.
+     *
+     * @return Dispatcher of the asynchronous listeners
+     */
+    public AsyncEventDispatcher getAsyncDispatcher() {
+        return asyncDispatcher;
+    }
+
     /**
      * Register the dynamic packet event listener.
      *
@@ -157,7 +200,8 @@ public class EventManager {
     public void unregisterAllListeners() {
         this.listenersMap.clear();
         synchronized (this) {//like booky10 said, the synchronization is necessary here
-            this.listeners = new PacketListenerCommon[0];
+            this.listeners = Listeners.EMPTY;
+            this.asyncListeners = Listeners.EMPTY;
         }
     }
 
@@ -166,12 +210,17 @@ public class EventManager {
     private void recalculateListeners() {
         synchronized (this) {
             List<PacketListenerCommon> list = new ArrayList<>();
+            List<PacketListenerCommon> asyncList = new ArrayList<>();
             //adds from LOWEST to MONITOR, so in the correct order
             for (PacketListenerPriority priority : PacketListenerPriority.values()) {
                 Set<PacketListenerCommon> set = this.listenersMap.get(priority);
-                if (set != null) list.addAll(set);
+                if (set == null) continue;
+                for (PacketListenerCommon listener : set) {
+                    (listener.getExecutionMode() == ExecutionMode.ASYNC ? asyncList : list).add(listener);
+                }
             }
-            this.listeners = list.toArray(new PacketListenerCommon[0]);
+            this.listeners = Listeners.of(list);
+            this.asyncListeners = Listeners.of(asyncList);
         }
     }
 
@@ -187,4 +236,56 @@ public class EventManager {
         Set<PacketListenerCommon> listenerSet = this.listenersMap.get(listener.getPriority());
         return listenerSet != null && listenerSet.remove(listener);
     }
+
+    private static final class Listeners {
+
+        private static final Listeners EMPTY = of(Collections.emptyList());
+
+        //All listeners, used for events which aren't packets
+        private final PacketListenerCommon[] all;
+        //Listeners which didn't declare any packet types, they receive every packet
+        private final PacketListenerCommon[] untyped;
+        //Precomputed listeners for each declared packet type, including the untyped listeners in the correct order
+        private final Map<PacketTypeCommon, PacketListenerCommon[]> typed;
+
+        private Listeners(PacketListenerCommon[] all, PacketListenerCommon[] untyped,
+                          Map<PacketTypeCommon, PacketListenerCommon[]> typed) {
+            this.all = all;
+            this.untyped = untyped;
+            this.typed = typed;
+        }
+
+        private static Listeners of(List<PacketListenerCommon> list) {
+            //A packet type maps to all untyped listeners and the listeners which declared it, keeping the priority order
+            List<PacketListenerCommon> untyped = new ArrayList<>();
+            Map<PacketTypeCommon, List<PacketListenerCommon>> typed = new HashMap<>();
+            for (PacketListenerCommon listener : list) {
+                Set<PacketTypeCommon> packetTypes = listener.getPacketTypes();
+                if (packetTypes == null) {
+                    untyped.add(listener);
+                    for (List<PacketListenerCommon> typedList : typed.values()) {
+                        typedList.add(listener);
+                    }
+                } else {
+                    for (PacketTypeCommon packetType : packetTypes) {
+                        typed.computeIfAbsent(packetType, t -> new ArrayList<>(untyped)).add(listener);
+                    }
+                }
+            }
+            Map<PacketTypeCommon, PacketListenerCommon[]> typedListeners = new HashMap<>(typed.size() * 2);
+            for (Map.Entry<PacketTypeCommon, List<PacketListenerCommon>> entry : typed.entrySet()) {
+                typedListeners.put(entry.getKey(), entry.getValue().toArray(new PacketListenerCommon[0]));
+            }
+            return new Listeners(list.toArray(new PacketListenerCommon[0]),
+                    untyped.toArray(new PacketListenerCommon[0]), typedListeners);
+        }
+
+        private PacketListenerCommon[] get(@Nullable PacketTypeCommon packetType) {
+            if (packetType == null) {
+                return this.all;
+            }
+            PacketListenerCommon[] listeners = this.typed.get(packetType);
+            return listeners != null ? listeners : this.untyped;
+        }
+    }
 }
@@ -0,0 +1,43 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+/**
+ * Decides on which thread a packet listener is invoked.
+ * This can be specified in the PacketListenerAbstract constructor.
+ * If you don't specify an execution mode in the constructor, it will use {@link #SYNC}.
+ *
+ * @see AsyncEventDispatcher
+ */
+public enum ExecutionMode {
+    /**
+     * The listener is invoked on the netty thread handling the connection, while the packet is being processed.
+     * It may cancel or modify packets.
+     */
+    SYNC,
+
+    /**
+     * The listener is invoked on a separate executor, after all synchronous listeners have processed the packet.
+     * Events are dispatched in order for each user, but they are copies of the original event:
+     * cancelling or modifying them has no effect on the packet.
+     * Events are dropped if a user has too many pending events, see
+     * {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#asyncListenerQueueSize(int)}.
+     */
+    ASYNC
+}
@@ -0,0 +1,244 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.event;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pools of packet events and wrappers, used while event recycling is enabled.
+ * The pools are thread local: all packets of a channel are handled on its event loop,
+ * so every event loop effectively reuses its own events without any synchronization.
+ * <p>
+ * While debug mode is enabled, recycled objects are not reused. They are tracked instead,
+ * to warn about listeners which still reference them after the event was processed.
+ *
+ * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#eventRecycling(boolean)
+ */
+@ApiStatus.Internal
+public final class PacketEventRecycler {
+
+    // Packets sent from within listeners are handled while the outer event is still in use,
+    // so a few events per connection state are needed
+    private static final int MAX_POOLED_EVENTS = 8;
+    private static final int MAX_POOLED_WRAPPERS = 4;
+    private static final ThreadLocal<PacketEventRecycler> RECYCLERS = ThreadLocal.withInitial(PacketEventRecycler::new);
+    private static final ClassValue<Constructor<?>> RECEIVE_CONSTRUCTORS = new WrapperConstructors(PacketReceiveEvent.class);
+    private static final ClassValue<Constructor<?>> SEND_CONSTRUCTORS = new WrapperConstructors(PacketSendEvent.class);
+
+    private final ArrayDeque<PacketReceiveEvent>[] receiveEvents = newPools(ConnectionState.values().length);
+    private final ArrayDeque<PacketSendEvent>[] sendEvents = newPools(ConnectionState.values().length);
+    private final Map<Class<?>, ArrayDeque<PacketWrapper<?>>> wrappers = new HashMap<>();
+    private final LeakDetector leakDetector = new LeakDetector();
+
+    private PacketEventRecycler() {
+    }
+
+    public static PacketEventRecycler get() {
+        return RECYCLERS.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayDeque<T>[] newPools(int length) {
+        ArrayDeque<T>[] pools = new ArrayDeque[length];
+        for (int i = 0; i < length; i++) {
+            pools[i] = new ArrayDeque<>(MAX_POOLED_EVENTS);
+        }
+        return pools;
+    }
+
+    /**
+     * Takes a pooled event for the decoder state of the user and initializes it for the packet.
+     *
+     * @return The initialized event or null if there is no pooled event
+     */
+    public @Nullable PacketReceiveEvent pollReceiveEvent(Object channel, User user, Object player, Object buffer,
+                                                         boolean autoProtocolTranslation) throws PacketProcessException {
+        PacketReceiveEvent event = this.receiveEvents[user.getDecoderState().ordinal()].pollLast();
+        if (event != null) {
+            event.reuse(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        return event;
+    }
+
+    /**
+     * Takes a pooled event for the encoder state of the user and initializes it for the packet.
+     *
+     * @return The initialized event or null if there is no pooled event
+     */
+    public @Nullable PacketSendEvent pollSendEvent(Object channel, User user, Object player, Object buffer,
+                                                   boolean autoProtocolTranslation) throws PacketProcessException {
+        PacketSendEvent event = this.sendEvents[user.getEncoderState().ordinal()].pollLast();
+        if (event != null) {
+            event.reuse(channel, user, player, buffer, autoProtocolTranslation);
+        }
+        return event;
+    }
+
+    /**
+     * Marks a newly created event to be handed back to the pool by {@link ProtocolPacketEvent#recycle()}.
+     */
+    public <T extends ProtocolPacketEvent> T track(T event) {
+        event.recyclable = true;
+        return event;
+    }
+
+    void recycleEvent(ProtocolPacketEvent event) {
+        if (PacketEvents.getAPI().getSettings().isDebugEnabled()) {
+            // never reuse it, so a retained event can't observe other packets
+            this.leakDetector.track(event, event.getPacketType() + " event");
+            event.recyclable = false;
+            event.release();
+            return;
+        }
+        int state = event.getConnectionState().ordinal();
+        event.release();
+        if (event instanceof PacketReceiveEvent) {
+            offer(this.receiveEvents[state], (PacketReceiveEvent) event, MAX_POOLED_EVENTS);
+        } else {
+            offer(this.sendEvents[state], (PacketSendEvent) event, MAX_POOLED_EVENTS);
+        }
+    }
+
+    private static <T> void offer(ArrayDeque<T> pool, T object, int maxSize) {
+        if (pool.size() < maxSize) {
+            pool.addLast(object);
+        }
+    }
+
+    @Nullable <W extends PacketWrapper<?>> W pollWrapper(Class<W> wrapperClass) {
+        ArrayDeque<PacketWrapper<?>> pool = this.wrappers.get(wrapperClass);
+        return pool == null ? null : wrapperClass.cast(pool.pollLast());
+    }
+
+    void recycleWrapper(PacketWrapper<?> wrapper, ProtocolPacketEvent event) {
+        if (PacketEvents.getAPI().getSettings().isDebugEnabled()) {
+            this.leakDetector.track(wrapper, wrapper.getClass().getSimpleName() + " of a " + event.getPacketType() + " event");
+            wrapper.release();
+            return;
+        }
+        wrapper.release();
+        offer(this.wrappers.computeIfAbsent(wrapper.getClass(), key -> new ArrayDeque<>(MAX_POOLED_WRAPPERS)),
+                wrapper, MAX_POOLED_WRAPPERS);
+    }
+
+    static <W extends PacketWrapper<?>> W createWrapper(Class<W> wrapperClass, ProtocolPacketEvent event) {
+        Constructor<?> constructor = (event instanceof PacketReceiveEvent
+                ? RECEIVE_CONSTRUCTORS : SEND_CONSTRUCTORS).get(wrapperClass);
+        try {
+            return wrapperClass.cast(constructor.newInstance(event));
+        } catch (InvocationTargetException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to create " + wrapperClass.getName(), cause);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Failed to create " + wrapperClass.getName(), exception);
+        }
+    }
+
+    private static final class WrapperConstructors extends ClassValue<Constructor<?>> {
+
+        private final Class<? extends ProtocolPacketEvent> eventClass;
+
+        private WrapperConstructors(Class<? extends ProtocolPacketEvent> eventClass) {
+            this.eventClass = eventClass;
+        }
+
+        @Override
+        protected Constructor<?> computeValue(Class<?> wrapperClass) {
+            try {
+                return wrapperClass.getConstructor(this.eventClass);
+            } catch (NoSuchMethodException exception) {
+                throw new IllegalArgumentException(wrapperClass.getName() + " can't be created from a "
+                        + this.eventClass.getSimpleName(), exception);
+            }
+        }
+    }
+
+    /**
+     * Finds recycled objects which are still referenced after the garbage collector ran,
+     * which means a listener kept them past the end of the event.
+     */
+    private static final class LeakDetector {
+
+        private final ArrayDeque<TrackedObject> tracked = new ArrayDeque<>();
+        private long gcCount = getCollectionCount();
+        private long lastCheck;
+
+        private void track(Object object, String description) {
+            this.tracked.addLast(new TrackedObject(object, description, this.gcCount));
+
+            long now = System.currentTimeMillis();
+            if (now - this.lastCheck < 1000L) {
+                return;
+            }
+            this.lastCheck = now;
+            this.gcCount = getCollectionCount();
+            for (Iterator<TrackedObject> it = this.tracked.iterator(); it.hasNext(); ) {
+                TrackedObject trackedObject = it.next();
+                if (trackedObject.get() == null) {
+                    it.remove();
+                } else if (this.gcCount - trackedObject.gcCount >= 3) {
+                    // still reachable after a few collections, short-lived objects would have been cleared by now
+                    it.remove();
+                    PacketEvents.getAPI().getLogManager().warn("Recycled " + trackedObject.description
+                            + " is still referenced after it was processed. Listeners have to clone events"
+                            + " and create wrappers with their constructor to keep them.");
+                }
+            }
+        }
+
+        private static long getCollectionCount() {
+            long count = 0L;
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0L, bean.getCollectionCount());
+            }
+            return count;
+        }
+    }
+
+    private static final class TrackedObject extends WeakReference<Object> {
+
+        private final String description;
+        private final long gcCount;
+
+        private TrackedObject(Object referent, String description, long gcCount) {
+            super(referent);
+            this.description = description;
+            this.gcCount = gcCount;
+        }
+    }
+}
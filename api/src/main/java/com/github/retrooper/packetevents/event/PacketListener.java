@@ -18,6 +18,11 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
 public interface PacketListener {
     default PacketListenerAbstract asAbstract(PacketListenerPriority priority) {
         return new PacketListenerAbstract(priority) {
@@ -50,6 +55,11 @@ public interface PacketListener {
             public void onPacketEventExternal(PacketEvent event) {
                 PacketListener.this.onPacketEventExternal(event);
             }
+
+            @Override
+            public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+                return PacketListener.this.getPacketTypes();
+            }
         };
     }
 
@@ -70,4 +80,11 @@ public interface PacketListener {
 
     default void onPacketEventExternal(PacketEvent event) {
     }
+
+    /**
+     * @see PacketListenerCommon#getPacketTypes()
+     */
+    default @Nullable Set<PacketTypeCommon> getPacketTypes() {
+        return null;
+    }
 }
@@ -19,6 +19,10 @@
 package com.github.retrooper.packetevents.event;
 
 public abstract class PacketListenerAbstract extends PacketListenerCommon {
+    public PacketListenerAbstract(PacketListenerPriority priority, ExecutionMode executionMode) {
+        super(priority, executionMode);
+    }
+
     public PacketListenerAbstract(PacketListenerPriority priority) {
         super(priority);
     }
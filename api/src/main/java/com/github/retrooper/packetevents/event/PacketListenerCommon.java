@@ -18,9 +18,13 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -30,19 +34,34 @@ import java.util.Map;
  */
 public abstract class PacketListenerCommon {
     private final PacketListenerPriority priority;
+    private final ExecutionMode executionMode;
 
-    public PacketListenerCommon(PacketListenerPriority priority) {
+    public PacketListenerCommon(PacketListenerPriority priority, ExecutionMode executionMode) {
         this.priority = priority;
+        this.executionMode = executionMode;
+    }
+
+    public PacketListenerCommon(PacketListenerPriority priority) {
+        this(priority, ExecutionMode.SYNC);
     }
 
     public PacketListenerCommon() {
-        this.priority = PacketListenerPriority.NORMAL;
+        this(PacketListenerPriority.NORMAL);
     }
 
     public PacketListenerPriority getPriority() {
         return priority;
     }
 
+    /**
+     * This is only read once while registering the listener.
+     *
+     * @return the thread this listener is invoked on
+     */
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
@@ -65,4 +84,18 @@ public abstract class PacketListenerCommon {
         return false;
     }
 
+    /**
+     * The packet types this listener wants to receive packet events for.
+     * Packets of any other type will not be passed to {@link #onPacketReceive(PacketReceiveEvent)}
+     * or {@link #onPacketSend(PacketSendEvent)} of this listener. If no registered listener is interested
+     * in a packet, no event will be created for it and the buffer is passed on untouched.
+     * <p>
+     * This is only read once while registering the listener.
+     *
+     * @return the packet types to listen for, or null to listen for all packets
+     */
+    public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+        return null;
+    }
+
 }
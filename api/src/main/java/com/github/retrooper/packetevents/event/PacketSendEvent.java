@@ -63,6 +63,12 @@ public class PacketSendEvent extends ProtocolPacketEvent {
         return tasksAfterSend != null && !tasksAfterSend.isEmpty();
     }
 
+    @Override
+    boolean canRecycle() {
+        // the tasks after send are run once the packet was flushed, which needs the event
+        return super.canRecycle() && !hasTasksAfterSend();
+    }
+
     @Override
     public PacketSendEvent clone() {
         try {
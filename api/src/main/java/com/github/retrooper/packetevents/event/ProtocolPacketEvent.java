@@ -32,6 +32,7 @@ import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -41,23 +42,49 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerEvent, CancellableEvent, UserEvent {
-    private final Object channel;
-    private final ConnectionState connectionState;
-    private final User user;
-    private final Object player;
+    // Not final, as recycled events are initialized again for every packet
+    private Object channel;
+    private ConnectionState connectionState;
+    private User user;
+    private Object player;
     private Object byteBuf;
-    private final int packetID;
-    private final PacketTypeCommon packetType;
+    private int packetID;
+    private PacketTypeCommon packetType;
     private ServerVersion serverVersion;
     private boolean cancel;
     private PacketWrapper<?> lastUsedWrapper;
     private List<Runnable> postTasks = null;
     private boolean cloned;
     private boolean needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+    // Set if this event was created by the PacketEventRecycler
+    boolean recyclable;
+    // Wrappers handed out by getWrapper, which are recycled together with this event
+    private @Nullable List<PacketWrapper<?>> recycledWrappers;
 
     public ProtocolPacketEvent(PacketSide packetSide, Object channel,
                                User user, Object player, Object byteBuf,
                                boolean autoProtocolTranslation) throws PacketProcessException {
+        this.init(packetSide, channel, user, player, byteBuf, autoProtocolTranslation);
+    }
+
+    public ProtocolPacketEvent(int packetID, PacketTypeCommon packetType, ServerVersion serverVersion, Object channel,
+                               User user, Object player, Object byteBuf) {
+        this.channel = channel;
+        this.user = user;
+        this.player = player;
+        this.serverVersion = serverVersion;
+        this.byteBuf = byteBuf;
+        this.packetID = packetID;
+        this.packetType = packetType;
+
+        this.connectionState = (packetType != null && packetType.getSide() == PacketSide.SERVER)
+                ? user.getEncoderState() : user.getDecoderState();
+        cloned = true;
+    }
+
+    private void init(PacketSide packetSide, Object channel,
+                      User user, Object player, Object byteBuf,
+                      boolean autoProtocolTranslation) throws PacketProcessException {
         this.channel = channel;
         this.user = user;
         this.player = player;
@@ -81,8 +108,7 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         }
         ClientVersion version = serverVersion.toClientVersion();
         ConnectionState state = packetSide == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
-        this.packetType = PacketType.getById(packetSide, state,
-                version, packetID);
+        this.packetType = user.getPacketTypeTable(packetSide, version).getById(packetID);
         if (this.packetType == null) {
             // mojang messed up and keeps sending disconnect packets in the wrong protocol state
             if (PacketType.getById(packetSide, ConnectionState.PLAY, version, packetID) == PacketType.Play.Server.DISCONNECT) {
@@ -93,19 +119,89 @@ public abstract class ProtocolPacketEvent extends PacketEvent implements PlayerE
         this.connectionState = state;
     }
 
-    public ProtocolPacketEvent(int packetID, PacketTypeCommon packetType, ServerVersion serverVersion, Object channel,
-                               User user, Object player, Object byteBuf) {
-        this.channel = channel;
-        this.user = user;
-        this.player = player;
-        this.serverVersion = serverVersion;
-        this.byteBuf = byteBuf;
-        this.packetID = packetID;
-        this.packetType = packetType;
+    /**
+     * Initializes a recycled event for the next packet, as if it was created by the constructor.
+     */
+    void reuse(Object channel, User user, Object player, Object byteBuf,
+               boolean autoProtocolTranslation) throws PacketProcessException {
+        this.updateTimestamp();
+        this.cancel = false;
+        this.needsReEncode = PacketEvents.getAPI().getSettings().reEncodeByDefault();
+        this.init(this instanceof PacketReceiveEvent ? PacketSide.CLIENT : PacketSide.SERVER,
+                channel, user, player, byteBuf, autoProtocolTranslation);
+    }
 
-        this.connectionState = (packetType != null && packetType.getSide() == PacketSide.SERVER)
-                ? user.getEncoderState() : user.getDecoderState();
-        cloned = true;
+    /**
+     * Clears all references to the packet, so pooled events don't keep users or buffers alive.
+     */
+    void release() {
+        this.channel = null;
+        this.user = null;
+        this.player = null;
+        this.byteBuf = null;
+        this.lastUsedWrapper = null;
+        if (this.postTasks != null) {
+            this.postTasks.clear();
+        }
+    }
+
+    boolean canRecycle() {
+        return this.recyclable;
+    }
+
+    /**
+     * Hands this event and the wrappers from {@link #getWrapper(Class)} back to the pool of the current thread,
+     * if event recycling is enabled.
+     * Must only be called once the event was fully processed, including its post tasks.
+     *
+     * @return Whether the event was recycled and must not be used anymore
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#eventRecycling(boolean)
+     */
+    @ApiStatus.Internal
+    public boolean recycle() {
+        if (!this.canRecycle()) {
+            return false;
+        }
+        PacketEventRecycler recycler = PacketEventRecycler.get();
+        if (this.recycledWrappers != null) {
+            for (PacketWrapper<?> wrapper : this.recycledWrappers) {
+                recycler.recycleWrapper(wrapper, this);
+            }
+            this.recycledWrappers.clear();
+        }
+        recycler.recycleEvent(this);
+        return true;
+    }
+
+    /**
+     * Reads the packet with the given wrapper class.
+     * Unlike calling the wrapper constructor, the wrapper may be reused for later packets
+     * once this event was processed, if event recycling is enabled and the wrapper supports it.
+     * The returned wrapper must therefore not be referenced after the listener returns,
+     * use the constructor instead if the wrapper has to be kept.
+     *
+     * @param wrapperClass Wrapper class, which needs a constructor taking this type of event
+     * @param <W>          Wrapper type
+     * @return Wrapper for this packet
+     */
+    public <W extends PacketWrapper<?>> W getWrapper(Class<W> wrapperClass) {
+        // the last wrapper already has the latest state of the packet
+        if (this.lastUsedWrapper != null && this.lastUsedWrapper.getClass() == wrapperClass) {
+            return wrapperClass.cast(this.lastUsedWrapper);
+        }
+        W wrapper = this.recyclable ? PacketEventRecycler.get().pollWrapper(wrapperClass) : null;
+        if (wrapper != null) {
+            wrapper.reuse(this);
+        } else {
+            wrapper = PacketEventRecycler.createWrapper(wrapperClass, this);
+        }
+        if (this.recyclable && wrapper.isRecyclable()) {
+            if (this.recycledWrappers == null) {
+                this.recycledWrappers = new ArrayList<>(1);
+            }
+            this.recycledWrappers.add(wrapper);
+        }
+        return wrapper;
     }
 
     public void markForReEncode(boolean needsReEncode) {
@@ -25,6 +25,10 @@ import java.util.List;
 import java.util.Map;
 
 public abstract class SimplePacketListenerAbstract extends PacketListenerCommon {
+    public SimplePacketListenerAbstract(PacketListenerPriority priority, ExecutionMode executionMode) {
+        super(priority, executionMode);
+    }
+
     public SimplePacketListenerAbstract(PacketListenerPriority priority) {
         super(priority);
     }
@@ -0,0 +1,117 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.manager.protocol;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Collects packets for a single channel, which are written together and flushed once.
+ * Packet wrappers are encoded right away, so they can be reused after being added to the batch.
+ *
+ * @see ProtocolManager#batch(Object, java.util.function.Consumer)
+ */
+public final class PacketBatch {
+    private final ProtocolManager protocolManager;
+    private final Object channel;
+    private final List<Object> buffers = new ArrayList<>();
+    // Indices of the buffers which skip the packet listeners
+    private final BitSet silent = new BitSet();
+
+    PacketBatch(ProtocolManager protocolManager, Object channel) {
+        this.protocolManager = protocolManager;
+        this.channel = channel;
+    }
+
+    public PacketBatch write(Object buffer) {
+        return this.add(buffer, false);
+    }
+
+    public PacketBatch writeSilently(Object buffer) {
+        return this.add(buffer, true);
+    }
+
+    public PacketBatch write(PacketWrapper<?> wrapper) {
+        for (Object buffer : this.protocolManager.transformWrappers(wrapper, this.channel, true)) {
+            this.add(buffer, false);
+        }
+        return this;
+    }
+
+    public PacketBatch writeSilently(PacketWrapper<?> wrapper) {
+        for (Object buffer : this.protocolManager.transformWrappers(wrapper, this.channel, true)) {
+            this.add(buffer, true);
+        }
+        return this;
+    }
+
+    public int size() {
+        return this.buffers.size();
+    }
+
+    private PacketBatch add(Object buffer, boolean silent) {
+        this.silent.set(this.buffers.size(), silent);
+        this.buffers.add(buffer);
+        return this;
+    }
+
+    /**
+     * Writes all packets and flushes the channel once.
+     * If not called from the event loop of the channel, this is scheduled to it as a single task.
+     */
+    void send() {
+        if (this.buffers.isEmpty()) {
+            return;
+        }
+        if (ChannelHelper.inEventLoop(this.channel)) {
+            this.writeAndFlush();
+        } else {
+            ChannelHelper.runInEventLoop(this.channel, this::writeAndFlush);
+        }
+    }
+
+    /**
+     * Releases all packets of a batch which won't be sent.
+     */
+    void release() {
+        for (Object buffer : this.buffers) {
+            ByteBufHelper.release(buffer);
+        }
+        this.buffers.clear();
+        this.silent.clear();
+    }
+
+    private void writeAndFlush() {
+        for (int i = 0; i < this.buffers.size(); i++) {
+            if (this.silent.get(i)) {
+                this.protocolManager.writePacketSilently(this.channel, this.buffers.get(i));
+            } else {
+                this.protocolManager.writePacket(this.channel, this.buffers.get(i));
+            }
+        }
+        if (ChannelHelper.isOpen(this.channel)) {
+            ChannelHelper.flush(this.channel);
+        }
+    }
+}
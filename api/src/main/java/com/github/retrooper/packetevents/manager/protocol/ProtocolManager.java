@@ -19,6 +19,8 @@
 package com.github.retrooper.packetevents.manager.protocol;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
@@ -28,9 +30,11 @@ import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public interface ProtocolManager {
     Map<UUID, Object> CHANNELS = new ConcurrentHashMap<>();
@@ -93,6 +97,25 @@ public interface ProtocolManager {
     }
 
 
+    /**
+     * Writes all packets added to the batch and flushes the channel once, instead of flushing after every packet.
+     * When called outside the event loop of the channel, the writes are scheduled to it as a single task.
+     *
+     * @param channel Channel
+     * @param batch   Adds the packets to the batch
+     */
+    default void batch(Object channel, Consumer<PacketBatch> batch) {
+        PacketBatch packetBatch = new PacketBatch(this, channel);
+        try {
+            batch.accept(packetBatch);
+        } catch (Throwable throwable) {
+            // the packets encoded so far won't be sent
+            packetBatch.release();
+            throw throwable;
+        }
+        packetBatch.send();
+    }
+
     default void setClientVersion(Object channel, ClientVersion version) {
         getUser(channel).setClientVersion(version);
     }
@@ -145,6 +168,79 @@ public interface ProtocolManager {
         receivePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Sends the wrapper to all users, encoding it only once for every distinct encoding.
+     * On proxies, the packet is encoded once per client version, otherwise once for everyone.
+     * <p>
+     * As packet listeners may rewrite the packet they receive, every user gets a copy of the encoded bytes.
+     * Use {@link #broadcastPacketSilently(Collection, PacketWrapper)} to share a single buffer between all users.
+     *
+     * @param users   Receiving users
+     * @param wrapper Packet wrapper
+     */
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, false);
+    }
+
+    /**
+     * Sends the wrapper to all users without passing it to packet listeners,
+     * encoding it only once for every distinct encoding.
+     * Every user is sent a retained duplicate of the shared buffer.
+     *
+     * @param users   Receiving users
+     * @param wrapper Packet wrapper
+     * @see #broadcastPacket(Collection, PacketWrapper)
+     */
+    default void broadcastPacketSilently(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, true);
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        broadcastPacket(users, wrapper, silently, PacketEvents.getAPI().getInjector().isProxy());
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently, boolean proxy) {
+        // The encoding only depends on the client version on proxies
+        Map<ClientVersion, Object[]> encoded = new EnumMap<>(ClientVersion.class);
+        ServerVersion serverVersion = wrapper.getServerVersion();
+        try {
+            for (User user : users) {
+                Object channel = user.getChannel();
+                if (channel == null || !ChannelHelper.isOpen(channel)) {
+                    continue;
+                }
+                ClientVersion version = proxy ? user.getClientVersion() : ClientVersion.UNKNOWN;
+                if (version == null) {
+                    // The client version is only known after the handshake on proxies
+                    continue;
+                }
+                Object[] buffers = encoded.get(version);
+                if (buffers == null) {
+                    // Preparing the wrapper for a proxy changes its server version
+                    wrapper.setServerVersion(serverVersion);
+                    buffers = transformWrappers(wrapper, channel, true);
+                    encoded.put(version, buffers);
+                }
+                for (Object buffer : buffers) {
+                    if (silently) {
+                        sendPacketSilently(channel, ByteBufHelper.retainedDuplicate(buffer));
+                    } else {
+                        sendPacket(channel, ByteBufHelper.copy(buffer));
+                    }
+                }
+            }
+        } finally {
+            for (Object[] buffers : encoded.values()) {
+                for (Object buffer : buffers) {
+                    ByteBufHelper.release(buffer);
+                }
+            }
+            wrapper.setServerVersion(serverVersion);
+        }
+    }
+
     default User getUser(Object channel) {
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.get(pipeline);
@@ -115,4 +115,27 @@ public interface ByteBufOperator {
     default void writeBoolean(Object buffer, boolean value) {
         writeByte(buffer, value ? 1 : 0);
     }
+
+    //Implementations can read the whole VarInt at once instead of byte by byte
+    default int readVarInt(Object buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = readByte(buffer);
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    //Implementations can copy all longs at once instead of reading them one by one
+    default void readLongs(Object buffer, long[] destination, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            destination[i] = readLong(buffer);
+        }
+    }
 }
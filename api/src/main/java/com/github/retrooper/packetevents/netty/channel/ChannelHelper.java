@@ -100,4 +100,8 @@ public class ChannelHelper {
     public static void runInEventLoop(Object channel, Runnable runnable) {
         PacketEvents.getAPI().getNettyManager().getChannelOperator().runInEventLoop(channel, runnable);
     }
+
+    public static boolean inEventLoop(Object channel) {
+        return PacketEvents.getAPI().getNettyManager().getChannelOperator().inEventLoop(channel);
+    }
 }
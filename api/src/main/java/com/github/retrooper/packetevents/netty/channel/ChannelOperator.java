@@ -56,5 +56,9 @@ public interface ChannelOperator {
 
     void runInEventLoop(Object channel, Runnable runnable);
 
+    default boolean inEventLoop(Object channel) {
+        return false;
+    }
+
     Object pooledByteBuf(Object channel);
 }
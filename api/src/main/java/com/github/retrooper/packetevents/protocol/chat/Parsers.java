@@ -25,6 +25,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,7 +43,7 @@ public class Parsers {
 
     private static final List<Parser> ALL_PARSERS = new ArrayList<>(); // support for old methods
     private static final Map<String, Parser> PARSER_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, Parser>> PARSER_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<Parser> PARSER_ID_MAP = new VersionedIdTable<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("command/argument_parser_mappings");
 
     public static Parser define(String key) {
@@ -65,8 +66,7 @@ public class Parsers {
 
     public static Parser getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, Parser> idMap = PARSER_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return PARSER_ID_MAP.get(index, id);
     }
 
     public static List<Parser> getParsers() {
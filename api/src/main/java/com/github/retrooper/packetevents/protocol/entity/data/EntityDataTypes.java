@@ -36,6 +36,7 @@ import com.github.retrooper.packetevents.util.Vector3f;
 import com.github.retrooper.packetevents.util.Vector3i;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import net.kyori.adventure.text.Component;
 
@@ -50,7 +51,7 @@ public class EntityDataTypes {
     //nbt was added in 1.12
 
     private static final Map<String, EntityDataType<?>> ENTITY_DATA_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, EntityDataType<?>>> ENTITY_DATA_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<EntityDataType<?>> ENTITY_DATA_TYPE_ID_MAP = new VersionedIdTable<>();
     protected static final TypesBuilder TYPES_BUILDER = new TypesBuilder("entity/entity_data_type_mappings");
 
     public static final EntityDataType<Byte> BYTE = define("byte", PacketWrapper::readByte, PacketWrapper::writeByte);
@@ -216,8 +217,7 @@ public class EntityDataTypes {
 
     public static EntityDataType<?> getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, EntityDataType<?>> typeIdMap = ENTITY_DATA_TYPE_ID_MAP.get((byte) index);
-        return typeIdMap.get(id);
+        return ENTITY_DATA_TYPE_ID_MAP.get(index, id);
     }
 
     public static EntityDataType<?> getByName(String name) {
@@ -232,9 +232,7 @@ public class EntityDataTypes {
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
             if (index == -1) continue;
-            Map<Integer, EntityDataType<?>> typeIdMap = ENTITY_DATA_TYPE_ID_MAP
-                    .computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(type.getId(version), type);
+            ENTITY_DATA_TYPE_ID_MAP.put(index, type.getId(version), type);
         }
         return type;
     }
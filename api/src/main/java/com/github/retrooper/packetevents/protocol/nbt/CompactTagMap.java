@@ -0,0 +1,236 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered map for the entries of a {@link NBTCompound}.
+ * <p>
+ * Most compounds only hold a few entries, so they are kept in parallel key and value arrays
+ * which are scanned linearly. Once a compound grows past {@link #MAX_COMPACT_SIZE} entries,
+ * they are moved into a {@link LinkedHashMap}.
+ */
+final class CompactTagMap extends AbstractMap<String, NBT> {
+
+    private static final int MAX_COMPACT_SIZE = 8;
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final NBT[] EMPTY_VALUES = new NBT[0];
+
+    private String[] keys = EMPTY_KEYS;
+    private NBT[] values = EMPTY_VALUES;
+    private int size;
+    private int modCount;
+
+    private @Nullable Map<String, NBT> map;
+
+    private int indexOf(Object key) {
+        String[] keys = this.keys;
+        for (int i = 0; i < this.size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.map != null ? this.map.size() : this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.map != null ? this.map.containsKey(key) : this.indexOf(key) != -1;
+    }
+
+    @Override
+    public NBT get(Object key) {
+        if (this.map != null) {
+            return this.map.get(key);
+        }
+        int index = this.indexOf(key);
+        return index != -1 ? this.values[index] : null;
+    }
+
+    @Override
+    public NBT put(String key, NBT value) {
+        if (this.map != null) {
+            return this.map.put(key, value);
+        }
+        int index = this.indexOf(key);
+        if (index != -1) {
+            NBT previous = this.values[index];
+            this.values[index] = value;
+            return previous;
+        }
+        if (this.size == MAX_COMPACT_SIZE) {
+            Map<String, NBT> map = new LinkedHashMap<>(MAX_COMPACT_SIZE * 4);
+            for (int i = 0; i < this.size; i++) {
+                map.put(this.keys[i], this.values[i]);
+            }
+            map.put(key, value);
+            this.map = map;
+            this.keys = EMPTY_KEYS;
+            this.values = EMPTY_VALUES;
+            this.size = 0;
+            this.modCount++;
+            return null;
+        }
+        if (this.size == this.keys.length) {
+            int capacity = Math.min(MAX_COMPACT_SIZE, Math.max(2, this.size * 2));
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size++;
+        this.modCount++;
+        return null;
+    }
+
+    @Override
+    public NBT remove(Object key) {
+        if (this.map != null) {
+            return this.map.remove(key);
+        }
+        int index = this.indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        NBT previous = this.values[index];
+        this.removeAt(index);
+        return previous;
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+        System.arraycopy(this.values, index + 1, this.values, index, moved);
+        this.size--;
+        this.keys[this.size] = null;
+        this.values[this.size] = null;
+        this.modCount++;
+    }
+
+    @Override
+    public void clear() {
+        this.map = null;
+        this.keys = EMPTY_KEYS;
+        this.values = EMPTY_VALUES;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public Set<Entry<String, NBT>> entrySet() {
+        return new EntrySet();
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, NBT>> {
+
+        @Override
+        public Iterator<Entry<String, NBT>> iterator() {
+            Map<String, NBT> map = CompactTagMap.this.map;
+            return map != null ? map.entrySet().iterator() : new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactTagMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactTagMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, NBT>> {
+
+        private int expectedModCount = modCount;
+        private int next;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next < size;
+        }
+
+        @Override
+        public Entry<String, NBT> next() {
+            if (this.expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.next >= size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next++;
+            return new TagEntry(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            if (this.expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expectedModCount = modCount;
+        }
+    }
+
+    private final class TagEntry extends SimpleEntry<String, NBT> {
+
+        private final int index;
+
+        private TagEntry(int index) {
+            super(keys[index], values[index]);
+            this.index = index;
+        }
+
+        @Override
+        public NBT setValue(NBT value) {
+            if (map == null && this.index < size && keys[this.index] == this.getKey()) {
+                values[this.index] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+}
@@ -18,17 +18,66 @@
 
 package com.github.retrooper.packetevents.protocol.nbt;
 
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 public class NBTCompound extends NBT {
 
-    protected final Map<String, NBT> tags = new LinkedHashMap<>();
+    protected final Map<String, NBT> tags = new CompactTagMap();
+
+    // Network encoded entries of a compound which has not been accessed yet, terminated by the end tag;
+    // only cleared once the tags were filled, so readers on other threads never see a partially filled map
+    private volatile byte @Nullable [] encodedTags;
+
+    /**
+     * Creates a compound which keeps the network encoded entries and only parses them on first access.
+     * As long as the compound is not accessed, the entries are written back verbatim.
+     *
+     * @param encodedTags the encoded entries of the compound, including the end tag
+     * @return the lazily parsed compound
+     */
+    @ApiStatus.Internal
+    public static NBTCompound fromEncodedTags(byte[] encodedTags) {
+        NBTCompound compound = new NBTCompound();
+        compound.encodedTags = encodedTags;
+        return compound;
+    }
+
+    /**
+     * @return the network encoded entries of this compound, or null if the compound has been parsed
+     */
+    @ApiStatus.Internal
+    public byte @Nullable [] getEncodedTags() {
+        return this.encodedTags;
+    }
+
+    private void decodeTags() {
+        if (this.encodedTags != null) {
+            this.decodeTagsLocked();
+        }
+    }
+
+    private synchronized void decodeTagsLocked() {
+        byte[] encoded = this.encodedTags;
+        if (encoded == null) {
+            return; // decoded by another thread in the meantime
+        }
+        NBTCompound decoded = new NBTCompound();
+        try {
+            ByteBufNBTSerializer.INSTANCE.readCompoundTags(encoded, decoded);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Failed to parse lazily read nbt compound", exception);
+        }
+        this.tags.putAll(decoded.tags);
+        this.encodedTags = null;
+    }
 
     @Override
     public NBTType<NBTCompound> getType() {
@@ -36,18 +85,22 @@ public class NBTCompound extends NBT {
     }
 
     public boolean isEmpty() {
+        decodeTags();
         return tags.isEmpty();
     }
 
     public Set<String> getTagNames() {
+        decodeTags();
         return Collections.unmodifiableSet(tags.keySet());
     }
 
     public Map<String, NBT> getTags() {
+        decodeTags();
         return Collections.unmodifiableMap(tags);
     }
 
     public int size() {
+        decodeTags();
         return tags.size();
     }
 
@@ -60,6 +113,7 @@ public class NBTCompound extends NBT {
     }
 
     public @Nullable NBT getTagOrNull(String key) {
+        decodeTags();
         return tags.get(key);
     }
 
@@ -169,6 +223,7 @@ public class NBTCompound extends NBT {
     }
 
     public NBT removeTag(String key) {
+        decodeTags();
         return tags.remove(key);
     }
 
@@ -191,6 +246,7 @@ public class NBTCompound extends NBT {
     }
 
     public void setTag(String key, NBT tag) {
+        decodeTags();
         if (tag != null) {
             tags.put(key, tag);
         } else {
@@ -199,6 +255,11 @@ public class NBTCompound extends NBT {
     }
 
     public NBTCompound copy() {
+        byte[] encodedTags = this.encodedTags;
+        if (encodedTags != null) {
+            // the encoded entries are never modified, so they can be shared
+            return fromEncodedTags(encodedTags);
+        }
         NBTCompound clone = new NBTCompound();
         for (Map.Entry<String, NBT> entry : tags.entrySet()) {
             clone.setTag(entry.getKey(), entry.getValue().copy());
@@ -218,6 +279,7 @@ public class NBTCompound extends NBT {
             if (isEmpty() && ((NBTCompound) other).isEmpty()) {
                 return true;
             }
+            ((NBTCompound) other).decodeTags();
             return tags.equals(((NBTCompound) other).tags);
         }
         return false;
@@ -225,11 +287,13 @@ public class NBTCompound extends NBT {
 
     @Override
     public int hashCode() {
+        decodeTags();
         return tags.hashCode();
     }
 
     @Override
     public String toString() {
+        decodeTags();
         return "Compound{" + tags + "}";
     }
 }
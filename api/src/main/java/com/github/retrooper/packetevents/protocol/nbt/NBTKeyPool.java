@@ -0,0 +1,56 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Shares the key strings of decoded compounds, so equal keys of retained tags
+ * (cached items, registry data, world nbt) mostly exist once in memory.
+ * <p>
+ * The pool is a fixed size table indexed by the key hash without any locking, as it is
+ * hit by every netty thread decoding nbt. A slot only remembers the last key stored in it,
+ * colliding keys simply replace each other, which bounds the pool to {@link #SIZE} short keys.
+ */
+@ApiStatus.Internal
+public final class NBTKeyPool {
+
+    private static final int SIZE = 4096;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    // racy reads and writes are fine here, strings are immutable and safely published
+    private static final String[] KEYS = new String[SIZE];
+
+    private NBTKeyPool() {
+    }
+
+    public static String intern(String key) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            return key;
+        }
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (SIZE - 1);
+        String pooled = KEYS[index];
+        if (pooled != null && pooled.equals(key)) {
+            return pooled;
+        }
+        KEYS[index] = key;
+        return key;
+    }
+}
@@ -23,6 +23,7 @@ import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.*;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
 import com.google.gson.*;
 import com.google.gson.internal.LazilyParsedNumber;
@@ -158,8 +159,7 @@ public class NBTCodec {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             try {
                 final boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                return DefaultNBTSerializer.INSTANCE.deserializeTag(
-                        limiter, new ByteBufInputStream(byteBuf), named);
+                return ByteBufNBTSerializer.INSTANCE.deserializeTag(limiter, byteBuf, named);
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -183,18 +183,35 @@ public class NBTCodec {
         return null;
     }
 
+    /**
+     * Reads a tag like {@link #readNBTFromBuffer(Object, ServerVersion)}, but compounds are only parsed
+     * on first access and written back verbatim until then. Versions before 1.8 compress their nbt,
+     * so it is always parsed directly.
+     */
+    public static NBT readLazyNBTFromBuffer(Object byteBuf, ServerVersion serverVersion) {
+        if (serverVersion.isOlderThan(ServerVersion.V_1_8)) {
+            return readNBTFromBuffer(byteBuf, serverVersion);
+        }
+        try {
+            final boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
+            return ByteBufNBTSerializer.INSTANCE.deserializeLazyTag(NBTLimiter.forBuffer(byteBuf), byteBuf, named);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBTCompound tag) {
         writeNBTToBuffer(byteBuf, serverVersion, (NBT) tag);
     }
 
     public static void writeNBTToBuffer(Object byteBuf, ServerVersion serverVersion, NBT tag) {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
-            try (ByteBufOutputStream outputStream = new ByteBufOutputStream(byteBuf)) {
+            try {
                 if (tag != null) {
                     boolean named = serverVersion.isOlderThan(ServerVersion.V_1_20_2);
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, tag, named);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, tag, named);
                 } else {
-                    DefaultNBTSerializer.INSTANCE.serializeTag(outputStream, NBTEnd.INSTANCE);
+                    ByteBufNBTSerializer.INSTANCE.serializeTag(byteBuf, NBTEnd.INSTANCE);
                 }
             } catch (IOException e) {
                 throw new IllegalStateException(e);
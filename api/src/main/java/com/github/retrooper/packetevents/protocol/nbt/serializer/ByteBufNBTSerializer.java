@@ -0,0 +1,723 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTEnd;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTKeyPool;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes network NBT directly on a buffer, producing the same tags and
+ * enforcing the same limits as {@link DefaultNBTSerializer} on a buffer stream.
+ * <p>
+ * Strings are decoded from modified UTF-8 without an intermediate stream,
+ * and frequently used compound keys are shared instead of allocated for every tag.
+ */
+public final class ByteBufNBTSerializer implements NBTReader<NBT, Object>, NBTWriter<NBT, Object> {
+
+    public static final ByteBufNBTSerializer INSTANCE = new ByteBufNBTSerializer();
+
+    private static final int END = 0, BYTE = 1, SHORT = 2, INT = 3, LONG = 4, FLOAT = 5, DOUBLE = 6,
+            BYTE_ARRAY = 7, STRING = 8, LIST = 9, COMPOUND = 10, INT_ARRAY = 11, LONG_ARRAY = 12;
+
+    private static final NBTType<?>[] TYPES = {
+            NBTType.END, NBTType.BYTE, NBTType.SHORT, NBTType.INT, NBTType.LONG, NBTType.FLOAT, NBTType.DOUBLE,
+            NBTType.BYTE_ARRAY, NBTType.STRING, NBTType.LIST, NBTType.COMPOUND, NBTType.INT_ARRAY, NBTType.LONG_ARRAY
+    };
+
+    // Compound keys used by items, block entities, text components and registries
+    private static final KeyCache KEYS = new KeyCache(
+            "id", "Count", "count", "tag", "Damage", "display", "Name", "Lore", "Enchantments", "StoredEnchantments",
+            "lvl", "components", "Slot", "Items", "x", "y", "z", "keepPacked", "text", "extra", "color", "bold",
+            "italic", "underlined", "strikethrough", "obfuscated", "font", "translate", "with", "fallback",
+            "insertion", "clickEvent", "hoverEvent", "click_event", "hover_event", "action", "value", "contents",
+            "type", "name", "element", "Properties", "Patterns", "Pattern", "Color", "Base", "CustomName",
+            "SkullOwner", "Owner", "profile", "Unbreakable", "HideFlags", "CustomModelData", "Potion",
+            "BlockEntityTag", "EntityTag", "Explosion", "Explosions", "Fireworks", "Flight", "Trim",
+            "material", "pattern", "effects", "has_precipitation", "temperature", "downfall", "fog_color",
+            "sky_color", "water_color", "water_fog_color", "asset_id", "description", "translation_key"
+    );
+
+    private ByteBufNBTSerializer() {
+    }
+
+    @Override
+    public NBT deserializeTag(NBTLimiter limiter, Object from, boolean named) throws IOException {
+        Reader reader = new Reader(PacketEvents.getAPI().getNettyManager().getByteBufOperator(), from, limiter);
+        int id = reader.readTagId();
+        if (id == END) {
+            return null;
+        }
+        if (named) {
+            reader.readName();
+        }
+        return reader.readTag(id);
+    }
+
+    /**
+     * Reads a tag like {@link #deserializeTag(NBTLimiter, Object, boolean)}, but a compound is only
+     * validated and copied, so its entries are parsed on first access and written back verbatim until then.
+     */
+    public @Nullable NBT deserializeLazyTag(NBTLimiter limiter, Object from, boolean named) throws IOException {
+        ByteBufOperator operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+        Reader reader = new Reader(operator, from, limiter);
+        int id = reader.readTagId();
+        if (id == END) {
+            return null;
+        }
+        if (named) {
+            reader.skipName();
+        }
+        if (id != COMPOUND) {
+            return reader.readTag(id);
+        }
+        int start = operator.readerIndex(from);
+        reader.skipTag(COMPOUND);
+        byte[] encoded = new byte[operator.readerIndex(from) - start];
+        operator.getBytes(from, start, encoded);
+        return NBTCompound.fromEncodedTags(encoded);
+    }
+
+    /**
+     * Parses the encoded entries of a lazily read compound into the given compound.
+     * The entries have already been checked against the limiter when they were read.
+     */
+    @ApiStatus.Internal
+    public void readCompoundTags(byte[] encoded, NBTCompound compound) throws IOException {
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(encoded);
+        try {
+            ByteBufOperator operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+            new Reader(operator, buffer, NBTLimiter.noop()).readCompoundTags(compound);
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    @Override
+    public void serializeTag(Object to, NBT tag, boolean named) throws IOException {
+        Writer writer = new Writer(PacketEvents.getAPI().getNettyManager().getByteBufOperator(), to);
+        int id = typeId(tag.getType());
+        writer.operator.writeByte(to, id);
+        if (id == END) {
+            return;
+        }
+        if (named) {
+            writer.writeString("");
+        }
+        writer.writeTag(id, tag);
+    }
+
+    /**
+     * Creates a reader for streaming over the tags of a buffer, instead of reading them as a tree.
+     */
+    @ApiStatus.Internal
+    public Reader reader(Object buffer, NBTLimiter limiter) {
+        return new Reader(PacketEvents.getAPI().getNettyManager().getByteBufOperator(), buffer, limiter);
+    }
+
+    /**
+     * Creates a writer for streaming tags into a buffer, instead of writing them from a tree.
+     */
+    @ApiStatus.Internal
+    public Writer writer(Object buffer) {
+        return new Writer(PacketEvents.getAPI().getNettyManager().getByteBufOperator(), buffer);
+    }
+
+    private static int typeId(NBTType<?> type) throws IOException {
+        for (int id = 0; id < TYPES.length; id++) {
+            if (TYPES[id] == type) {
+                return id;
+            }
+        }
+        throw new IOException(MessageFormat.format("Unknown nbt type {0}", type));
+    }
+
+    @ApiStatus.Internal
+    public static final class Reader {
+
+        private final ByteBufOperator operator;
+        private final Object buffer;
+        private final NBTLimiter limiter;
+        // Reused for every string of the tag
+        private byte[] bytes = new byte[64];
+
+        private Reader(ByteBufOperator operator, Object buffer, NBTLimiter limiter) {
+            this.operator = operator;
+            this.buffer = buffer;
+            this.limiter = limiter;
+        }
+
+        public NBTType<?> readType() throws IOException {
+            return TYPES[this.readTagId()];
+        }
+
+        /**
+         * Reads the name of a compound entry, after its type has been read.
+         */
+        public String readEntryName() throws IOException {
+            String name = this.readName();
+            // duplicate keys are not known to a streaming reader, so every entry is counted
+            this.limiter.increment(36);
+            return name;
+        }
+
+        public NBT readTag(NBTType<?> type) throws IOException {
+            return this.readTag(typeId(type));
+        }
+
+        public void skipTag(NBTType<?> type) throws IOException {
+            this.skipTag(typeId(type));
+        }
+
+        /**
+         * Starts reading a compound, whose entries are then read until the end type.
+         */
+        public void beginCompound() {
+            this.limiter.increment(48);
+        }
+
+        /**
+         * Starts reading a list, whose values are then read with the returned type.
+         *
+         * @return the type of the list values
+         */
+        public NBTType<?> beginList() throws IOException {
+            this.limiter.increment(37);
+            return this.readType();
+        }
+
+        /**
+         * @return the amount of values of the list, which has been started with {@link #beginList()}
+         */
+        public int readListSize(NBTType<?> type) {
+            int size = this.operator.readInt(this.buffer);
+            if (type == NBTType.END && size > 0) {
+                throw new IllegalStateException("Missing nbt list values tag type");
+            }
+            this.limiter.increment(4 * size);
+            return size;
+        }
+
+        private int readTagId() throws IOException {
+            this.limiter.increment(1);
+            int id = this.operator.readByte(this.buffer);
+            if (id < 0 || id >= TYPES.length) {
+                throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+            }
+            return id;
+        }
+
+        private String readName() throws IOException {
+            int length = this.readStringBytes();
+            String name = KEYS.get(this.bytes, length);
+            if (name == null) {
+                name = NBTKeyPool.intern(this.decodeString(length));
+            }
+            this.limiter.increment(name.length() * 2 + 28);
+            return name;
+        }
+
+        @SuppressWarnings("unchecked")
+        private NBT readTag(int id) throws IOException {
+            switch (id) {
+                case END:
+                    this.limiter.increment(8);
+                    return NBTEnd.INSTANCE;
+                case BYTE:
+                    this.limiter.increment(9);
+                    return new NBTByte(this.operator.readByte(this.buffer));
+                case SHORT:
+                    this.limiter.increment(10);
+                    return new NBTShort(this.operator.readShort(this.buffer));
+                case INT:
+                    this.limiter.increment(12);
+                    return new NBTInt(this.operator.readInt(this.buffer));
+                case LONG:
+                    this.limiter.increment(16);
+                    return new NBTLong(this.operator.readLong(this.buffer));
+                case FLOAT:
+                    this.limiter.increment(12);
+                    return new NBTFloat(this.operator.readFloat(this.buffer));
+                case DOUBLE:
+                    this.limiter.increment(16);
+                    return new NBTDouble(this.operator.readDouble(this.buffer));
+                case BYTE_ARRAY: {
+                    this.limiter.increment(24);
+                    int length = this.readArrayLength("Byte", 1);
+                    byte[] array = new byte[length];
+                    this.operator.readBytes(this.buffer, array);
+                    return new NBTByteArray(array);
+                }
+                case STRING: {
+                    this.limiter.increment(36);
+                    String string = this.decodeString(this.readStringBytes());
+                    this.limiter.increment(string.length() * 2);
+                    return new NBTString(string);
+                }
+                case LIST: {
+                    this.limiter.increment(37);
+                    int valueId = this.readTagId();
+                    int size = this.operator.readInt(this.buffer);
+                    if (valueId == END && size > 0) {
+                        throw new IllegalStateException("Missing nbt list values tag type");
+                    }
+                    this.limiter.increment(4 * size);
+                    NBTList<NBT> list = new NBTList<>((NBTType<NBT>) TYPES[valueId], size);
+                    for (int i = 0; i < size; i++) {
+                        list.addTag(this.readTag(valueId));
+                    }
+                    return list;
+                }
+                case COMPOUND: {
+                    this.limiter.increment(48);
+                    NBTCompound compound = new NBTCompound();
+                    this.readCompoundTags(compound);
+                    return compound;
+                }
+                case INT_ARRAY: {
+                    this.limiter.increment(24);
+                    int length = this.readArrayLength("Int", 4);
+                    int[] array = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        array[i] = this.operator.readInt(this.buffer);
+                    }
+                    return new NBTIntArray(array);
+                }
+                case LONG_ARRAY: {
+                    this.limiter.increment(24);
+                    int length = this.readArrayLength("Long", 8);
+                    long[] array = new long[length];
+                    this.operator.readLongs(this.buffer, array, 0, length);
+                    return new NBTLongArray(array);
+                }
+                default:
+                    throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+            }
+        }
+
+        private void readCompoundTags(NBTCompound compound) throws IOException {
+            int valueId;
+            while ((valueId = this.readTagId()) != END) {
+                String name = this.readName();
+                NBT nbt = this.readTag(valueId);
+                if (compound.getTagOrNull(name) == null) {
+                    this.limiter.increment(36);
+                }
+                compound.setTag(name, nbt);
+            }
+        }
+
+        private void skipName() {
+            int length = this.operator.readUnsignedShort(this.buffer);
+            this.operator.skipBytes(this.buffer, length);
+            // the amount of bytes is never less than the amount of characters
+            this.limiter.increment(length * 2 + 28);
+        }
+
+        /**
+         * Skips over a tag while applying at least the limits of {@link #readTag(int)}.
+         */
+        private void skipTag(int id) throws IOException {
+            switch (id) {
+                case END:
+                    this.limiter.increment(8);
+                    break;
+                case BYTE:
+                    this.limiter.increment(9);
+                    this.operator.skipBytes(this.buffer, 1);
+                    break;
+                case SHORT:
+                    this.limiter.increment(10);
+                    this.operator.skipBytes(this.buffer, 2);
+                    break;
+                case INT:
+                case FLOAT:
+                    this.limiter.increment(12);
+                    this.operator.skipBytes(this.buffer, 4);
+                    break;
+                case LONG:
+                case DOUBLE:
+                    this.limiter.increment(16);
+                    this.operator.skipBytes(this.buffer, 8);
+                    break;
+                case BYTE_ARRAY:
+                    this.limiter.increment(24);
+                    this.operator.skipBytes(this.buffer, this.readArrayLength("Byte", 1));
+                    break;
+                case STRING: {
+                    this.limiter.increment(36);
+                    int length = this.operator.readUnsignedShort(this.buffer);
+                    this.operator.skipBytes(this.buffer, length);
+                    this.limiter.increment(length * 2);
+                    break;
+                }
+                case LIST: {
+                    this.limiter.increment(37);
+                    int valueId = this.readTagId();
+                    int size = this.operator.readInt(this.buffer);
+                    if (valueId == END && size > 0) {
+                        throw new IllegalStateException("Missing nbt list values tag type");
+                    }
+                    this.limiter.increment(4 * size);
+                    for (int i = 0; i < size; i++) {
+                        this.skipTag(valueId);
+                    }
+                    break;
+                }
+                case COMPOUND: {
+                    this.limiter.increment(48);
+                    int valueId;
+                    while ((valueId = this.readTagId()) != END) {
+                        this.skipName();
+                        this.skipTag(valueId);
+                        // duplicate keys are not known without parsing, so every entry is counted
+                        this.limiter.increment(36);
+                    }
+                    break;
+                }
+                case INT_ARRAY:
+                    this.limiter.increment(24);
+                    this.operator.skipBytes(this.buffer, this.readArrayLength("Int", 4) * 4);
+                    break;
+                case LONG_ARRAY:
+                    this.limiter.increment(24);
+                    this.operator.skipBytes(this.buffer, this.readArrayLength("Long", 8) * 8);
+                    break;
+                default:
+                    throw new IOException(MessageFormat.format("Unknown nbt type id {0}", id));
+            }
+        }
+
+        private int readArrayLength(String type, int elementSize) {
+            int length = this.operator.readInt(this.buffer);
+            if (length >= 1 << 24) {
+                throw new IllegalArgumentException(type + " array length is too large: " + length);
+            }
+            this.limiter.checkReadability(length * elementSize);
+            this.limiter.increment(length * elementSize);
+            return length;
+        }
+
+        /**
+         * Copies the modified UTF-8 bytes of a string into the scratch array.
+         *
+         * @return the amount of bytes
+         */
+        private int readStringBytes() {
+            int length = this.operator.readUnsignedShort(this.buffer);
+            if (this.bytes.length < length) {
+                this.bytes = new byte[Math.max(length, this.bytes.length * 2)];
+            }
+            this.operator.readBytes(this.buffer, this.bytes, 0, length);
+            return length;
+        }
+
+        private String decodeString(int length) throws UTFDataFormatException {
+            byte[] bytes = this.bytes;
+            int i = 0;
+            while (i < length && bytes[i] > 0) {
+                i++;
+            }
+            if (i == length) {
+                // Only ASCII characters, which are encoded as single bytes
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+
+            char[] chars = new char[length];
+            for (int j = 0; j < i; j++) {
+                chars[j] = (char) bytes[j];
+            }
+            int count = i;
+            while (i < length) {
+                int b = bytes[i] & 0xFF;
+                switch (b >> 4) {
+                    case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                        i++;
+                        chars[count++] = (char) b;
+                        break;
+                    case 12: case 13: {
+                        if (i + 2 > length) {
+                            throw new UTFDataFormatException("malformed input: partial character at end");
+                        }
+                        int b2 = bytes[i + 1];
+                        if ((b2 & 0xC0) != 0x80) {
+                            throw new UTFDataFormatException("malformed input around byte " + (i + 1));
+                        }
+                        chars[count++] = (char) ((b & 0x1F) << 6 | b2 & 0x3F);
+                        i += 2;
+                        break;
+                    }
+                    case 14: {
+                        if (i + 3 > length) {
+                            throw new UTFDataFormatException("malformed input: partial character at end");
+                        }
+                        int b2 = bytes[i + 1];
+                        int b3 = bytes[i + 2];
+                        if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                            throw new UTFDataFormatException("malformed input around byte " + (i + 2));
+                        }
+                        chars[count++] = (char) ((b & 0x0F) << 12 | (b2 & 0x3F) << 6 | b3 & 0x3F);
+                        i += 3;
+                        break;
+                    }
+                    default:
+                        throw new UTFDataFormatException("malformed input around byte " + i);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+    }
+
+    @ApiStatus.Internal
+    public static final class Writer {
+
+        private final ByteBufOperator operator;
+        private final Object buffer;
+        // Reused for every string of the tag
+        private byte[] bytes = new byte[64];
+
+        private Writer(ByteBufOperator operator, Object buffer) {
+            this.operator = operator;
+            this.buffer = buffer;
+        }
+
+        public void writeType(NBTType<?> type) throws IOException {
+            this.operator.writeByte(this.buffer, typeId(type));
+        }
+
+        /**
+         * Writes the type and name of a compound entry, which must be followed by its value.
+         */
+        public void writeEntry(NBTType<?> type, String name) throws IOException {
+            this.writeType(type);
+            this.writeString(name);
+        }
+
+        public void writeEnd() {
+            this.operator.writeByte(this.buffer, END);
+        }
+
+        public void writeByte(int value) {
+            this.operator.writeByte(this.buffer, value);
+        }
+
+        public void writeInt(int value) {
+            this.operator.writeInt(this.buffer, value);
+        }
+
+        public void writeIntArray(int[] array) {
+            this.operator.writeInt(this.buffer, array.length);
+            for (int value : array) {
+                this.operator.writeInt(this.buffer, value);
+            }
+        }
+
+        /**
+         * Writes the value of a tag, without its type.
+         */
+        public void writeValue(NBT tag) throws IOException {
+            this.writeTag(typeId(tag.getType()), tag);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeTag(int id, NBT tag) throws IOException {
+            switch (id) {
+                case BYTE:
+                    this.operator.writeByte(this.buffer, ((NBTByte) tag).getAsByte());
+                    break;
+                case SHORT:
+                    this.operator.writeShort(this.buffer, ((NBTShort) tag).getAsShort());
+                    break;
+                case INT:
+                    this.operator.writeInt(this.buffer, ((NBTInt) tag).getAsInt());
+                    break;
+                case LONG:
+                    this.operator.writeLong(this.buffer, ((NBTLong) tag).getAsLong());
+                    break;
+                case FLOAT:
+                    this.operator.writeFloat(this.buffer, ((NBTFloat) tag).getAsFloat());
+                    break;
+                case DOUBLE:
+                    this.operator.writeDouble(this.buffer, ((NBTDouble) tag).getAsDouble());
+                    break;
+                case BYTE_ARRAY: {
+                    byte[] array = ((NBTByteArray) tag).getValue();
+                    this.operator.writeInt(this.buffer, array.length);
+                    this.operator.writeBytes(this.buffer, array);
+                    break;
+                }
+                case STRING:
+                    this.writeString(((NBTString) tag).getValue());
+                    break;
+                case LIST: {
+                    NBTList<NBT> list = (NBTList<NBT>) tag;
+                    int valueId = typeId(list.getTagsType());
+                    this.operator.writeByte(this.buffer, valueId);
+                    this.operator.writeInt(this.buffer, list.size());
+                    for (NBT value : (List<NBT>) list.getTags()) {
+                        this.writeTag(valueId, value);
+                    }
+                    break;
+                }
+                case COMPOUND: {
+                    byte[] encoded = ((NBTCompound) tag).getEncodedTags();
+                    if (encoded != null) {
+                        // untouched lazily read compound
+                        this.operator.writeBytes(this.buffer, encoded);
+                        break;
+                    }
+                    for (Map.Entry<String, NBT> entry : ((NBTCompound) tag).getTags().entrySet()) {
+                        NBT value = entry.getValue();
+                        int valueId = typeId(value.getType());
+                        this.operator.writeByte(this.buffer, valueId);
+                        this.writeString(entry.getKey());
+                        this.writeTag(valueId, value);
+                    }
+                    this.operator.writeByte(this.buffer, END);
+                    break;
+                }
+                case INT_ARRAY:
+                    this.writeIntArray(((NBTIntArray) tag).getValue());
+                    break;
+                case LONG_ARRAY: {
+                    long[] array = ((NBTLongArray) tag).getValue();
+                    this.operator.writeInt(this.buffer, array.length);
+                    for (long value : array) {
+                        this.operator.writeLong(this.buffer, value);
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Writes a string as modified UTF-8, like {@link java.io.DataOutput#writeUTF(String)}.
+         */
+        public void writeString(String string) throws UTFDataFormatException {
+            int length = string.length();
+            if (this.bytes.length < length * 3) {
+                this.bytes = new byte[Math.max(length * 3, this.bytes.length * 2)];
+            }
+            byte[] bytes = this.bytes;
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                char c = string.charAt(i);
+                if (c >= 0x01 && c <= 0x7F) {
+                    bytes[count++] = (byte) c;
+                } else if (c <= 0x7FF) {
+                    bytes[count++] = (byte) (0xC0 | c >> 6 & 0x1F);
+                    bytes[count++] = (byte) (0x80 | c & 0x3F);
+                } else {
+                    bytes[count++] = (byte) (0xE0 | c >> 12 & 0x0F);
+                    bytes[count++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[count++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            if (count > 65535) {
+                throw new UTFDataFormatException("encoded string too long: " + count + " bytes");
+            }
+            this.operator.writeShort(this.buffer, count);
+            this.operator.writeBytes(this.buffer, bytes, 0, count);
+        }
+    }
+
+    /**
+     * Immutable open addressing table of ASCII keys, looked up by their encoded bytes.
+     */
+    private static final class KeyCache {
+
+        private final String[] keys;
+        private final byte[][] encodedKeys;
+        private final int mask;
+
+        private KeyCache(String... keys) {
+            int capacity = Integer.highestOneBit(keys.length * 4 - 1) << 1;
+            this.keys = new String[capacity];
+            this.encodedKeys = new byte[capacity][];
+            this.mask = capacity - 1;
+            for (String key : keys) {
+                byte[] encoded = key.getBytes(StandardCharsets.US_ASCII);
+                int slot = hash(encoded, encoded.length) & this.mask;
+                while (this.keys[slot] != null) {
+                    slot = slot + 1 & this.mask;
+                }
+                this.keys[slot] = key;
+                this.encodedKeys[slot] = encoded;
+            }
+        }
+
+        private static int hash(byte[] bytes, int length) {
+            int hash = length;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            return hash ^ hash >>> 16;
+        }
+
+        private String get(byte[] bytes, int length) {
+            int slot = hash(bytes, length) & this.mask;
+            byte[] encoded;
+            while ((encoded = this.encodedKeys[slot]) != null) {
+                if (encoded.length == length && equals(encoded, bytes, length)) {
+                    return this.keys[slot];
+                }
+                slot = slot + 1 & this.mask;
+            }
+            return null;
+        }
+
+        private static boolean equals(byte[] encoded, byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                if (encoded[i] != bytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
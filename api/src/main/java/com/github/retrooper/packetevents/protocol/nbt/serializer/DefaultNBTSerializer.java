@@ -38,7 +38,7 @@ public class DefaultNBTSerializer extends NBTSerializer<DataInput, DataOutput> {
                 },
                 DataOutput::writeByte,
                 (limiter, dataInput) -> {
-                    String name = dataInput.readUTF();
+                    String name = NBTKeyPool.intern(dataInput.readUTF());
                     limiter.increment(name.length() * 2 + 28);
                     return name;
                 },
@@ -86,7 +86,6 @@ public class NPC {
         else {
             playerInfo = new WrapperPlayServerPlayerInfo(WrapperPlayServerPlayerInfo.Action.ADD_PLAYER, getLegacyPlayerInfoData());
         }
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, playerInfo);
 
         //TODO Later if we want entity metadata, its not supported on newer server versions though(confirm if its mandatory on older versions)
 
@@ -99,13 +98,17 @@ public class NPC {
                     getProfile().getUUID(),
                     getLocation());
         }
-        PacketEvents.getAPI().getProtocolManager().sendPacket(channel, spawnPacket);
 
-        //Create team
-        if (getNameColor() != null || getPrefixName() != null
-                || getSuffixName() != null) {
-            PacketEvents.getAPI().getProtocolManager().sendPacket(channel, generateTeamsData());
-        }
+        //Send the player info, spawn and team packets with a single flush
+        PacketEvents.getAPI().getProtocolManager().batch(channel, batch -> {
+            batch.write(playerInfo);
+            batch.write(spawnPacket);
+            //Create team
+            if (getNameColor() != null || getPrefixName() != null
+                    || getSuffixName() != null) {
+                batch.write(generateTeamsData());
+            }
+        });
         channels.add(channel);
     }
 
@@ -76,8 +76,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 public final class PacketType {
 
@@ -144,6 +142,13 @@ public final class PacketType {
             ClientVersion.V_1_20_2,
             ClientVersion.V_1_20_5);
 
+    private static final PacketTypeCommon[] HANDSHAKING_CLIENT_TABLE = createConstantTable(Handshaking.Client.values());
+    private static final PacketTypeCommon[] HANDSHAKING_SERVER_TABLE = createConstantTable(Handshaking.Server.values());
+    private static final PacketTypeCommon[] STATUS_CLIENT_TABLE = createConstantTable(Status.Client.values());
+    private static final PacketTypeCommon[] STATUS_SERVER_TABLE = createConstantTable(Status.Server.values());
+    private static final PacketTypeCommon[] LOGIN_CLIENT_TABLE = createConstantTable(Login.Client.values());
+    private static final PacketTypeCommon[] LOGIN_SERVER_TABLE = createConstantTable(Login.Server.values());
+
     public static void prepare() {
         PacketType.Play.Client.load();
         PacketType.Play.Server.load();
@@ -156,6 +161,61 @@ public final class PacketType {
         return PREPARED;
     }
 
+    /**
+     * Creates a lookup table for all packet types of the given side and connection state on the given version.
+     * Resolving a packet type with the returned table is a single array access, so it should be cached
+     * for as long as the connection state and version stay the same.
+     *
+     * @see com.github.retrooper.packetevents.protocol.player.User#getPacketTypeTable(PacketSide, ClientVersion)
+     */
+    public static PacketTypeTable getTable(PacketSide side, ConnectionState state, ClientVersion version) {
+        if (!PREPARED) {
+            PacketType.prepare();
+        }
+        boolean client = side == PacketSide.CLIENT;
+        PacketTypeCommon[] packetTypes;
+        switch (state) {
+            case HANDSHAKING:
+                packetTypes = client ? HANDSHAKING_CLIENT_TABLE : HANDSHAKING_SERVER_TABLE;
+                break;
+            case STATUS:
+                packetTypes = client ? STATUS_CLIENT_TABLE : STATUS_SERVER_TABLE;
+                break;
+            case LOGIN:
+                packetTypes = client ? LOGIN_CLIENT_TABLE : LOGIN_SERVER_TABLE;
+                break;
+            case PLAY:
+                packetTypes = client
+                        ? Play.Client.PACKET_TYPE_ID_TABLE[SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version)]
+                        : Play.Server.PACKET_TYPE_ID_TABLE[CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version)];
+                break;
+            case CONFIGURATION:
+                packetTypes = client
+                        ? Configuration.Client.PACKET_TYPE_ID_TABLE[SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version)]
+                        : Configuration.Server.PACKET_TYPE_ID_TABLE[CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version)];
+                break;
+            default:
+                packetTypes = new PacketTypeCommon[0];
+        }
+        return new PacketTypeTable(side, state, version, packetTypes);
+    }
+
+    static @Nullable PacketTypeCommon getById(PacketTypeCommon[] table, int packetId) {
+        return packetId >= 0 && packetId < table.length ? table[packetId] : null;
+    }
+
+    private static PacketTypeCommon[] createConstantTable(PacketTypeConstant[] packetTypes) {
+        int length = 0;
+        for (PacketTypeConstant packetType : packetTypes) {
+            length = Math.max(length, packetType.getId() + 1);
+        }
+        PacketTypeCommon[] table = new PacketTypeCommon[length];
+        for (PacketTypeConstant packetType : packetTypes) {
+            table[packetType.getId()] = packetType;
+        }
+        return table;
+    }
+
     public static PacketTypeCommon getById(PacketSide side, ConnectionState state, ClientVersion version, int packetID) {
         switch (state) {
             case HANDSHAKING:
@@ -443,7 +503,9 @@ public final class PacketType {
             SELECT_KNOWN_PACKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // version index -> packet id -> packet type
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[SERVERBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -460,13 +522,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Client value = Configuration.Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -479,8 +542,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Deprecated
@@ -530,7 +592,9 @@ public final class PacketType {
             SERVER_LINKS;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // version index -> packet id -> packet type
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -549,13 +613,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -568,8 +633,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Deprecated
@@ -733,7 +797,9 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // version index -> packet id -> packet type
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Client() {
@@ -747,20 +813,19 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
@@ -983,7 +1048,9 @@ public final class PacketType {
             ;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            // version index -> packet id -> packet type
+            private static final PacketTypeCommon[][] PACKET_TYPE_ID_TABLE =
+                    new PacketTypeCommon[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length][];
             private final int[] ids;
 
             Server() {
@@ -1005,8 +1072,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PacketType.getById(PACKET_TYPE_ID_TABLE[index], packetId);
             }
 
             @Override
@@ -1016,13 +1082,14 @@ public final class PacketType {
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
                 int index = INDEX;
+                PacketTypeCommon[] table = new PacketTypeCommon[enumConstants.length];
                 for (Enum<?> constant : enumConstants) {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    table[id] = value;
                 }
+                PACKET_TYPE_ID_TABLE[index] = table;
                 INDEX++;
             }
 
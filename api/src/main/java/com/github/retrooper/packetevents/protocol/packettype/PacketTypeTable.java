@@ -0,0 +1,64 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.packettype;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Dense packet id to packet type lookup table for a single side, connection state and version.
+ *
+ * @see PacketType#getTable(PacketSide, ConnectionState, ClientVersion)
+ */
+public final class PacketTypeTable {
+
+    private final PacketSide side;
+    private final ConnectionState state;
+    private final ClientVersion version;
+    private final PacketTypeCommon[] packetTypes;
+
+    PacketTypeTable(PacketSide side, ConnectionState state, ClientVersion version, PacketTypeCommon[] packetTypes) {
+        this.side = side;
+        this.state = state;
+        this.version = version;
+        this.packetTypes = packetTypes;
+    }
+
+    public @Nullable PacketTypeCommon getById(int packetId) {
+        return PacketType.getById(this.packetTypes, packetId);
+    }
+
+    public boolean matches(ConnectionState state, ClientVersion version) {
+        return this.state == state && this.version == version;
+    }
+
+    public PacketSide getSide() {
+        return this.side;
+    }
+
+    public ConnectionState getState() {
+        return this.state;
+    }
+
+    public ClientVersion getVersion() {
+        return this.version;
+    }
+}
@@ -34,6 +34,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper.Reader;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper.Writer;
@@ -48,7 +49,7 @@ import java.util.Map;
 public class ParticleTypes {
 
     private static final Map<String, ParticleType<?>> PARTICLE_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, ParticleType<?>>> PARTICLE_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<ParticleType<?>> PARTICLE_TYPE_ID_MAP = new VersionedIdTable<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("particle/particle_type_mappings");
 
     public static ParticleType<ParticleData> define(String key) {
@@ -123,8 +124,7 @@ public class ParticleTypes {
 
     public static ParticleType<?> getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, ParticleType<?>> typeIdMap = PARTICLE_TYPE_ID_MAP.get((byte) index);
-        return typeIdMap.get(id);
+        return PARTICLE_TYPE_ID_MAP.get(index, id);
     }
 
     @Deprecated // Removed in 1.20.5
@@ -19,9 +19,11 @@
 package com.github.retrooper.packetevents.protocol.player;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.PacketBatch;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.ChatType;
 import com.github.retrooper.packetevents.protocol.chat.ChatTypes;
 import com.github.retrooper.packetevents.protocol.chat.message.ChatMessage;
@@ -29,6 +31,8 @@ import com.github.retrooper.packetevents.protocol.chat.message.ChatMessageLegacy
 import com.github.retrooper.packetevents.protocol.chat.message.ChatMessage_v1_16;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeTable;
 import com.github.retrooper.packetevents.protocol.world.Dimension;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionType;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
@@ -52,6 +56,7 @@ import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public class User implements IRegistryHolder {
 
@@ -65,6 +70,10 @@ public class User implements IRegistryHolder {
     private DimensionType dimensionType = DimensionTypes.OVERWORLD;
     private final Map<ResourceLocation, IRegistry<?>> registries = new HashMap<>();
 
+    // cached packet type lookups for the current decoder and encoder state
+    private PacketTypeTable decoderPacketTypes;
+    private PacketTypeTable encoderPacketTypes;
+
     public User(Object channel,
                 ConnectionState connectionState, ClientVersion clientVersion,
                 UserProfile profile) {
@@ -86,6 +95,29 @@ public class User implements IRegistryHolder {
         this.registries.put(registry.getRegistryKey(), registry);
     }
 
+    /**
+     * Returns the packet type lookup table of the current decoder or encoder state on the given version.
+     * The table is cached until the state or the requested version changes.
+     *
+     * @param side    {@link PacketSide#CLIENT} for the decoder, {@link PacketSide#SERVER} for the encoder
+     * @param version the version the packet ids belong to
+     */
+    @ApiStatus.Internal
+    public PacketTypeTable getPacketTypeTable(PacketSide side, ClientVersion version) {
+        boolean decoder = side == PacketSide.CLIENT;
+        ConnectionState state = decoder ? this.decoderState : this.encoderState;
+        PacketTypeTable table = decoder ? this.decoderPacketTypes : this.encoderPacketTypes;
+        if (table == null || !table.matches(state, version)) {
+            table = PacketType.getTable(side, state, version);
+            if (decoder) {
+                this.decoderPacketTypes = table;
+            } else {
+                this.encoderPacketTypes = table;
+            }
+        }
+        return table;
+    }
+
     public Object getChannel() {
         return channel;
     }
@@ -180,6 +212,16 @@ public class User implements IRegistryHolder {
         ChannelHelper.flush(channel);
     }
 
+    /**
+     * Sends all packets added to the batch with a single flush.
+     *
+     * @param batch Adds the packets to the batch
+     * @see com.github.retrooper.packetevents.manager.protocol.ProtocolManager#batch(Object, Consumer)
+     */
+    public void batch(Consumer<PacketBatch> batch) {
+        PacketEvents.getAPI().getProtocolManager().batch(channel, batch);
+    }
+
     public void closeConnection() {
         ChannelHelper.close(channel);
     }
@@ -25,6 +25,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
@@ -41,7 +42,7 @@ import java.util.Map;
 public class PotionTypes {
 
     private static final Map<String, PotionType> POTION_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, PotionType>> POTION_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<PotionType> POTION_TYPE_ID_MAP = new VersionedIdTable<>();
 
     // initial mappings based upon https://minecraft.wiki/w/Effect#History
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("entity/entity_effect_mappings");
@@ -95,8 +96,7 @@ public class PotionTypes {
 
     public static @Nullable PotionType getById(int id, ClientVersion version) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, PotionType> idMap = POTION_TYPE_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return POTION_TYPE_ID_MAP.get(index, id);
     }
 
     // Added in b1.8
@@ -31,6 +31,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
@@ -47,7 +48,7 @@ import java.util.Map;
 public class RecipeSerializers {
 
     private static final Map<String, RecipeSerializer<?>> PATTERN_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, RecipeSerializer<?>>> PATTERN_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<RecipeSerializer<?>> PATTERN_TYPE_ID_MAP = new VersionedIdTable<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("item/recipe_serializer_mappings");
 
     public static <T extends RecipeData> RecipeSerializer<T> define(
@@ -113,8 +114,7 @@ public class RecipeSerializers {
 
     public static RecipeSerializer<?> getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, RecipeSerializer<?>> idMap = PATTERN_TYPE_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return PATTERN_TYPE_ID_MAP.get(index, id);
     }
 
     public static final RecipeSerializer<ShapedRecipeData> CRAFTING_SHAPED = define("crafting_shaped",
@@ -23,6 +23,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
@@ -34,7 +35,7 @@ import java.util.Map;
 public class Sounds {
 
     private static final Map<String, Sound> SOUND_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, Sound>> SOUND_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<Sound> SOUND_TYPE_ID_MAP = new VersionedIdTable<>();
 
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("sound/sound_mappings");
 
@@ -91,8 +92,7 @@ public class Sounds {
 
     public static @Nullable Sound getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, Sound> idMap = SOUND_TYPE_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return SOUND_TYPE_ID_MAP.get(index, id);
     }
 
     public static final Sound ENTITY_ALLAY_AMBIENT_WITH_ITEM = define("entity.allay.ambient_with_item");
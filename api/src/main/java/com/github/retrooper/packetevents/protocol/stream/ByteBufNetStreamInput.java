@@ -0,0 +1,176 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.stream;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+
+import java.io.IOException;
+
+/**
+ * A {@link NetStreamInput} reading directly from a buffer, without copying its content into an array first.
+ * The reader index of the buffer is moved by the amount of bytes read.
+ */
+public class ByteBufNetStreamInput extends NetStreamInput {
+    private final Object buffer;
+    private final ByteBufOperator operator;
+
+    public ByteBufNetStreamInput(Object buffer) {
+        // all methods of the filtered stream are overridden
+        super(null);
+        this.buffer = buffer;
+        this.operator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public int read() {
+        return operator.isReadable(buffer) ? operator.readUnsignedByte(buffer) : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int readable = operator.readableBytes(buffer);
+        if (readable == 0) {
+            return -1;
+        }
+        int count = Math.min(len, readable);
+        operator.readBytes(buffer, b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        int count = (int) Math.max(0, Math.min(n, operator.readableBytes(buffer)));
+        operator.skipBytes(buffer, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return operator.readableBytes(buffer);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public byte readByte() {
+        return operator.readByte(buffer);
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return operator.readUnsignedByte(buffer);
+    }
+
+    @Override
+    public short readShort() {
+        return operator.readShort(buffer);
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return operator.readUnsignedShort(buffer);
+    }
+
+    @Override
+    public int readInt() {
+        return operator.readInt(buffer);
+    }
+
+    @Override
+    public int readVarInt() {
+        return operator.readVarInt(buffer);
+    }
+
+    @Override
+    public long readLong() {
+        return operator.readLong(buffer);
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Array cannot have length less than 0.");
+        }
+        if (operator.readableBytes(buffer) < length) {
+            throw new IllegalStateException();
+        }
+        byte[] bytes = new byte[length];
+        operator.readBytes(buffer, bytes);
+        return bytes;
+    }
+
+    @Override
+    public int readBytes(byte[] b) {
+        return read(b, 0, b.length);
+    }
+
+    @Override
+    public int readBytes(byte[] b, int offset, int length) {
+        return read(b, offset, length);
+    }
+
+    @Override
+    public int readShorts(short[] s, int offset, int length) {
+        int count = Math.min(length, operator.readableBytes(buffer) >> 1);
+        for (int index = offset; index < offset + count; index++) {
+            s[index] = operator.readShort(buffer);
+        }
+        return count;
+    }
+
+    @Override
+    public int readInts(int[] i, int offset, int length) {
+        int count = Math.min(length, operator.readableBytes(buffer) >> 2);
+        for (int index = offset; index < offset + count; index++) {
+            i[index] = operator.readInt(buffer);
+        }
+        return count;
+    }
+
+    @Override
+    public int readLongs(long[] l, int offset, int length) {
+        int count = Math.min(length, operator.readableBytes(buffer) >> 3);
+        operator.readLongs(buffer, l, offset, count);
+        return count;
+    }
+}
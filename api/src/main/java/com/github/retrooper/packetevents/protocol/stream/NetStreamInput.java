@@ -183,6 +183,24 @@ public class NetStreamInput extends FilterInputStream {
     }
 
 
+    public void skipBytes(int length) {
+        long skipped = 0;
+        while (skipped < length) {
+            long count = 0;
+            try {
+                count = this.skip(length - skipped);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (count <= 0) {
+                throw new IllegalStateException();
+            }
+
+            skipped += count;
+        }
+    }
+
+
     public short[] readShorts(int length) {
         if (length < 0) {
             throw new IllegalArgumentException("Array cannot have length less than 0.");
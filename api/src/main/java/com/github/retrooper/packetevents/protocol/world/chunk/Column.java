@@ -25,7 +25,13 @@
 package com.github.retrooper.packetevents.protocol.world.chunk;
 
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.util.Arrays;
 
 public class Column {
@@ -41,6 +47,10 @@ public class Column {
     private int[] biomeDataInts;
     private byte[] biomeDataBytes;
 
+    // Encoded sections of a lazy column, sections are decoded into the chunk array once they are accessed
+    private byte @Nullable [] sectionData;
+    private int @Nullable [] sectionOffsets;
+
     public Column(int x, int z, boolean fullChunk, BaseChunk[] chunks, TileEntity[] tileEntities, int[] biomeData) {
         this.x = x;
         this.z = z;
@@ -113,6 +123,39 @@ public class Column {
         this.biomeDataBytes = biomeDataBytes != null ? Arrays.copyOf(biomeDataBytes, biomeDataBytes.length) : null;
     }
 
+    /**
+     * Creates a 1.18+ column which only indexes its sections and decodes them once they are accessed.
+     * Sections which were never accessed are written back unchanged.
+     *
+     * @param sectionData  the encoded sections, as sent in the chunk data packet
+     * @param sectionCount the amount of sections in the column
+     */
+    public Column(int x, int z, boolean fullChunk, byte[] sectionData, int sectionCount, TileEntity[] tileEntities, NBTCompound heightMaps) {
+        this.x = x;
+        this.z = z;
+        this.fullChunk = fullChunk;
+        this.chunks = new BaseChunk[sectionCount];
+        this.tileEntities = tileEntities != null ? tileEntities : new TileEntity[0];
+        this.hasHeightMaps = true;
+        this.heightMaps = heightMaps;
+        this.hasBiomeData = false;
+        this.biomeDataInts = new int[1024];
+        this.sectionData = sectionData;
+        this.sectionOffsets = indexSections(sectionData, sectionCount);
+    }
+
+    private static int[] indexSections(byte[] sectionData, int sectionCount) {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(sectionData);
+        NetStreamInput in = new NetStreamInput(bytes);
+        int[] offsets = new int[sectionCount + 1];
+        for (int index = 0; index < sectionCount; index++) {
+            offsets[index] = sectionData.length - bytes.available();
+            Chunk_v1_18.skip(in);
+        }
+        offsets[sectionCount] = sectionData.length - bytes.available();
+        return offsets;
+    }
+
     public int getX() {
         return x;
     }
@@ -126,9 +169,70 @@ public class Column {
     }
 
     public BaseChunk[] getChunks() {
+        if (sectionData != null) {
+            for (int index = 0; index < chunks.length; index++) {
+                getChunk(index);
+            }
+            // Everything is decoded, the chunk array may now be modified freely
+            sectionData = null;
+            sectionOffsets = null;
+        }
         return chunks;
     }
 
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * Gets a single section of this column, without decoding the other sections of a lazy column.
+     *
+     * @param index the section index, counted from the bottom of the column
+     * @return the section, or null if the section is empty on versions before 1.18
+     */
+    public @Nullable BaseChunk getChunk(int index) {
+        BaseChunk chunk = chunks[index];
+        if (chunk == null && sectionData != null) {
+            int offset = sectionOffsets[index];
+            int length = sectionOffsets[index + 1] - offset;
+            chunk = Chunk_v1_18.read(new NetStreamInput(new ByteArrayInputStream(sectionData, offset, length)));
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets a block, only decoding the section containing it.
+     *
+     * @param x the x coordinate, only the section-relative bits are used
+     * @param y the y coordinate relative to the bottom of the column, so the minimum height of the dimension has to be subtracted
+     * @param z the z coordinate, only the section-relative bits are used
+     * @return the global block id, or air if the block is outside the column
+     */
+    public int getBlockId(int x, int y, int z) {
+        int index = y >> 4;
+        if (index < 0 || index >= chunks.length) {
+            return 0;
+        }
+        BaseChunk chunk = getChunk(index);
+        return chunk != null ? chunk.getBlockId(x & 15, y & 15, z & 15) : 0;
+    }
+
+    /**
+     * Copies a section of a lazy column back unchanged, if it was never decoded.
+     *
+     * @return whether the section was written
+     */
+    @ApiStatus.Internal
+    public boolean writeRawChunk(NetStreamOutput out, int index) {
+        if (sectionData == null || chunks[index] != null) {
+            return false;
+        }
+        int offset = sectionOffsets[index];
+        out.writeBytes(sectionData, offset, sectionOffsets[index + 1] - offset);
+        return true;
+    }
+
     public TileEntity[] getTileEntities() {
         return tileEntities;
     }
@@ -54,6 +54,15 @@ public class Chunk_v1_18 implements BaseChunk {
         return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
     }
 
+    /**
+     * Skips a section without decoding its palettes.
+     */
+    public static void skip(NetStreamInput in) {
+        in.readShort();
+        DataPalette.skip(in, PaletteType.CHUNK);
+        DataPalette.skip(in, PaletteType.BIOME);
+    }
+
     public static void write(NetStreamOutput out, Chunk_v1_18 section)  {
         out.writeShort(section.blockCount);
         DataPalette.write(out, section.chunkData);
@@ -75,6 +84,30 @@ public class Chunk_v1_18 implements BaseChunk {
         }
     }
 
+    /**
+     * Replaces every block of this section at once.
+     *
+     * @see DataPalette#setAll(int[])
+     */
+    public void setAll(int[] states) {
+        this.chunkData.setAll(states);
+        int blockCount = 0;
+        for (int state : states) {
+            if (state != AIR) {
+                blockCount++;
+            }
+        }
+        this.blockCount = blockCount;
+    }
+
+    /**
+     * Sets every block of this section to the same state.
+     */
+    public void fill(int state) {
+        this.chunkData.fill(state);
+        this.blockCount = state == AIR ? 0 : this.chunkData.paletteType.getStorageSize();
+    }
+
     @Override
     public boolean isEmpty() {
         return this.blockCount == 0;
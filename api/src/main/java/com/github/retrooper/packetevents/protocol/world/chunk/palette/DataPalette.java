@@ -73,6 +73,22 @@ public class DataPalette {
         return new DataPalette(palette, storage, paletteType);
     }
 
+    /**
+     * Skips a palette written by {@link #write(NetStreamOutput, DataPalette)} without decoding it.
+     */
+    public static void skip(NetStreamInput in, PaletteType paletteType) {
+        int bitsPerEntry = in.readByte();
+        if (bitsPerEntry == 0) {
+            in.readVarInt(); // Singleton palette
+        } else if (bitsPerEntry <= paletteType.getMaxBitsPerEntry()) {
+            int paletteLength = in.readVarInt();
+            for (int i = 0; i < paletteLength; i++) {
+                in.readVarInt();
+            }
+        }
+        in.skipBytes(in.readVarInt() * Long.BYTES);
+    }
+
     public static void write(NetStreamOutput out, DataPalette palette) {
         if (palette.palette instanceof SingletonPalette) {
             out.writeByte(0); // Bits per entry
@@ -141,6 +157,67 @@ public class DataPalette {
         }
     }
 
+    /**
+     * Sets every entry to the same state.
+     *
+     * @param state the state
+     */
+    public void fill(int state) {
+        int bitsPerEntry = this.paletteType.getMinBitsPerEntry();
+        this.palette = createPalette(bitsPerEntry, this.paletteType);
+        this.palette.stateToId(state);
+        this.storage = new BitStorage(bitsPerEntry, this.paletteType.getStorageSize());
+    }
+
+    /**
+     * Replaces every entry, sizing the palette and storage once for all distinct states
+     * instead of resizing whenever a new state is set.
+     *
+     * @param states the states, in the same order as the storage ({@code y << 8 | z << 4 | x} for chunks)
+     */
+    public void setAll(int[] states) {
+        if (states.length != this.paletteType.getStorageSize()) {
+            throw new IllegalArgumentException("Expected " + this.paletteType.getStorageSize()
+                    + " states but got " + states.length + " states");
+        }
+
+        // Collect the distinct states, in the order they are first used
+        MapPalette distinct = new MapPalette(this.paletteType.getMaxBitsPerEntry());
+        boolean global = false;
+        for (int state : states) {
+            if (distinct.stateToId(state) == -1) {
+                global = true;
+                break;
+            }
+        }
+
+        int bitsPerEntry = global ? GLOBAL_PALETTE_BITS_PER_ENTRY
+                : this.sanitizeBitsPerEntry(32 - Integer.numberOfLeadingZeros(distinct.size() - 1));
+        Palette palette = createPalette(bitsPerEntry, this.paletteType);
+        BitStorage storage = new BitStorage(bitsPerEntry, this.paletteType.getStorageSize());
+        for (int i = 0; i < states.length; i++) {
+            storage.set(i, palette.stateToId(states[i]));
+        }
+        this.palette = palette;
+        this.storage = storage;
+    }
+
+    /**
+     * Replaces every state with the state at its index in the table,
+     * see {@link com.github.retrooper.packetevents.protocol.world.states.BlockStateTranslator}.
+     *
+     * @param table the remap table, states outside of it become air
+     */
+    public void remap(int[] table) {
+        this.palette = this.palette.remap(table);
+        if (this.palette instanceof GlobalPalette && this.storage != null) {
+            for (int i = 0; i < this.paletteType.getStorageSize(); i++) {
+                int state = this.storage.get(i);
+                this.storage.set(i, state < table.length ? table[state] : 0);
+            }
+        }
+    }
+
     private static Palette readPalette(
             PaletteType paletteType,
             int bitsPerEntry,
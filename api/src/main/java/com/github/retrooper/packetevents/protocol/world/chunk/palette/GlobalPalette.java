@@ -43,4 +43,12 @@ public class GlobalPalette implements Palette {
     public int idToState(int id) {
         return id;
     }
+
+    /**
+     * The storage holds the block states directly, so it has to be remapped instead.
+     */
+    @Override
+    public GlobalPalette remap(int[] table) {
+        return this;
+    }
 }
@@ -74,6 +74,15 @@ public class ListPalette implements Palette {
         return id;
     }
 
+    @Override
+    public ListPalette remap(int[] table) {
+        for (int i = 0; i < this.nextId; i++) {
+            int state = this.data[i];
+            this.data[i] = state >= 0 && state < table.length ? table[state] : 0;
+        }
+        return this;
+    }
+
     @Override
     public int idToState(int id) {
         if (id >= 0 && id < this.size()) {
@@ -26,23 +26,27 @@ package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
- * A palette backed by a map.
+ * A palette backed by an open addressing int to int map.
  */
 public class MapPalette implements Palette {
     private final int maxId;
 
     private final int[] idToState;
-    // TODO: Can we use fastutils here?
-    private final HashMap<Object, Integer> stateToId = new HashMap<>();
+    // Palette ids offset by one, indexed by the hash of their state, 0 marks an empty slot
+    private final int[] stateToId;
+    private final int mask;
     private int nextId = 0;
 
     public MapPalette(int bitsPerEntry) {
         this.maxId = (1 << bitsPerEntry) - 1;
 
         this.idToState = new int[this.maxId + 1];
+        // Keep the load factor at or below one half
+        this.stateToId = new int[(this.maxId + 1) * 2];
+        this.mask = this.stateToId.length - 1;
     }
 
     public MapPalette(int bitsPerEntry, NetStreamInput in) {
@@ -50,9 +54,8 @@ public class MapPalette implements Palette {
 
         int paletteLength = in.readVarInt();
         for (int i = 0; i < paletteLength; i++) {
-            int state = in.readVarInt();
-            this.idToState[i] = state;
-            this.stateToId.putIfAbsent(state, i);
+            this.idToState[i] = in.readVarInt();
+            this.index(i);
         }
         this.nextId = paletteLength;
     }
@@ -64,18 +67,14 @@ public class MapPalette implements Palette {
 
     @Override
     public int stateToId(int state) {
-        Integer id = this.stateToId.get(state);
-        if (id == null && this.size() < this.maxId + 1) {
+        int slot = this.findSlot(state);
+        int id = this.stateToId[slot] - 1;
+        if (id == -1 && this.size() < this.maxId + 1) {
             id = this.nextId++;
             this.idToState[id] = state;
-            this.stateToId.put(state, id);
-        }
-
-        if (id != null) {
-            return id;
-        } else {
-            return -1;
+            this.stateToId[slot] = id + 1;
         }
+        return id;
     }
 
     @Override
@@ -86,4 +85,36 @@ public class MapPalette implements Palette {
             return 0;
         }
     }
+
+    @Override
+    public MapPalette remap(int[] table) {
+        Arrays.fill(this.stateToId, 0);
+        for (int i = 0; i < this.nextId; i++) {
+            int state = this.idToState[i];
+            this.idToState[i] = state >= 0 && state < table.length ? table[state] : 0;
+            this.index(i);
+        }
+        return this;
+    }
+
+    private void index(int id) {
+        int slot = this.findSlot(this.idToState[id]);
+        // Duplicate states keep their first id
+        if (this.stateToId[slot] == 0) {
+            this.stateToId[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Finds the slot holding the state, or the empty slot where it would be inserted.
+     */
+    private int findSlot(int state) {
+        int hash = state * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & this.mask;
+        int id;
+        while ((id = this.stateToId[slot]) != 0 && this.idToState[id - 1] != state) {
+            slot = slot + 1 & this.mask;
+        }
+        return slot;
+    }
 }
@@ -52,4 +52,13 @@ public interface Palette {
      * @return The resulting block state.
      */
     int idToState(int id);
+
+    /**
+     * Replaces every block state of this palette with the state at its index in the table.
+     * Block states outside of the table become air.
+     *
+     * @param table Block state remap table.
+     * @return The remapped palette, which may be this palette.
+     */
+    Palette remap(int[] table);
 }
@@ -31,7 +31,11 @@ public class SingletonPalette implements Palette {
     private final int state;
 
     public SingletonPalette(NetStreamInput in) {
-        this.state = in.readVarInt();
+        this(in.readVarInt());
+    }
+
+    public SingletonPalette(int state) {
+        this.state = state;
     }
 
     @Override
@@ -47,6 +51,12 @@ public class SingletonPalette implements Palette {
         return -1;
     }
 
+    @Override
+    public SingletonPalette remap(int[] table) {
+        int state = this.state >= 0 && this.state < table.length ? table[this.state] : 0;
+        return state == this.state ? this : new SingletonPalette(state);
+    }
+
     @Override
     public int idToState(int id) {
         if (id == 0) {
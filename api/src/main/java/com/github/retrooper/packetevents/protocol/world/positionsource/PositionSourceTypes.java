@@ -26,6 +26,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper.Reader;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper.Writer;
@@ -38,7 +39,7 @@ import java.util.Map;
 public class PositionSourceTypes {
 
     private static final Map<String, PositionSourceType<?>> POS_SOURCE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, PositionSourceType<?>>> POS_SOURCE_ID_MAP = new HashMap<>();
+    private static final VersionedIdTable<PositionSourceType<?>> POS_SOURCE_ID_MAP = new VersionedIdTable<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("world/world_position_source_mappings");
 
     @ApiStatus.Internal
@@ -99,8 +100,7 @@ public class PositionSourceTypes {
 
     public static PositionSourceType<?> getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, PositionSourceType<?>> idMap = POS_SOURCE_ID_MAP.get((byte) index);
-        return idMap.get(id);
+        return POS_SOURCE_ID_MAP.get(index, id);
     }
 
     public static final PositionSourceType<BlockPositionSource> BLOCK = define("block",
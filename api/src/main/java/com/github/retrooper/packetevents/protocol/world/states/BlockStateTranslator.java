@@ -0,0 +1,103 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.states;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Translates global block state ids between versions using precomputed remap tables,
+ * instead of looking up a {@link WrappedBlockState} for every id.
+ * <p>
+ * A table is created on first use for every pair of block state mappings and then shared.
+ */
+public final class BlockStateTranslator {
+
+    private static final int MAPPING_COUNT = WrappedBlockState.getMappingsIndexCount();
+    // Indexed by source mappings * MAPPING_COUNT + target mappings
+    private static final AtomicReferenceArray<int[]> TABLES = new AtomicReferenceArray<>(MAPPING_COUNT * MAPPING_COUNT);
+
+    private BlockStateTranslator() {
+    }
+
+    /**
+     * Gets the table mapping global ids of one version to the other.
+     * The returned array is shared and must not be modified.
+     *
+     * @param from the version of the ids
+     * @param to   the version to translate to
+     * @return the remap table, or null if both versions use the same block state ids
+     */
+    public static int @Nullable [] getRemapTable(ClientVersion from, ClientVersion to) {
+        byte fromIndex = WrappedBlockState.getMappingsIndex(from);
+        byte toIndex = WrappedBlockState.getMappingsIndex(to);
+        if (fromIndex == toIndex) {
+            return null;
+        }
+        int slot = fromIndex * MAPPING_COUNT + toIndex;
+        int[] table = TABLES.get(slot);
+        if (table == null) {
+            table = WrappedBlockState.createRemapTable(fromIndex, toIndex);
+            if (!TABLES.compareAndSet(slot, null, table)) {
+                table = TABLES.get(slot);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Translates a single global id, unknown ids are translated to air.
+     */
+    public static int translate(ClientVersion from, ClientVersion to, int globalId) {
+        int[] table = getRemapTable(from, to);
+        if (table == null) {
+            return globalId;
+        }
+        return globalId >= 0 && globalId < table.length ? table[globalId] : 0;
+    }
+
+    /**
+     * Translates all block states of a chunk section palette in place.
+     * This only remaps the palette entries, unless the palette is global.
+     */
+    public static void translate(ClientVersion from, ClientVersion to, DataPalette palette) {
+        int[] table = getRemapTable(from, to);
+        if (table != null) {
+            palette.remap(table);
+        }
+    }
+
+    /**
+     * Translates the block ids of multi block change entries in place.
+     */
+    public static void translate(ClientVersion from, ClientVersion to, WrapperPlayServerMultiBlockChange.EncodedBlock[] blocks) {
+        int[] table = getRemapTable(from, to);
+        if (table == null) {
+            return;
+        }
+        for (WrapperPlayServerMultiBlockChange.EncodedBlock block : blocks) {
+            int blockId = block.getBlockId();
+            block.setBlockId(blockId >= 0 && blockId < table.length ? table[blockId] : 0);
+        }
+    }
+}
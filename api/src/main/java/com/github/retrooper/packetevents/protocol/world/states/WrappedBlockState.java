@@ -42,13 +42,17 @@ import com.github.retrooper.packetevents.util.BinaryNBTCompound;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -95,7 +99,8 @@ public class WrappedBlockState {
 
     private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0);
     private static final Map<Byte, Map<String, WrappedBlockState>> BY_STRING = new HashMap<>();
-    private static final Map<Byte, Map<Integer, WrappedBlockState>> BY_ID = new HashMap<>();
+    // Indexed by mapping index and global id
+    private static final WrappedBlockState[][] BY_ID = new WrappedBlockState[MAPPING_INDEXES[MAPPING_INDEXES.length - 1] + 1][];
     private static final Map<Byte, Map<WrappedBlockState, String>> INTO_STRING = new HashMap<>();
     private static final Map<Byte, Map<WrappedBlockState, Integer>> INTO_ID = new HashMap<>();
     private static final Map<Byte, Map<StateType, WrappedBlockState>> DEFAULT_STATES = new HashMap<>();
@@ -129,6 +134,8 @@ public class WrappedBlockState {
     Map<StateValue, Object> data = new HashMap<>(0);
     boolean hasClonedData = false;
     byte mappingsIndex;
+    // Shared by all states of a type, null if the states of the type can't be packed
+    @Nullable PropertyLayout layout;
 
     @Deprecated
     public WrappedBlockState(StateType type, String[] data, int globalID, byte mappingsIndex) {
@@ -241,8 +248,7 @@ public class WrappedBlockState {
     @NotNull
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
         if (globalID == 0) return AIR; // Hardcode for performance
-        byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_ID.get(mappingsIndex).getOrDefault(globalID, AIR);
+        final WrappedBlockState state = getCanonicalState(getMappingsIndex(version), globalID);
         return clone ? state.clone() : state;
     }
 
@@ -285,10 +291,47 @@ public class WrappedBlockState {
         return clone ? state.clone() : state;
     }
 
-    private static byte getMappingsIndex(ClientVersion version) {
+    static byte getMappingsIndex(ClientVersion version) {
         return MAPPING_INDEXES[version.ordinal()];
     }
 
+    static int getMappingsIndexCount() {
+        return BY_ID.length;
+    }
+
+    /**
+     * Maps every global id of the source mappings to the id of the equal state in the target mappings.
+     * States missing in the target fall back to the default state of their type, or air.
+     */
+    static int[] createRemapTable(byte fromIndex, byte toIndex) {
+        WrappedBlockState[] states = BY_ID[fromIndex];
+        Map<WrappedBlockState, Integer> targetIds = INTO_ID.get(toIndex);
+        Map<StateType, WrappedBlockState> targetDefaults = DEFAULT_STATES.get(toIndex);
+        int[] table = new int[states.length];
+        for (int id = 0; id < states.length; id++) {
+            WrappedBlockState state = states[id];
+            if (state == null) {
+                continue; // Unknown ids are air
+            }
+            Integer targetId = targetIds.get(state);
+            if (targetId == null) {
+                WrappedBlockState defaultState = targetDefaults.get(state.type);
+                targetId = defaultState != null ? defaultState.globalID : 0;
+            }
+            table[id] = targetId;
+        }
+        return table;
+    }
+
+    private static WrappedBlockState getCanonicalState(byte mappingsIndex, int globalID) {
+        WrappedBlockState[] states = BY_ID[mappingsIndex];
+        if (globalID < 0 || globalID >= states.length) {
+            return AIR;
+        }
+        WrappedBlockState state = states[globalID];
+        return state != null ? state : AIR;
+    }
+
     private static void loadLegacy(Map<BinaryNBTCompound, Map.Entry<Map<StateValue, Object>, String>> cache) {
         Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
         Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
@@ -380,7 +423,12 @@ public class WrappedBlockState {
                 }
             }
 
-            BY_ID.put(LEGACY_MAPPING_INDEX, stateByIdMap);
+            int maxId = stateByIdMap.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            WrappedBlockState[] statesById = new WrappedBlockState[maxId + 1];
+            for (Map.Entry<Integer, WrappedBlockState> entry : stateByIdMap.entrySet()) {
+                statesById[entry.getKey()] = entry.getValue();
+            }
+            BY_ID[LEGACY_MAPPING_INDEX] = statesById;
             INTO_ID.put(LEGACY_MAPPING_INDEX, stateToIdMap);
             BY_STRING.put(LEGACY_MAPPING_INDEX, stateByStringMap);
             INTO_STRING.put(LEGACY_MAPPING_INDEX, stateToStringMap);
@@ -399,7 +447,7 @@ public class WrappedBlockState {
                 byte mappingIndex = getMappingsIndex(version);
                 SequentialNBTReader.List list = (SequentialNBTReader.List) versionEntry.getValue();
 
-                Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
+                List<WrappedBlockState> statesById = new ArrayList<>();
                 Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
                 Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
                 Map<WrappedBlockState, String> stateToStringMap = new HashMap<>();
@@ -436,6 +484,7 @@ public class WrappedBlockState {
                     }
 
                     int index = 0;
+                    int typeStart = statesById.size();
                     for (NBT nbt : ((SequentialNBTReader.List) next.getValue())) {
                         SequentialNBTReader.Compound dataContent = (SequentialNBTReader.Compound) nbt;
                         Map.Entry<Map<StateValue, Object>, String> dataEntry = cache.computeIfAbsent(new BinaryNBTCompound(dataContent.readFullyAsBytes()), (bin) -> {
@@ -493,16 +542,22 @@ public class WrappedBlockState {
                         }
 
                         stateByStringMap.put(fullString, state);
-                        stateByIdMap.put(id, state);
+                        statesById.add(state);
                         stateToStringMap.put(state, fullString);
                         stateToIdMap.put(state, id);
 
                         id++;
                         index++;
                     }
+
+                    List<WrappedBlockState> typeStates = statesById.subList(typeStart, statesById.size());
+                    PropertyLayout layout = PropertyLayout.create(typeStates);
+                    for (WrappedBlockState state : typeStates) {
+                        state.layout = layout;
+                    }
                 }
 
-                BY_ID.put(mappingIndex, stateByIdMap);
+                BY_ID[mappingIndex] = statesById.toArray(new WrappedBlockState[0]);
                 INTO_ID.put(mappingIndex, stateToIdMap);
                 BY_STRING.put(mappingIndex, stateByStringMap);
                 INTO_STRING.put(mappingIndex, stateToStringMap);
@@ -515,7 +570,9 @@ public class WrappedBlockState {
 
     @Override
     public WrappedBlockState clone() {
-        return new WrappedBlockState(type, data, globalID, mappingsIndex);
+        WrappedBlockState state = new WrappedBlockState(type, data, globalID, mappingsIndex);
+        state.layout = layout;
+        return state;
     }
 
     @Override
@@ -543,9 +600,7 @@ public class WrappedBlockState {
     }
 
     public void setAge(int age) {
-        checkIfCloneNeeded();
-        data.put(StateValue.AGE, age);
-        checkIsStillValid();
+        setValue(StateValue.AGE, age);
     }
 
     public boolean isAttached() {
@@ -553,9 +608,7 @@ public class WrappedBlockState {
     }
 
     public void setAttached(boolean attached) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ATTACHED, attached);
-        checkIsStillValid();
+        setValue(StateValue.ATTACHED, attached);
     }
 
     public Attachment getAttachment() {
@@ -563,9 +616,7 @@ public class WrappedBlockState {
     }
 
     public void setAttachment(Attachment attachment) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ATTACHMENT, attachment);
-        checkIsStillValid();
+        setValue(StateValue.ATTACHMENT, attachment);
     }
 
     public Axis getAxis() {
@@ -573,9 +624,7 @@ public class WrappedBlockState {
     }
 
     public void setAxis(Axis axis) {
-        checkIfCloneNeeded();
-        data.put(StateValue.AXIS, axis);
-        checkIsStillValid();
+        setValue(StateValue.AXIS, axis);
     }
 
     public boolean isBerries() {
@@ -583,9 +632,7 @@ public class WrappedBlockState {
     }
 
     public void setBerries(boolean berries) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BERRIES, berries);
-        checkIsStillValid();
+        setValue(StateValue.BERRIES, berries);
     }
 
     public int getBites() {
@@ -593,9 +640,7 @@ public class WrappedBlockState {
     }
 
     public void setBites(int bites) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BITES, bites);
-        checkIsStillValid();
+        setValue(StateValue.BITES, bites);
     }
 
     public boolean isBottom() {
@@ -603,9 +648,7 @@ public class WrappedBlockState {
     }
 
     public void setBottom(boolean bottom) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BOTTOM, bottom);
-        checkIsStillValid();
+        setValue(StateValue.BOTTOM, bottom);
     }
 
     public int getCandles() {
@@ -613,9 +656,7 @@ public class WrappedBlockState {
     }
 
     public void setCandles(int candles) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CANDLES, candles);
-        checkIsStillValid();
+        setValue(StateValue.CANDLES, candles);
     }
 
     public int getCharges() {
@@ -623,9 +664,7 @@ public class WrappedBlockState {
     }
 
     public void setCharges(int charges) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CHARGES, charges);
-        checkIsStillValid();
+        setValue(StateValue.CHARGES, charges);
     }
 
     public boolean isConditional() {
@@ -633,9 +672,7 @@ public class WrappedBlockState {
     }
 
     public void setConditional(boolean conditional) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CONDITIONAL, conditional);
-        checkIsStillValid();
+        setValue(StateValue.CONDITIONAL, conditional);
     }
 
     public int getDelay() {
@@ -643,9 +680,7 @@ public class WrappedBlockState {
     }
 
     public void setDelay(int delay) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DELAY, delay);
-        checkIsStillValid();
+        setValue(StateValue.DELAY, delay);
     }
 
     public boolean isDisarmed() {
@@ -653,9 +688,7 @@ public class WrappedBlockState {
     }
 
     public void setDisarmed(boolean disarmed) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DISARMED, disarmed);
-        checkIsStillValid();
+        setValue(StateValue.DISARMED, disarmed);
     }
 
     public int getDistance() {
@@ -663,9 +696,7 @@ public class WrappedBlockState {
     }
 
     public void setDistance(int distance) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DISTANCE, distance);
-        checkIsStillValid();
+        setValue(StateValue.DISTANCE, distance);
     }
 
     public boolean isDown() {
@@ -673,9 +704,7 @@ public class WrappedBlockState {
     }
 
     public void setDown(boolean down) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DOWN, down);
-        checkIsStillValid();
+        setValue(StateValue.DOWN, down);
     }
 
     public boolean isDrag() {
@@ -683,9 +712,7 @@ public class WrappedBlockState {
     }
 
     public void setDrag(boolean drag) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DRAG, drag);
-        checkIsStillValid();
+        setValue(StateValue.DRAG, drag);
     }
 
     public boolean isDusted() {
@@ -693,9 +720,7 @@ public class WrappedBlockState {
     }
 
     public void setDusted(boolean dusted) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DUSTED, dusted);
-        checkIsStillValid();
+        setValue(StateValue.DUSTED, dusted);
     }
 
     public int getEggs() {
@@ -703,9 +728,7 @@ public class WrappedBlockState {
     }
 
     public void setEggs(int eggs) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EGGS, eggs);
-        checkIsStillValid();
+        setValue(StateValue.EGGS, eggs);
     }
 
     public boolean isEnabled() {
@@ -713,9 +736,7 @@ public class WrappedBlockState {
     }
 
     public void setEnabled(boolean enabled) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ENABLED, enabled);
-        checkIsStillValid();
+        setValue(StateValue.ENABLED, enabled);
     }
 
     public boolean isExtended() {
@@ -723,9 +744,7 @@ public class WrappedBlockState {
     }
 
     public void setExtended(boolean extended) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EXTENDED, extended);
-        checkIsStillValid();
+        setValue(StateValue.EXTENDED, extended);
     }
 
     public boolean isEye() {
@@ -733,9 +752,7 @@ public class WrappedBlockState {
     }
 
     public void setEye(boolean eye) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EYE, eye);
-        checkIsStillValid();
+        setValue(StateValue.EYE, eye);
     }
 
     public Face getFace() {
@@ -743,9 +760,7 @@ public class WrappedBlockState {
     }
 
     public void setFace(Face face) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FACE, face);
-        checkIsStillValid();
+        setValue(StateValue.FACE, face);
     }
 
     public BlockFace getFacing() {
@@ -753,9 +768,7 @@ public class WrappedBlockState {
     }
 
     public void setFacing(BlockFace facing) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FACING, facing);
-        checkIsStillValid();
+        setValue(StateValue.FACING, facing);
     }
 
     public int getFlowerAmount() {
@@ -763,9 +776,7 @@ public class WrappedBlockState {
     }
 
     public void setFlowerAmount(int flowerAmount) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FLOWER_AMOUNT, flowerAmount);
-        checkIsStillValid();
+        setValue(StateValue.FLOWER_AMOUNT, flowerAmount);
     }
 
     public Half getHalf() {
@@ -773,9 +784,7 @@ public class WrappedBlockState {
     }
 
     public void setHalf(Half half) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HALF, half);
-        checkIsStillValid();
+        setValue(StateValue.HALF, half);
     }
 
     public boolean isHanging() {
@@ -783,9 +792,7 @@ public class WrappedBlockState {
     }
 
     public void setHanging(boolean hanging) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HANGING, hanging);
-        checkIsStillValid();
+        setValue(StateValue.HANGING, hanging);
     }
 
     public boolean isHasBook() {
@@ -793,9 +800,7 @@ public class WrappedBlockState {
     }
 
     public void setHasBook(boolean hasBook) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOOK, hasBook);
-        checkIsStillValid();
+        setValue(StateValue.HAS_BOOK, hasBook);
     }
 
     public boolean isHasBottle0() {
@@ -803,9 +808,7 @@ public class WrappedBlockState {
     }
 
     public void setHasBottle0(boolean hasBottle0) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_0, hasBottle0);
-        checkIsStillValid();
+        setValue(StateValue.HAS_BOTTLE_0, hasBottle0);
     }
 
     public boolean isHasBottle1() {
@@ -813,9 +816,7 @@ public class WrappedBlockState {
     }
 
     public void setHasBottle1(boolean hasBottle1) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_1, hasBottle1);
-        checkIsStillValid();
+        setValue(StateValue.HAS_BOTTLE_1, hasBottle1);
     }
 
     public boolean isHasBottle2() {
@@ -823,9 +824,7 @@ public class WrappedBlockState {
     }
 
     public void setHasBottle2(boolean hasBottle2) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_2, hasBottle2);
-        checkIsStillValid();
+        setValue(StateValue.HAS_BOTTLE_2, hasBottle2);
     }
 
     public boolean isHasRecord() {
@@ -833,9 +832,7 @@ public class WrappedBlockState {
     }
 
     public void setHasRecord(boolean hasRecord) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_RECORD, hasRecord);
-        checkIsStillValid();
+        setValue(StateValue.HAS_RECORD, hasRecord);
     }
 
     public int getHatch() {
@@ -843,9 +840,7 @@ public class WrappedBlockState {
     }
 
     public void setHatch(int hatch) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HATCH, hatch);
-        checkIsStillValid();
+        setValue(StateValue.HATCH, hatch);
     }
 
     public Hinge getHinge() {
@@ -853,9 +848,7 @@ public class WrappedBlockState {
     }
 
     public void setHinge(Hinge hinge) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HINGE, hinge);
-        checkIsStillValid();
+        setValue(StateValue.HINGE, hinge);
     }
 
     public int getHoneyLevel() {
@@ -863,9 +856,7 @@ public class WrappedBlockState {
     }
 
     public void setHoneyLevel(int honeyLevel) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HONEY_LEVEL, honeyLevel);
-        checkIsStillValid();
+        setValue(StateValue.HONEY_LEVEL, honeyLevel);
     }
 
     public boolean isInWall() {
@@ -873,9 +864,7 @@ public class WrappedBlockState {
     }
 
     public void setInWall(boolean inWall) {
-        checkIfCloneNeeded();
-        data.put(StateValue.IN_WALL, inWall);
-        checkIsStillValid();
+        setValue(StateValue.IN_WALL, inWall);
     }
 
     public Instrument getInstrument() {
@@ -883,9 +872,7 @@ public class WrappedBlockState {
     }
 
     public void setInstrument(Instrument instrument) {
-        checkIfCloneNeeded();
-        data.put(StateValue.INSTRUMENT, instrument);
-        checkIsStillValid();
+        setValue(StateValue.INSTRUMENT, instrument);
     }
 
     public boolean isInverted() {
@@ -893,9 +880,7 @@ public class WrappedBlockState {
     }
 
     public void setInverted(boolean inverted) {
-        checkIfCloneNeeded();
-        data.put(StateValue.INVERTED, inverted);
-        checkIsStillValid();
+        setValue(StateValue.INVERTED, inverted);
     }
 
     public int getLayers() {
@@ -903,9 +888,7 @@ public class WrappedBlockState {
     }
 
     public void setLayers(int layers) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LAYERS, layers);
-        checkIsStillValid();
+        setValue(StateValue.LAYERS, layers);
     }
 
     public Leaves getLeaves() {
@@ -913,9 +896,7 @@ public class WrappedBlockState {
     }
 
     public void setLeaves(Leaves leaves) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LEAVES, leaves);
-        checkIsStillValid();
+        setValue(StateValue.LEAVES, leaves);
     }
 
     public int getLevel() {
@@ -923,9 +904,7 @@ public class WrappedBlockState {
     }
 
     public void setLevel(int level) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LEVEL, level);
-        checkIsStillValid();
+        setValue(StateValue.LEVEL, level);
     }
 
     public boolean isLit() {
@@ -933,9 +912,7 @@ public class WrappedBlockState {
     }
 
     public void setLit(boolean lit) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LIT, lit);
-        checkIsStillValid();
+        setValue(StateValue.LIT, lit);
     }
 
     public boolean isTip() {
@@ -943,9 +920,7 @@ public class WrappedBlockState {
     }
 
     public void setTip(boolean tip) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TIP, tip);
-        checkIsStillValid();
+        setValue(StateValue.TIP, tip);
     }
 
     public boolean isLocked() {
@@ -953,9 +928,7 @@ public class WrappedBlockState {
     }
 
     public void setLocked(boolean locked) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LOCKED, locked);
-        checkIsStillValid();
+        setValue(StateValue.LOCKED, locked);
     }
 
     public Mode getMode() {
@@ -963,9 +936,7 @@ public class WrappedBlockState {
     }
 
     public void setMode(Mode mode) {
-        checkIfCloneNeeded();
-        data.put(StateValue.MODE, mode);
-        checkIsStillValid();
+        setValue(StateValue.MODE, mode);
     }
 
     public int getMoisture() {
@@ -973,9 +944,7 @@ public class WrappedBlockState {
     }
 
     public void setMoisture(int moisture) {
-        checkIfCloneNeeded();
-        data.put(StateValue.MOISTURE, moisture);
-        checkIsStillValid();
+        setValue(StateValue.MOISTURE, moisture);
     }
 
     public North getNorth() {
@@ -983,9 +952,7 @@ public class WrappedBlockState {
     }
 
     public void setNorth(North north) {
-        checkIfCloneNeeded();
-        data.put(StateValue.NORTH, north);
-        checkIsStillValid();
+        setValue(StateValue.NORTH, north);
     }
 
     public int getNote() {
@@ -993,9 +960,7 @@ public class WrappedBlockState {
     }
 
     public void setNote(int note) {
-        checkIfCloneNeeded();
-        data.put(StateValue.NOTE, note);
-        checkIsStillValid();
+        setValue(StateValue.NOTE, note);
     }
 
     public boolean isOccupied() {
@@ -1003,9 +968,7 @@ public class WrappedBlockState {
     }
 
     public void setOccupied(boolean occupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.OCCUPIED, occupied);
-        checkIsStillValid();
+        setValue(StateValue.OCCUPIED, occupied);
     }
 
     public boolean isShrieking() {
@@ -1013,9 +976,7 @@ public class WrappedBlockState {
     }
 
     public void setShrieking(boolean shrieking) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHRIEKING, shrieking);
-        checkIsStillValid();
+        setValue(StateValue.SHRIEKING, shrieking);
     }
 
     public boolean isCanSummon() {
@@ -1023,9 +984,7 @@ public class WrappedBlockState {
     }
 
     public void setCanSummon(boolean canSummon) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CAN_SUMMON, canSummon);
-        checkIsStillValid();
+        setValue(StateValue.CAN_SUMMON, canSummon);
     }
 
     public boolean isOpen() {
@@ -1033,9 +992,7 @@ public class WrappedBlockState {
     }
 
     public void setOpen(boolean open) {
-        checkIfCloneNeeded();
-        data.put(StateValue.OPEN, open);
-        checkIsStillValid();
+        setValue(StateValue.OPEN, open);
     }
 
     public Orientation getOrientation() {
@@ -1043,9 +1000,7 @@ public class WrappedBlockState {
     }
 
     public void setOrientation(Orientation orientation) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ORIENTATION, orientation);
-        checkIsStillValid();
+        setValue(StateValue.ORIENTATION, orientation);
     }
 
     public Part getPart() {
@@ -1053,9 +1008,7 @@ public class WrappedBlockState {
     }
 
     public void setPart(Part part) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PART, part);
-        checkIsStillValid();
+        setValue(StateValue.PART, part);
     }
 
     public boolean isPersistent() {
@@ -1063,9 +1016,7 @@ public class WrappedBlockState {
     }
 
     public void setPersistent(boolean persistent) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PERSISTENT, persistent);
-        checkIsStillValid();
+        setValue(StateValue.PERSISTENT, persistent);
     }
 
     public int getPickles() {
@@ -1073,9 +1024,7 @@ public class WrappedBlockState {
     }
 
     public void setPickles(int pickles) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PICKLES, pickles);
-        checkIsStillValid();
+        setValue(StateValue.PICKLES, pickles);
     }
 
     public int getPower() {
@@ -1083,9 +1032,7 @@ public class WrappedBlockState {
     }
 
     public void setPower(int power) {
-        checkIfCloneNeeded();
-        data.put(StateValue.POWER, power);
-        checkIsStillValid();
+        setValue(StateValue.POWER, power);
     }
 
     public boolean isPowered() {
@@ -1093,9 +1040,7 @@ public class WrappedBlockState {
     }
 
     public void setPowered(boolean powered) {
-        checkIfCloneNeeded();
-        data.put(StateValue.POWERED, powered);
-        checkIsStillValid();
+        setValue(StateValue.POWERED, powered);
     }
 
     public int getRotation() {
@@ -1103,9 +1048,7 @@ public class WrappedBlockState {
     }
 
     public void setRotation(int rotation) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ROTATION, rotation);
-        checkIsStillValid();
+        setValue(StateValue.ROTATION, rotation);
     }
 
     public SculkSensorPhase getSculkSensorPhase() {
@@ -1113,9 +1056,7 @@ public class WrappedBlockState {
     }
 
     public void setSculkSensorPhase(SculkSensorPhase sculkSensorPhase) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SCULK_SENSOR_PHASE, sculkSensorPhase);
-        checkIsStillValid();
+        setValue(StateValue.SCULK_SENSOR_PHASE, sculkSensorPhase);
     }
 
     public Shape getShape() {
@@ -1123,9 +1064,7 @@ public class WrappedBlockState {
     }
 
     public void setShape(Shape shape) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHAPE, shape);
-        checkIsStillValid();
+        setValue(StateValue.SHAPE, shape);
     }
 
     public boolean isShort() {
@@ -1133,9 +1072,7 @@ public class WrappedBlockState {
     }
 
     public void setShort(boolean short_) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHORT, short_);
-        checkIsStillValid();
+        setValue(StateValue.SHORT, short_);
     }
 
     public boolean isSignalFire() {
@@ -1143,9 +1080,7 @@ public class WrappedBlockState {
     }
 
     public void setSignalFire(boolean signalFire) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SIGNAL_FIRE, signalFire);
-        checkIsStillValid();
+        setValue(StateValue.SIGNAL_FIRE, signalFire);
     }
 
     public boolean isSlotZeroOccupied() {
@@ -1153,9 +1088,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotZeroOccupied(boolean slotZeroOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_0_OCCUPIED, slotZeroOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_0_OCCUPIED, slotZeroOccupied);
     }
 
     public boolean isSlotOneOccupied() {
@@ -1163,9 +1096,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotOneOccupied(boolean slotOneOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_1_OCCUPIED, slotOneOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_1_OCCUPIED, slotOneOccupied);
     }
 
     public boolean isSlotTwoOccupied() {
@@ -1173,9 +1104,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotTwoOccupied(boolean slotTwoOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_2_OCCUPIED, slotTwoOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_2_OCCUPIED, slotTwoOccupied);
     }
 
     public boolean isSlotThreeOccupied() {
@@ -1183,9 +1112,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotThreeOccupied(boolean slotThreeOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_3_OCCUPIED, slotThreeOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_3_OCCUPIED, slotThreeOccupied);
     }
 
     public boolean isSlotFourOccupied() {
@@ -1193,9 +1120,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotFourOccupied(boolean slotFourOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_4_OCCUPIED, slotFourOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_4_OCCUPIED, slotFourOccupied);
     }
 
     public boolean isSlotFiveOccupied() {
@@ -1203,9 +1128,7 @@ public class WrappedBlockState {
     }
 
     public void setSlotFiveOccupied(boolean slotFiveOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_5_OCCUPIED, slotFiveOccupied);
-        checkIsStillValid();
+        setValue(StateValue.SLOT_5_OCCUPIED, slotFiveOccupied);
     }
 
     public boolean isSnowy() {
@@ -1213,9 +1136,7 @@ public class WrappedBlockState {
     }
 
     public void setSnowy(boolean snowy) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SNOWY, snowy);
-        checkIsStillValid();
+        setValue(StateValue.SNOWY, snowy);
     }
 
     public int getStage() {
@@ -1223,9 +1144,7 @@ public class WrappedBlockState {
     }
 
     public void setStage(int stage) {
-        checkIfCloneNeeded();
-        data.put(StateValue.STAGE, stage);
-        checkIsStillValid();
+        setValue(StateValue.STAGE, stage);
     }
 
     public South getSouth() {
@@ -1233,9 +1152,7 @@ public class WrappedBlockState {
     }
 
     public void setSouth(South south) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SOUTH, south);
-        checkIsStillValid();
+        setValue(StateValue.SOUTH, south);
     }
 
     public Thickness getThickness() {
@@ -1243,9 +1160,7 @@ public class WrappedBlockState {
     }
 
     public void setThickness(Thickness thickness) {
-        checkIfCloneNeeded();
-        data.put(StateValue.THICKNESS, thickness);
-        checkIsStillValid();
+        setValue(StateValue.THICKNESS, thickness);
     }
 
     public Tilt getTilt() {
@@ -1253,9 +1168,7 @@ public class WrappedBlockState {
     }
 
     public void setTilt(Tilt tilt) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TILT, tilt);
-        checkIsStillValid();
+        setValue(StateValue.TILT, tilt);
     }
 
     public boolean isTriggered() {
@@ -1263,9 +1176,7 @@ public class WrappedBlockState {
     }
 
     public void setTriggered(boolean triggered) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TRIGGERED, triggered);
-        checkIsStillValid();
+        setValue(StateValue.TRIGGERED, triggered);
     }
 
     public Type getTypeData() {
@@ -1273,9 +1184,7 @@ public class WrappedBlockState {
     }
 
     public void setTypeData(Type type) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TYPE, type);
-        checkIsStillValid();
+        setValue(StateValue.TYPE, type);
     }
 
     public boolean isUnstable() {
@@ -1283,9 +1192,7 @@ public class WrappedBlockState {
     }
 
     public void setUnstable(boolean unstable) {
-        checkIfCloneNeeded();
-        data.put(StateValue.UNSTABLE, unstable);
-        checkIsStillValid();
+        setValue(StateValue.UNSTABLE, unstable);
     }
 
     public boolean isUp() {
@@ -1293,9 +1200,7 @@ public class WrappedBlockState {
     }
 
     public void setUp(boolean up) {
-        checkIfCloneNeeded();
-        data.put(StateValue.UP, up);
-        checkIsStillValid();
+        setValue(StateValue.UP, up);
     }
 
     public VerticalDirection getVerticalDirection() {
@@ -1303,9 +1208,7 @@ public class WrappedBlockState {
     }
 
     public void setVerticalDirection(VerticalDirection verticalDirection) {
-        checkIfCloneNeeded();
-        data.put(StateValue.VERTICAL_DIRECTION, verticalDirection);
-        checkIsStillValid();
+        setValue(StateValue.VERTICAL_DIRECTION, verticalDirection);
     }
 
     public boolean isWaterlogged() {
@@ -1313,9 +1216,7 @@ public class WrappedBlockState {
     }
 
     public void setWaterlogged(boolean waterlogged) {
-        checkIfCloneNeeded();
-        data.put(StateValue.WATERLOGGED, waterlogged);
-        checkIsStillValid();
+        setValue(StateValue.WATERLOGGED, waterlogged);
     }
 
     public East getEast() {
@@ -1323,9 +1224,7 @@ public class WrappedBlockState {
     }
 
     public void setEast(East west) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EAST, west);
-        checkIsStillValid();
+        setValue(StateValue.EAST, west);
     }
 
     public West getWest() {
@@ -1333,9 +1232,7 @@ public class WrappedBlockState {
     }
 
     public void setWest(West west) {
-        checkIfCloneNeeded();
-        data.put(StateValue.WEST, west);
-        checkIsStillValid();
+        setValue(StateValue.WEST, west);
     }
 
     public Bloom getBloom() {
@@ -1343,9 +1240,7 @@ public class WrappedBlockState {
     }
 
     public void setBloom(Bloom bloom) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BLOOM, bloom);
-        checkIsStillValid();
+        setValue(StateValue.BLOOM, bloom);
     }
 
     public boolean isCracked() {
@@ -1353,9 +1248,7 @@ public class WrappedBlockState {
     }
 
     public void setCracked(boolean cracked) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CRACKED, cracked);
-        checkIsStillValid();
+        setValue(StateValue.CRACKED, cracked);
     }
 
     public boolean isCrafting() {
@@ -1363,9 +1256,7 @@ public class WrappedBlockState {
     }
 
     public void setCrafting(boolean crafting) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CRAFTING, crafting);
-        checkIsStillValid();
+        setValue(StateValue.CRAFTING, crafting);
     }
 
     public TrialSpawnerState getTrialSpawnerState() {
@@ -1373,9 +1264,7 @@ public class WrappedBlockState {
     }
 
     public void setTrialSpawnerState(TrialSpawnerState trialSpawnerState) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TRIAL_SPAWNER_STATE, trialSpawnerState);
-        checkIsStillValid();
+        setValue(StateValue.TRIAL_SPAWNER_STATE, trialSpawnerState);
     }
 
     /**
@@ -1391,9 +1280,7 @@ public class WrappedBlockState {
      */
     @ApiStatus.Obsolete
     public void setCreaking(CreakingHeartState creakingHeartState) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CREAKING, creakingHeartState);
-        checkIsStillValid();
+        setValue(StateValue.CREAKING, creakingHeartState);
     }
 
     /**
@@ -1407,9 +1294,7 @@ public class WrappedBlockState {
      * Added with 1.21.4
      */
     public void setActive(boolean active) {
-        this.checkIfCloneNeeded();
-        this.data.put(StateValue.ACTIVE, active);
-        this.checkIsStillValid();
+        this.setValue(StateValue.ACTIVE, active);
     }
 
     /**
@@ -1423,13 +1308,29 @@ public class WrappedBlockState {
      * Added with 1.21.4
      */
     public void setNatural(boolean natural) {
-        this.checkIfCloneNeeded();
-        this.data.put(StateValue.NATURAL, natural);
-        this.checkIsStillValid();
+        this.setValue(StateValue.NATURAL, natural);
     }
 
     // End all block data types
 
+    /**
+     * Changes a single property. While this state still shares the data of its global id,
+     * this is a transition to the state with the changed property, without copying or hashing the data.
+     */
+    private void setValue(StateValue property, Object value) {
+        if (!hasClonedData && layout != null) {
+            int id = layout.transition(globalID, property, value);
+            if (id != -1) {
+                this.globalID = id;
+                this.data = BY_ID[mappingsIndex][id].data;
+                return;
+            }
+        }
+        checkIfCloneNeeded();
+        data.put(property, value);
+        checkIsStillValid();
+    }
+
     /**
      * We can't modify all blocks of a type when modifying a single block.
      * Cloning on every wrapped block state is too expensive.
@@ -1451,7 +1352,7 @@ public class WrappedBlockState {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID.get(mappingsIndex).getOrDefault(oldGlobalID, AIR).clone();
+            WrappedBlockState blockState = getCanonicalState(mappingsIndex, oldGlobalID).clone();
             this.type = blockState.type;
             this.globalID = blockState.globalID;
             this.data = new HashMap<>(blockState.data);
@@ -1504,4 +1405,113 @@ public class WrappedBlockState {
     }
 
     public static void ensureLoad() { /**/ }
+
+    /**
+     * Packs the property values of all states of a type into a mixed radix index, like vanilla does,
+     * so changing a property is an index calculation instead of a lookup by the whole state.
+     */
+    static final class PropertyLayout {
+        private final int minId;
+        private final StateValue[] properties;
+        private final Object[][] values;
+        private final int[] strides;
+        private final int[] packedToId;
+        private final int[] idToPacked;
+
+        private PropertyLayout(int minId, StateValue[] properties, Object[][] values, int[] strides, int[] packedToId, int[] idToPacked) {
+            this.minId = minId;
+            this.properties = properties;
+            this.values = values;
+            this.strides = strides;
+            this.packedToId = packedToId;
+            this.idToPacked = idToPacked;
+        }
+
+        /**
+         * @param states all states of a type, ordered by their consecutive global ids
+         * @return the layout, or null if the states aren't every combination of their property values
+         */
+        static @Nullable PropertyLayout create(List<WrappedBlockState> states) {
+            if (states.isEmpty()) {
+                return null;
+            }
+            int minId = states.get(0).globalID;
+            StateValue[] properties = states.get(0).data.keySet().toArray(new StateValue[0]);
+            Arrays.sort(properties);
+
+            List<List<Object>> values = new ArrayList<>(properties.length);
+            for (int i = 0; i < properties.length; i++) {
+                values.add(new ArrayList<>());
+            }
+            for (int i = 0; i < states.size(); i++) {
+                WrappedBlockState state = states.get(i);
+                if (state.globalID != minId + i || state.data.size() != properties.length) {
+                    return null;
+                }
+                for (int j = 0; j < properties.length; j++) {
+                    Object value = state.data.get(properties[j]);
+                    if (value == null) {
+                        return null;
+                    }
+                    if (!values.get(j).contains(value)) {
+                        values.get(j).add(value);
+                    }
+                }
+            }
+
+            Object[][] valueArrays = new Object[properties.length][];
+            int[] strides = new int[properties.length];
+            int combinations = 1;
+            for (int j = properties.length - 1; j >= 0; j--) {
+                valueArrays[j] = values.get(j).toArray();
+                strides[j] = combinations;
+                combinations *= valueArrays[j].length;
+            }
+            if (combinations != states.size()) {
+                return null;
+            }
+
+            int[] packedToId = new int[combinations];
+            Arrays.fill(packedToId, -1);
+            int[] idToPacked = new int[states.size()];
+            for (int i = 0; i < states.size(); i++) {
+                Map<StateValue, Object> data = states.get(i).data;
+                int packed = 0;
+                for (int j = 0; j < properties.length; j++) {
+                    packed += values.get(j).indexOf(data.get(properties[j])) * strides[j];
+                }
+                if (packedToId[packed] != -1) {
+                    return null;
+                }
+                packedToId[packed] = minId + i;
+                idToPacked[i] = packed;
+            }
+            return new PropertyLayout(minId, properties, valueArrays, strides, packedToId, idToPacked);
+        }
+
+        /**
+         * @return the global id of the state with the changed property, or -1 if the type doesn't have this value
+         */
+        int transition(int globalID, StateValue property, Object value) {
+            int index = globalID - minId;
+            if (index < 0 || index >= idToPacked.length) {
+                return -1;
+            }
+            for (int j = 0; j < properties.length; j++) {
+                if (properties[j] != property) {
+                    continue;
+                }
+                Object[] propertyValues = values[j];
+                for (int k = 0; k < propertyValues.length; k++) {
+                    if (propertyValues[k].equals(value)) {
+                        int packed = idToPacked[index];
+                        int current = packed / strides[j] % propertyValues.length;
+                        return packedToId[packed + (k - current) * strides[j]];
+                    }
+                }
+                return -1;
+            }
+            return -1;
+        }
+    }
 }
@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.mappings.MappingHelper;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.github.retrooper.packetevents.util.mappings.TypesBuilderData;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -38,7 +39,7 @@ public class StateTypes {
 
     private static final List<StateType> ALL_STATE_TYPES = new ArrayList<>();
     private static final Map<String, StateType.Mapped> BY_NAME = new HashMap<>();
-    private static final Map<Byte, Map<Integer, StateType.Mapped>> BY_ID = new HashMap<>();
+    private static final VersionedIdTable<StateType.Mapped> BY_ID = new VersionedIdTable<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("block/block_type_mappings");
 
     public static Collection<StateType> values() {
@@ -69,8 +70,7 @@ public class StateTypes {
 
     public static StateType.Mapped getMappedById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, StateType.Mapped> idMap = BY_ID.get((byte) index);
-        return idMap.get(id);
+        return BY_ID.get(index, id);
     }
 
     public static StateType AIR = StateTypes.builder().name("AIR").blastResistance(0.0f).hardness(0.0f).isBlocking(false).requiresCorrectTool(false).isSolid(false).isAir(true).setMaterial(MaterialType.AIR).build();
@@ -20,8 +20,10 @@ package com.github.retrooper.packetevents.settings;
 
 import com.github.retrooper.packetevents.util.TimeStampMode;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.InputStream;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /**
@@ -46,6 +48,12 @@ public class PacketEventsSettings {
      * before they reach ViaVersion
      */
     private boolean preViaInjection = false;
+    private boolean lazyDecoding = false;
+    private boolean eventRecycling = false;
+    private @Nullable Executor asyncListenerExecutor = null;
+    private int asyncListenerQueueSize = 4096;
+    private long componentCacheSize = 0L;
+    private boolean mappingWarmup = false;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -170,6 +178,90 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if wrappers created in packet events may skip expensive fields, like chunk sections
+     * or entity metadata, and only decode them once their getter is called.
+     * Untouched fields are written back unchanged if the packet is re-encoded.
+     * Lazily decoded fields have to be accessed during the event, as the packet buffer is released afterward.
+     *
+     * @param lazyDecoding Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings lazyDecoding(boolean lazyDecoding) {
+        this.lazyDecoding = lazyDecoding;
+        return this;
+    }
+
+    /**
+     * This decides if packet events, and wrappers obtained with
+     * {@link com.github.retrooper.packetevents.event.ProtocolPacketEvent#getWrapper(Class)},
+     * are reused for later packets once they were processed, instead of being allocated for every packet.
+     * Listeners must not reference them after the event; events have to be cloned to keep them.
+     * With debug mode enabled, recycled objects are not reused, but listeners keeping them are reported.
+     *
+     * @param eventRecycling Value
+     * @return Settings instance.
+     */
+    @ApiStatus.Internal
+    public PacketEventsSettings eventRecycling(boolean eventRecycling) {
+        this.eventRecycling = eventRecycling;
+        return this;
+    }
+
+    /**
+     * The executor running listeners with {@link com.github.retrooper.packetevents.event.ExecutionMode#ASYNC}.
+     * By default, virtual threads are used if available, otherwise a cached thread pool.
+     * This has to be set before any asynchronous listener is called.
+     *
+     * @param asyncListenerExecutor Executor or null for the default
+     * @return Settings instance.
+     */
+    public PacketEventsSettings asyncListenerExecutor(@Nullable Executor asyncListenerExecutor) {
+        this.asyncListenerExecutor = asyncListenerExecutor;
+        return this;
+    }
+
+    /**
+     * The maximum amount of events per user waiting for asynchronous listeners.
+     * Further events of the user are dropped until the listeners caught up.
+     *
+     * @param asyncListenerQueueSize Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings asyncListenerQueueSize(int asyncListenerQueueSize) {
+        this.asyncListenerQueueSize = asyncListenerQueueSize;
+        return this;
+    }
+
+    /**
+     * The maximum amount of bytes used to cache the network encoding of components, which are then
+     * written without serializing them again. Only component instances which are written more than
+     * once are cached, so this mostly helps plugins reusing the same components for many players.
+     * Disabled (0) by default, changing the size drops all cached encodings.
+     *
+     * @param componentCacheSize Value
+     * @return Settings instance.
+     * @see com.github.retrooper.packetevents.util.adventure.AdventureSerializer#getComponentCache()
+     */
+    public PacketEventsSettings componentCacheSize(long componentCacheSize) {
+        this.componentCacheSize = componentCacheSize;
+        return this;
+    }
+
+    /**
+     * Should the mapping files of the largest registries be loaded concurrently while packetevents loads?
+     * This shortens the startup on servers with spare cores, as the registries no longer read them one by one.
+     * Files which no registry used by the time packetevents is initialized are dropped again.
+     *
+     * @param mappingWarmup Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings mappingWarmup(boolean mappingWarmup) {
+        this.mappingWarmup = mappingWarmup;
+        return this;
+    }
+
     /**
      * Some projects may want to implement a CDN with resources like asset mappings
      * By default, all resources are retrieved from the ClassLoader
@@ -268,6 +360,60 @@ public class PacketEventsSettings {
         return preViaInjection;
     }
 
+    /**
+     * Should wrappers decode expensive fields lazily?
+     *
+     * @return Getter for {@link #lazyDecoding}
+     */
+    public boolean isLazyDecodingEnabled() {
+        return lazyDecoding;
+    }
+
+    /**
+     * Should packet events and wrappers be recycled?
+     *
+     * @return Getter for {@link #eventRecycling}
+     */
+    public boolean isEventRecyclingEnabled() {
+        return eventRecycling;
+    }
+
+    /**
+     * Which executor should run asynchronous listeners?
+     *
+     * @return Getter for {@link #asyncListenerExecutor}, null for the default
+     */
+    public @Nullable Executor getAsyncListenerExecutor() {
+        return asyncListenerExecutor;
+    }
+
+    /**
+     * How many events per user may wait for asynchronous listeners?
+     *
+     * @return Getter for {@link #asyncListenerQueueSize}
+     */
+    public int getAsyncListenerQueueSize() {
+        return asyncListenerQueueSize;
+    }
+
+    /**
+     * How many bytes may be used to cache encoded components?
+     *
+     * @return Getter for {@link #componentCacheSize}
+     */
+    public long getComponentCacheSize() {
+        return componentCacheSize;
+    }
+
+    /**
+     * Are the mapping files loaded concurrently while loading?
+     *
+     * @return Getter for {@link #mappingWarmup}
+     */
+    public boolean isMappingWarmupEnabled() {
+        return mappingWarmup;
+    }
+
     /**
      * As described above, this method retrieves the function that acquires the InputStream
      * of a desired resource by its path.
@@ -18,6 +18,8 @@
 
 package com.github.retrooper.packetevents.util;
 
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketEventRecycler;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.simple.*;
@@ -27,6 +29,26 @@ import com.github.retrooper.packetevents.protocol.player.User;
 public class EventCreationUtil {
     public static PacketReceiveEvent createReceiveEvent(Object channel, User user, Object player, Object buffer,
                                                         boolean autoProtocolTranslation) throws PacketProcessException {
+        if (PacketEvents.getAPI().getSettings().isEventRecyclingEnabled()) {
+            PacketEventRecycler recycler = PacketEventRecycler.get();
+            PacketReceiveEvent event = recycler.pollReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+            return event != null ? event : recycler.track(newReceiveEvent(channel, user, player, buffer, autoProtocolTranslation));
+        }
+        return newReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
+    }
+
+    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
+                                                  boolean autoProtocolTranslation) throws PacketProcessException {
+        if (PacketEvents.getAPI().getSettings().isEventRecyclingEnabled()) {
+            PacketEventRecycler recycler = PacketEventRecycler.get();
+            PacketSendEvent event = recycler.pollSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+            return event != null ? event : recycler.track(newSendEvent(channel, user, player, buffer, autoProtocolTranslation));
+        }
+        return newSendEvent(channel, user, player, buffer, autoProtocolTranslation);
+    }
+
+    private static PacketReceiveEvent newReceiveEvent(Object channel, User user, Object player, Object buffer,
+                                                      boolean autoProtocolTranslation) throws PacketProcessException {
         switch (user.getDecoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -42,8 +64,8 @@ public class EventCreationUtil {
         throw new RuntimeException("Unknown connection state " + user.getDecoderState() + "!");
     }
 
-    public static PacketSendEvent createSendEvent(Object channel, User user, Object player, Object buffer,
-                                                  boolean autoProtocolTranslation) throws PacketProcessException{
+    private static PacketSendEvent newSendEvent(Object channel, User user, Object player, Object buffer,
+                                                boolean autoProtocolTranslation) throws PacketProcessException {
         switch (user.getEncoderState()) {
             case HANDSHAKING:
                 return new PacketHandshakeSendEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -26,6 +26,8 @@ import com.github.retrooper.packetevents.event.UserDisconnectEvent;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import org.jetbrains.annotations.Nullable;
 
@@ -47,6 +49,42 @@ public final class PacketEventsImplHelper {
         }
     }
 
+    /**
+     * Peeks at the packet id of the buffer without moving its reader index and checks
+     * if any registered listener is interested in the packet.
+     * If this returns false, the buffer can be passed on untouched without creating an event.
+     *
+     * @param side   the side which sent the packet
+     * @param preVia whether the listeners are called before ViaVersion
+     * @return false if no listener would receive this packet
+     */
+    public static boolean hasListeners(
+            PacketSide side, User user, Object buffer,
+            boolean autoProtocolTranslation, boolean preVia
+    ) {
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        int packetId;
+        try {
+            packetId = ByteBufHelper.readVarInt(buffer);
+        } catch (Exception exception) {
+            // let the event creation report the malformed packet
+            return true;
+        } finally {
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+
+        // resolve the version the same way ProtocolPacketEvent does
+        ClientVersion version = autoProtocolTranslation || user.getClientVersion() == null
+                ? PacketEvents.getAPI().getServerManager().getVersion().toClientVersion()
+                : user.getClientVersion().toServerVersion().toClientVersion();
+        PacketTypeCommon packetType = user.getPacketTypeTable(side, version).getById(packetId);
+        if (packetType == null) {
+            // unknown packets have to go through the event creation for proper error handling
+            return true;
+        }
+        return PacketEvents.getAPI().getEventManager().hasListeners(packetType, preVia);
+    }
+
     public static @Nullable PacketSendEvent handleClientBoundPacket(
             Object channel, User user, Object player, Object buffer,
             boolean autoProtocolTranslation
@@ -54,6 +92,9 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        if (!hasListeners(PacketSide.SERVER, user, buffer, autoProtocolTranslation, !autoProtocolTranslation)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -62,14 +103,15 @@ public final class PacketEventsImplHelper {
             ByteBufHelper.readerIndex(buffer, processIndex);
         }, !autoProtocolTranslation);
         if (!packetSendEvent.isCancelled()) {
-            //Did they ever use a wrapper?
-            if (packetSendEvent.getLastUsedWrapper() != null) {
+            //Did they ever use a wrapper, which can't be written over the original bytes?
+            if (packetSendEvent.getLastUsedWrapper() != null && !packetSendEvent.getLastUsedWrapper().rewriteInPlace()) {
                 //Rewrite the buffer
+                packetSendEvent.getLastUsedWrapper().detachLazyValues();
                 ByteBufHelper.clear(buffer);
                 packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
                 packetSendEvent.getLastUsedWrapper().write();
             } else {
-                //If no wrappers were used, just pass on the original buffer.
+                //If no wrappers were used or the changes were written in place, just pass on the original buffer.
                 //Correct the reader index, basically what the next handler is expecting.
                 ByteBufHelper.readerIndex(buffer, preProcessIndex);
             }
@@ -84,6 +126,10 @@ public final class PacketEventsImplHelper {
             }
         }
 
+        if (packetSendEvent.recycle()) {
+            // the event may already be reused for the next packet
+            return null;
+        }
         return packetSendEvent;
     }
 
@@ -94,6 +140,9 @@ public final class PacketEventsImplHelper {
         if (!ByteBufHelper.isReadable(buffer)) {
             return null;
         }
+        if (!hasListeners(PacketSide.CLIENT, user, buffer, autoProtocolTranslation, !autoProtocolTranslation)) {
+            return null;
+        }
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -102,14 +151,15 @@ public final class PacketEventsImplHelper {
             ByteBufHelper.readerIndex(buffer, processIndex);
         }, !autoProtocolTranslation);
         if (!packetReceiveEvent.isCancelled()) {
-            //Did they ever use a wrapper?
-            if (packetReceiveEvent.getLastUsedWrapper() != null) {
+            //Did they ever use a wrapper, which can't be written over the original bytes?
+            if (packetReceiveEvent.getLastUsedWrapper() != null && !packetReceiveEvent.getLastUsedWrapper().rewriteInPlace()) {
                 //Rewrite the buffer
+                packetReceiveEvent.getLastUsedWrapper().detachLazyValues();
                 ByteBufHelper.clear(buffer);
                 packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
                 packetReceiveEvent.getLastUsedWrapper().write();
             } else {
-                //If no wrappers were used, just pass on the original buffer.
+                //If no wrappers were used or the changes were written in place, just pass on the original buffer.
                 //Correct the reader index, basically what the next handler is expecting.
                 ByteBufHelper.readerIndex(buffer, preProcessIndex);
             }
@@ -122,6 +172,10 @@ public final class PacketEventsImplHelper {
                 task.run();
             }
         }
+        if (packetReceiveEvent.recycle()) {
+            // the event may already be reused for the next packet
+            return null;
+        }
         return packetReceiveEvent;
     }
 
@@ -132,6 +186,7 @@ public final class PacketEventsImplHelper {
             if (user != null) {
                 UserDisconnectEvent disconnectEvent = new UserDisconnectEvent(user);
                 PacketEvents.getAPI().getEventManager().callEvent(disconnectEvent);
+                PacketEvents.getAPI().getEventManager().getAsyncDispatcher().removeUser(user);
                 PacketEvents.getAPI().getProtocolManager().removeUser(user.getChannel());
             }
 
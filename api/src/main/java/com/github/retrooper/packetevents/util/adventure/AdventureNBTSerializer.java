@@ -20,19 +20,14 @@ package com.github.retrooper.packetevents.util.adventure;
 
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
-import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
-import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
-import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
 import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
 import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
-import com.github.retrooper.packetevents.protocol.nbt.NBTLong;
-import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
 import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
-import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
 import com.github.retrooper.packetevents.protocol.nbt.NBTString;
 import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.util.UniqueIdUtil;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.nbt.api.BinaryTagHolder;
@@ -59,9 +54,11 @@ import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.ComponentSerializer;
 import net.kyori.adventure.text.serializer.gson.BackwardCompatUtil;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -69,6 +66,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -98,6 +96,75 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
 
         // Serialized as tree
         NBTCompound compound = requireType(input, NBTType.COMPOUND);
+        return this.deserializeComponent(compound, null, null, null);
+    }
+
+    /**
+     * Reads a component straight from the network nbt of a buffer. Nested components are decoded
+     * while streaming over their entries, only the remaining values of a component are collected
+     * and then passed through the same key dispatch as a tree.
+     *
+     * @param reader the reader of the buffer
+     * @param type   the already read type of the component tag
+     * @return the read component
+     */
+    @ApiStatus.Internal
+    public @NotNull Component deserialize(ByteBufNBTSerializer.Reader reader, NBTType<?> type) throws IOException {
+        if (type != NBTType.COMPOUND) {
+            if (type == NBTType.END) {
+                throw new IllegalArgumentException("Expected component but got " + type);
+            }
+            return this.deserialize(reader.readTag(type));
+        }
+
+        reader.beginCompound();
+        NBTCompound compound = new NBTCompound();
+        List<? extends ComponentLike> translateWith = null;
+        List<Component> extra = null;
+        Component separator = null;
+        NBTType<?> valueType;
+        while ((valueType = reader.readType()) != NBTType.END) {
+            String key = reader.readEntryName();
+            if (valueType == NBTType.LIST && key.equals("extra")) {
+                NBTType<?> elementType = reader.beginList();
+                int size = reader.readListSize(elementType);
+                extra = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    extra.add(this.deserialize(reader, elementType));
+                }
+            } else if (valueType == NBTType.LIST && key.equals("with")) {
+                NBTType<?> elementType = reader.beginList();
+                int size = reader.readListSize(elementType);
+                if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+                    List<TranslationArgument> arguments = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        arguments.add(elementType == NBTType.COMPOUND
+                                ? TranslationArgument.component(this.deserialize(reader, elementType))
+                                : this.deserializeTranslationArgument(reader.readTag(elementType)));
+                    }
+                    translateWith = arguments;
+                } else {
+                    List<Component> arguments = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        arguments.add(this.deserialize(reader, elementType));
+                    }
+                    translateWith = arguments;
+                }
+            } else if (key.equals("separator")) {
+                separator = this.deserialize(reader, valueType);
+            } else {
+                compound.setTag(key, reader.readTag(valueType));
+            }
+        }
+        return this.deserializeComponent(compound, translateWith, extra, separator);
+    }
+
+    private @NotNull Component deserializeComponent(
+            NBTCompound compound,
+            @Nullable List<? extends ComponentLike> streamedWith,
+            @Nullable List<Component> streamedExtra,
+            @Nullable Component streamedSeparator
+    ) {
         NBTReader reader = new NBTReader(compound);
 
         Function<NBT, String> textFunction = nbt -> {
@@ -118,7 +185,9 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
         String translate = reader.readUTF("translate", Function.identity());
         String translateFallback = reader.readUTF("fallback", Function.identity());
         List<? extends ComponentLike> translateWith;
-        if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
+        if (streamedWith != null) {
+            translateWith = streamedWith;
+        } else if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
             NBTType<?> type = reader.type("with");
             if (type == NBTType.INT_ARRAY) {
                 translateWith = reader.readIntArray("with", params -> {
@@ -158,8 +227,10 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
         BlockNBTComponent.Pos nbtBlock = reader.readUTF("block", BlockNBTComponent.Pos::fromString);
         String nbtEntity = reader.readUTF("entity", Function.identity());
         Key nbtStorage = reader.readUTF("storage", Key::key);
-        List<Component> extra = reader.readList("extra", this::deserializeComponentList);
-        Component separator = reader.read("separator", this::deserialize);
+        List<Component> extra = streamedExtra != null ? streamedExtra
+                : reader.readList("extra", this::deserializeComponentList);
+        Component separator = streamedSeparator != null ? streamedSeparator
+                : reader.read("separator", this::deserialize);
         Style style = this.deserializeStyle(compound);
 
         // build component from read values
@@ -222,11 +293,32 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
             return new NBTString(((TextComponent) component).content());
         }
 
-        return serializeComponent(component);
+        TreeWriter writer = new TreeWriter(new NBTCompound());
+        this.serializeComponent(component, writer);
+        return writer.compound;
     }
 
-    private @NotNull NBTCompound serializeComponent(Component component) {
-        NBTWriter writer = new NBTWriter(new NBTCompound());
+    /**
+     * Writes a component straight to the network nbt of a buffer, without building a tree first.
+     *
+     * @param component the component to write
+     * @param writer    the writer of the buffer
+     */
+    @ApiStatus.Internal
+    public void serialize(@NotNull Component component, ByteBufNBTSerializer.Writer writer) throws IOException {
+        if (component instanceof TextComponent && !component.hasStyling() && component.children().isEmpty()) {
+            writer.writeType(NBTType.STRING);
+            writer.writeString(((TextComponent) component).content());
+            return;
+        }
+
+        writer.writeType(NBTType.COMPOUND);
+        StreamWriter stream = new StreamWriter(writer);
+        this.serializeComponent(component, stream);
+        stream.end();
+    }
+
+    private void serializeComponent(Component component, NBTWriter writer) {
 
         // component parts
         if (component instanceof TextComponent) {
@@ -248,9 +340,10 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
             List<Component> args = ((TranslatableComponent) component).args();
             if (!args.isEmpty()) {
                 if (BackwardCompatUtil.IS_4_15_0_OR_NEWER) {
-                    writer.writeList("with", NBTType.COMPOUND, serializeTranslationArgumentList(((TranslatableComponent) component).arguments()));
+                    writer.writeCompoundList("with", ((TranslatableComponent) component).arguments(),
+                            (argument, element) -> this.serializeComponent(argument.asComponent(), element));
                 } else {
-                    writer.writeList("with", NBTType.COMPOUND, serializeComponentList(args));
+                    writer.writeCompoundList("with", args, this::serializeComponent);
                 }
             }
         } else if (component instanceof ScoreComponent) {
@@ -270,7 +363,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
 
             // separator
             Component separator = ((SelectorComponent) component).separator();
-            if (separator != null) writer.write("separator", this.serialize(separator));
+            if (separator != null) this.writeComponent(writer, "separator", separator);
         } else if (component instanceof KeybindComponent) {
             // keybind
             writer.writeUTF("keybind", ((KeybindComponent) component).keybind());
@@ -287,7 +380,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
 
             // separator
             Component separator = ((NBTComponent<?, ?>) component).separator();
-            if (separator != null) writer.write("separator", this.serialize(separator));
+            if (separator != null) this.writeComponent(writer, "separator", separator);
 
             if (component instanceof BlockNBTComponent) {
                 // nbt block
@@ -305,16 +398,22 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
         }
 
         if (component.hasStyling()) {
-            serializeStyle(component.style()).getTags().forEach(writer::write);
+            this.serializeStyle(component.style(), writer);
         }
 
         // component children
         List<Component> children = component.children();
         if (!children.isEmpty()) {
-            writer.writeList("extra", NBTType.COMPOUND, serializeComponentList(children));
+            writer.writeCompoundList("extra", children, this::serializeComponent);
         }
+    }
 
-        return writer.compound;
+    private void writeComponent(NBTWriter writer, String key, Component component) {
+        if (component instanceof TextComponent && !component.hasStyling() && component.children().isEmpty()) {
+            writer.writeUTF(key, ((TextComponent) component).content());
+        } else {
+            this.serializeComponent(component, writer.child(key));
+        }
     }
 
     // -------------------- Style --------------------
@@ -401,8 +500,26 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
     public @NotNull NBTCompound serializeStyle(Style style) {
         if (style.isEmpty()) return new NBTCompound();
 
-        NBTWriter writer = new NBTWriter(new NBTCompound());
+        TreeWriter writer = new TreeWriter(new NBTCompound());
+        this.serializeStyle(style, writer);
+        return writer.compound;
+    }
+
+    /**
+     * Writes a style straight to the network nbt of a buffer, without building a tree first.
+     *
+     * @param style  the style to write
+     * @param writer the writer of the buffer
+     */
+    @ApiStatus.Internal
+    public void serializeStyle(Style style, ByteBufNBTSerializer.Writer writer) throws IOException {
+        writer.writeType(NBTType.COMPOUND);
+        StreamWriter stream = new StreamWriter(writer);
+        this.serializeStyle(style, stream);
+        stream.end();
+    }
 
+    private void serializeStyle(Style style, NBTWriter writer) {
         Key font = style.font();
         if (font != null) writer.writeUTF("font", font.asString());
 
@@ -437,7 +554,7 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
             child.writeUTF("action", hoverEvent.action().toString());
             switch (hoverEvent.action().toString()) {
                 case "show_text": {
-                    child.write("contents", this.serialize((Component) hoverEvent.value()));
+                    this.writeComponent(child, "contents", (Component) hoverEvent.value());
                     break;
                 }
                 case "show_item": {
@@ -479,14 +596,12 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
                     NBTWriter entity = child.child("contents");
                     entity.writeUTF("type", showEntity.type().asString());
                     entity.writeIntArray("id", UniqueIdUtil.toIntArray(showEntity.id()));
-                    if (showEntity.name() != null) entity.write("name", this.serialize(showEntity.name()));
+                    if (showEntity.name() != null) this.writeComponent(entity, "name", showEntity.name());
                     break;
                 }
 
             }
         }
-
-        return writer.compound;
     }
     // -------------------------------------------------
 
@@ -528,13 +643,6 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
         return components;
     }
 
-    private List<NBTCompound> serializeComponentList(List<Component> value) {
-        List<NBTCompound> components = new ArrayList<>(value.size());
-        for (Component component : value) {
-            components.add(serializeComponent(component));
-        }
-        return components;
-    }
     // -------------------------------------------------
 
     // ------------ TranslationArgument List ------------
@@ -543,26 +651,22 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
 
         List<TranslationArgument> arguments = new ArrayList<>(value.size());
         for (Object nbt : value) {
-            if (nbt instanceof NBTByte) {
-                arguments.add(TranslationArgument.bool(((NBTByte) nbt).getAsByte() != (byte) 0));
-            } else if (nbt instanceof NBTNumber) {
-                arguments.add(TranslationArgument.numeric(((NBTNumber) nbt).getAsInt()));
-            } else if (nbt instanceof NBTString) {
-                arguments.add(TranslationArgument.component(Component.text(((NBTString) nbt).getValue())));
-            } else {
-                arguments.add(TranslationArgument.component(deserialize(requireType((NBT) nbt, NBTType.COMPOUND))));
-            }
+            arguments.add(this.deserializeTranslationArgument((NBT) nbt));
         }
 
         return arguments;
     }
 
-    private List<NBTCompound> serializeTranslationArgumentList(List<TranslationArgument> value) {
-        List<NBTCompound> arguments = new ArrayList<>(value.size());
-        for (TranslationArgument argument : value) {
-            arguments.add(serializeComponent(argument.asComponent()));
+    private @NotNull TranslationArgument deserializeTranslationArgument(NBT nbt) {
+        if (nbt instanceof NBTByte) {
+            return TranslationArgument.bool(((NBTByte) nbt).getAsByte() != (byte) 0);
+        } else if (nbt instanceof NBTNumber) {
+            return TranslationArgument.numeric(((NBTNumber) nbt).getAsInt());
+        } else if (nbt instanceof NBTString) {
+            return TranslationArgument.component(Component.text(((NBTString) nbt).getValue()));
+        } else {
+            return TranslationArgument.component(deserialize(requireType(nbt, NBTType.COMPOUND)));
         }
-        return arguments;
     }
     // -------------------------------------------------
 
@@ -678,73 +782,168 @@ public class AdventureNBTSerializer implements ComponentSerializer<Component, Co
         }
     }
 
-    static class NBTWriter {
+    abstract static class NBTWriter {
+
+        public abstract void writeBoolean(String key, boolean value);
+
+        public abstract void writeInt(String key, int value);
+
+        public abstract void writeUTF(String key, String value);
+
+        public abstract void writeIntArray(String key, int[] value);
+
+        public abstract void write(String key, NBT value);
+
+        public void writeCompound(String key, NBTCompound value) {
+            this.write(key, value);
+        }
+
+        public abstract NBTWriter child(String key);
+
+        /**
+         * Writes a list of compounds, each of them written by the element writer.
+         */
+        public abstract <T> void writeCompoundList(String key, List<T> values, BiConsumer<T, NBTWriter> elementWriter);
+    }
+
+    static class TreeWriter extends NBTWriter {
         private final NBTCompound compound;
 
-        public NBTWriter(NBTCompound compound) {
+        public TreeWriter(NBTCompound compound) {
             this.compound = compound;
         }
 
+        @Override
         public void writeBoolean(String key, boolean value) {
             compound.setTag(key, new NBTByte(value ? (byte) 1 : (byte) 0));
         }
 
-        public void writeByte(String key, byte value) {
-            compound.setTag(key, new NBTByte(value));
+        @Override
+        public void writeInt(String key, int value) {
+            compound.setTag(key, new NBTInt(value));
         }
 
-        public void writeShort(String key, short value) {
-            compound.setTag(key, new NBTShort(value));
+        @Override
+        public void writeUTF(String key, String value) {
+            compound.setTag(key, new NBTString(value));
         }
 
-        public void writeInt(String key, int value) {
-            compound.setTag(key, new NBTInt(value));
+        @Override
+        public void writeIntArray(String key, int[] value) {
+            compound.setTag(key, new NBTIntArray(value));
         }
 
-        public void writeLong(String key, long value) {
-            compound.setTag(key, new NBTLong(value));
+        @Override
+        public void write(String key, NBT value) {
+            compound.setTag(key, value);
         }
 
-        public void writeFloat(String key, float value) {
-            compound.setTag(key, new NBTFloat(value));
+        @Override
+        public NBTWriter child(String key) {
+            NBTCompound child = new NBTCompound();
+            compound.setTag(key, child);
+            return new TreeWriter(child);
         }
 
-        public void writeDouble(String key, double value) {
-            compound.setTag(key, new NBTDouble(value));
+        @Override
+        public <T> void writeCompoundList(String key, List<T> values, BiConsumer<T, NBTWriter> elementWriter) {
+            List<NBTCompound> compounds = new ArrayList<>(values.size());
+            for (T value : values) {
+                TreeWriter element = new TreeWriter(new NBTCompound());
+                elementWriter.accept(value, element);
+                compounds.add(element.compound);
+            }
+            compound.setTag(key, new NBTList<>(NBTType.COMPOUND, compounds));
         }
+    }
 
-        public void writeUTF(String key, String value) {
-            compound.setTag(key, new NBTString(value));
+    /**
+     * Writes the entries of a compound directly to a buffer. A child compound is ended
+     * as soon as its parent continues writing, as children are always written completely first.
+     */
+    static class StreamWriter extends NBTWriter {
+        private final ByteBufNBTSerializer.Writer writer;
+        private @Nullable StreamWriter child;
+
+        public StreamWriter(ByteBufNBTSerializer.Writer writer) {
+            this.writer = writer;
         }
 
-        public void writeByteArray(String key, byte[] value) {
-            compound.setTag(key, new NBTByteArray(value));
+        private ByteBufNBTSerializer.Writer entry(NBTType<?> type, String key) {
+            this.endChild();
+            try {
+                this.writer.writeEntry(type, key);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            return this.writer;
         }
 
-        public void writeIntArray(String key, int[] value) {
-            compound.setTag(key, new NBTIntArray(value));
+        @Override
+        public void writeBoolean(String key, boolean value) {
+            this.entry(NBTType.BYTE, key).writeByte(value ? 1 : 0);
         }
 
-        public void writeLongArray(String key, long[] value) {
-            compound.setTag(key, new NBTLongArray(value));
+        @Override
+        public void writeInt(String key, int value) {
+            this.entry(NBTType.INT, key).writeInt(value);
         }
 
-        public <T extends NBT> void writeList(String key, NBTType<T> innerType, List<T> value) {
-            compound.setTag(key, new NBTList<>(innerType, value));
+        @Override
+        public void writeUTF(String key, String value) {
+            try {
+                this.entry(NBTType.STRING, key).writeString(value);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
         }
 
-        public void writeCompound(String key, NBTCompound value) {
-            compound.setTag(key, value);
+        @Override
+        public void writeIntArray(String key, int[] value) {
+            this.entry(NBTType.INT_ARRAY, key).writeIntArray(value);
         }
 
+        @Override
         public void write(String key, NBT value) {
-            compound.setTag(key, value);
+            try {
+                this.entry(value.getType(), key).writeValue(value);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
         }
 
+        @Override
         public NBTWriter child(String key) {
-            NBTCompound child = new NBTCompound();
-            compound.setTag(key, child);
-            return new NBTWriter(child);
+            this.entry(NBTType.COMPOUND, key);
+            return this.child = new StreamWriter(this.writer);
+        }
+
+        @Override
+        public <T> void writeCompoundList(String key, List<T> values, BiConsumer<T, NBTWriter> elementWriter) {
+            ByteBufNBTSerializer.Writer writer = this.entry(NBTType.LIST, key);
+            try {
+                writer.writeType(NBTType.COMPOUND);
+            } catch (IOException exception) {
+                throw new IllegalStateException(exception);
+            }
+            writer.writeInt(values.size());
+            for (T value : values) {
+                StreamWriter element = new StreamWriter(writer);
+                elementWriter.accept(value, element);
+                element.end();
+            }
+        }
+
+        private void endChild() {
+            if (this.child != null) {
+                this.child.end();
+                this.child = null;
+            }
+        }
+
+        public void end() {
+            this.endChild();
+            this.writer.writeEnd();
         }
     }
 
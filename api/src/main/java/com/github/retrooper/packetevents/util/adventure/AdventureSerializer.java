@@ -34,6 +34,7 @@ public class AdventureSerializer {
     private static GsonComponentSerializer GSON;
     private static LegacyComponentSerializer LEGACY;
     private static AdventureNBTSerializer NBT;
+    private static ComponentCache COMPONENT_CACHE;
 
     public static GsonComponentSerializer getGsonSerializer() {
         if (GSON == null) {
@@ -78,6 +79,19 @@ public class AdventureSerializer {
         return NBT;
     }
 
+    /**
+     * @return the cache of encoded components used when writing them to packets
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#componentCacheSize(long)
+     */
+    public static ComponentCache getComponentCache() {
+        long size = PacketEvents.getAPI().getSettings().getComponentCacheSize();
+        ComponentCache cache = COMPONENT_CACHE;
+        if (cache == null || cache.getMaximumSize() != size) {
+            COMPONENT_CACHE = cache = new ComponentCache(size);
+        }
+        return cache;
+    }
+
     public static String asVanilla(Component component) {
         return getLegacySerializer().serialize(component);
     }
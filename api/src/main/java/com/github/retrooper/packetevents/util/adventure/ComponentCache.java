@@ -0,0 +1,197 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.adventure;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of the network encoding of components, so component instances which are sent
+ * repeatedly (tab list, scoreboards, boss bars, name tags) don't have to be serialized again.
+ * <p>
+ * The encoding of a component only depends on the version it's written for, as the serializers
+ * are configured once for the server. Entries live in a fixed table indexed by the identity of the
+ * component, so lookups never compare component trees and never lock. Components are only held
+ * weakly, and an encoding is only kept once the same instance was written a second time, so
+ * components which are built for a single packet don't cost more than a table slot.
+ */
+public final class ComponentCache {
+
+    private static final int SLOTS = 1024;
+
+    private final long maximumSize;
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(SLOTS);
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicInteger evictionCursor = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize the maximum amount of encoded bytes held by the cache, 0 disables it
+     */
+    public ComponentCache(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public boolean isEnabled() {
+        return this.maximumSize > 0;
+    }
+
+    /**
+     * @return the cached encoding of the component for the version, or null if it's not cached
+     */
+    public byte @Nullable [] get(Component component, ServerVersion version) {
+        Entry entry = this.entries.get(slot(component));
+        if (entry != null && entry.encoded != null && entry.matches(component, version)) {
+            this.hits.increment();
+            return entry.encoded;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Remembers that the component was written for the version.
+     *
+     * @return true if the same instance was already written for the version before,
+     * so its encoding is worth {@link #put(Component, ServerVersion, byte[]) caching}
+     */
+    public boolean markWritten(Component component, ServerVersion version) {
+        int slot = slot(component);
+        Entry entry = this.entries.get(slot);
+        if (entry != null && entry.matches(component, version)) {
+            return true;
+        }
+        this.replace(slot, entry, new Entry(component, version, null));
+        return false;
+    }
+
+    /**
+     * Caches the encoding of the component for the version. The bytes must not be modified afterward.
+     */
+    public void put(Component component, ServerVersion version, byte[] encoded) {
+        if (encoded.length > this.maximumSize) {
+            return;
+        }
+        int slot = slot(component);
+        this.replace(slot, this.entries.get(slot), new Entry(component, version, encoded));
+        // evict other encodings round-robin until the cache fits again
+        for (int i = 0; i < SLOTS && this.size.get() > this.maximumSize; i++) {
+            int evictedSlot = this.evictionCursor.getAndIncrement() & (SLOTS - 1);
+            Entry evicted = this.entries.get(evictedSlot);
+            if (evictedSlot != slot && evicted != null && evicted.encoded != null) {
+                this.replace(evictedSlot, evicted, null);
+            }
+        }
+    }
+
+    private void replace(int slot, @Nullable Entry expected, @Nullable Entry entry) {
+        if (!this.entries.compareAndSet(slot, expected, entry)) {
+            return; // another thread just used the slot, keep its entry
+        }
+        long delta = (entry != null && entry.encoded != null ? entry.encoded.length : 0)
+                - (expected != null && expected.encoded != null ? expected.encoded.length : 0);
+        if (expected != null && expected.encoded != null) {
+            this.evictions.increment();
+        }
+        this.size.addAndGet(delta);
+    }
+
+    public void clear() {
+        for (int i = 0; i < SLOTS; i++) {
+            Entry entry = this.entries.getAndSet(i, null);
+            if (entry != null && entry.encoded != null) {
+                this.size.addAndGet(-entry.encoded.length);
+            }
+        }
+    }
+
+    private static int slot(Component component) {
+        int hash = System.identityHashCode(component);
+        return (hash ^ (hash >>> 16)) & (SLOTS - 1);
+    }
+
+    public long getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * @return the amount of encoded bytes currently held by the cache
+     */
+    public long getSize() {
+        return this.size.get();
+    }
+
+    public int getEntryCount() {
+        int count = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            Entry entry = this.entries.get(i);
+            if (entry != null && entry.encoded != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return the ratio of lookups which were served from the cache, or 0 if nothing was looked up yet
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long lookups = hits + this.misses.sum();
+        return lookups == 0L ? 0D : (double) hits / lookups;
+    }
+
+    private static final class Entry extends WeakReference<Component> {
+
+        private final ServerVersion version;
+        private final byte @Nullable [] encoded;
+
+        private Entry(Component component, ServerVersion version, byte @Nullable [] encoded) {
+            super(component);
+            this.version = version;
+            this.encoded = encoded;
+        }
+
+        private boolean matches(Component component, ServerVersion version) {
+            return this.version == version && this.get() == component;
+        }
+    }
+}
@@ -27,10 +27,15 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTString;
 import com.github.retrooper.packetevents.protocol.nbt.serializer.SequentialNBTReader;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -49,6 +54,36 @@ public class MappingHelper {
         }
     }
 
+    /**
+     * Reads the binary snapshot of resolved ids generated next to a mapping file.
+     *
+     * @return the snapshot, or null if there is none
+     */
+    public static @Nullable ByteBuffer loadSnapshot(final String path) {
+        try (InputStream input = PacketEvents.getAPI().getSettings().getResourceProvider()
+                .apply("assets/" + path + ".snapshot")) {
+            if (input == null) {
+                return null;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.available() > 0 ? input.available() : 8192);
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                output.write(chunk, 0, read);
+            }
+            return ByteBuffer.wrap(output.toByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read resource file " + path + ".snapshot", e);
+        }
+    }
+
+    public static String readSnapshotString(final ByteBuffer buffer) {
+        int length = buffer.getShort() & 0xFFFF;
+        String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return string;
+    }
+
     public static List<ListDiff<String>> createListDiff(final SequentialNBTReader.Compound compound) {
         final List<ListDiff<String>> diffs = new ArrayList<>();
 
@@ -105,12 +140,10 @@ public class MappingHelper {
         return diffs;
     }
 
-    public static  <T extends MappedEntity> void registerMapping(TypesBuilder builder, Map<String, T> typeMap, Map<Byte, Map<Integer, T>> typeIdMap, T type) {
+    public static <T extends MappedEntity> void registerMapping(TypesBuilder builder, Map<String, T> typeMap, VersionedIdTable<? super T> typeIdMap, T type) {
         typeMap.put(type.getName().toString(), type);
         for (ClientVersion version : builder.getVersions()) {
-            int index = builder.getDataIndex(version);
-            Map<Integer, T> idMap = typeIdMap.computeIfAbsent((byte) index, k -> new HashMap<>());
-            idMap.put(type.getId(version), type);
+            typeIdMap.put(builder.getDataIndex(version), type.getId(version), type);
         }
     }
 
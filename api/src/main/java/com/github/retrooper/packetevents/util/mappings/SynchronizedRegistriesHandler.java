@@ -56,6 +56,9 @@ import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperCon
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -113,11 +116,13 @@ public final class SynchronizedRegistriesHandler {
             return;
         }
         SimpleRegistry<?> syncedRegistry;
-        if (FORCE_PER_USER_REGISTRIES || cacheKey == null) {
+        if (FORCE_PER_USER_REGISTRIES) {
             syncedRegistry = registryData.createFromElements(elements, version); // no caching
+        } else if (cacheKey == null) {
+            syncedRegistry = registryData.computeSharedRegistry(elements, version);
         } else {
             syncedRegistry = registryData.computeSyncedRegistry(cacheKey, () ->
-                    registryData.createFromElements(elements, version));
+                    registryData.computeSharedRegistry(elements, version));
         }
         user.putRegistry(syncedRegistry);
     }
@@ -169,6 +174,15 @@ public final class SynchronizedRegistriesHandler {
         // the key to this cache depends on the platform - it may be a constant value for bukkit servers
         // or some backend server related value for proxy servers
         private final Map<Object, SimpleRegistry<T>> syncedRegistries = new ConcurrentHashMap<>(2);
+        // registries are also shared between users receiving the same registry content, e.g. on
+        // proxies when the cache key is unknown during a server switch; they are only weakly
+        // referenced and get evicted once no user holds them anymore
+        //
+        // the content is compared structurally, so a lookup only walks the received elements once
+        // to hash them instead of serializing them again, and the elements of the first user are
+        // kept as long as their registry
+        private final Map<ContentKey, SharedRegistry<T>> sharedRegistries = new ConcurrentHashMap<>();
+        private final ReferenceQueue<SimpleRegistry<T>> releasedRegistries = new ReferenceQueue<>();
 
         public RegistryEntry(
                 IRegistry<T> baseRegistry,
@@ -188,6 +202,27 @@ public final class SynchronizedRegistriesHandler {
                     $ -> (SimpleRegistry<T>) registry.get());
         }
 
+        public SimpleRegistry<T> computeSharedRegistry(List<RegistryElement> elements, ClientVersion version) {
+            this.expungeReleasedRegistries();
+            ContentKey key = new ContentKey(version, elements);
+            SharedRegistry<T> shared = this.sharedRegistries.get(key);
+            SimpleRegistry<T> registry = shared == null ? null : shared.get();
+            if (registry == null) {
+                // users receiving the same content at the same time may both decode it, which is harmless
+                registry = this.createFromElements(elements, version);
+                key = new ContentKey(version, new ArrayList<>(elements)); // don't keep the list of the packet
+                this.sharedRegistries.put(key, new SharedRegistry<>(key, registry, this.releasedRegistries));
+            }
+            return registry;
+        }
+
+        private void expungeReleasedRegistries() {
+            SharedRegistry<?> released;
+            while ((released = (SharedRegistry<?>) this.releasedRegistries.poll()) != null) {
+                this.sharedRegistries.remove(released.key, released);
+            }
+        }
+
         private void handleElement(
                 SimpleRegistry<T> registry,
                 RegistryElement element,
@@ -247,4 +282,41 @@ public final class SynchronizedRegistriesHandler {
             return this.baseRegistry.getRegistryKey();
         }
     }
+
+    private static final class ContentKey {
+
+        private final ClientVersion version;
+        private final List<RegistryElement> elements;
+        private final int hash;
+
+        private ContentKey(ClientVersion version, List<RegistryElement> elements) {
+            this.version = version;
+            this.elements = elements;
+            this.hash = 31 * version.hashCode() + elements.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ContentKey)) return false;
+            ContentKey that = (ContentKey) obj;
+            return this.hash == that.hash && this.version == that.version
+                    && this.elements.equals(that.elements);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class SharedRegistry<T extends MappedEntity> extends WeakReference<SimpleRegistry<T>> {
+
+        private final ContentKey key;
+
+        private SharedRegistry(ContentKey key, SimpleRegistry<T> registry, ReferenceQueue<SimpleRegistry<T>> queue) {
+            super(registry, queue);
+            this.key = key;
+        }
+    }
 }
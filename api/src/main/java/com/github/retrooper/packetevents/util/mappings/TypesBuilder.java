@@ -18,6 +18,7 @@
 
 package com.github.retrooper.packetevents.util.mappings;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
 import com.github.retrooper.packetevents.protocol.nbt.NBTString;
@@ -30,17 +31,57 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Consumer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 public class TypesBuilder {
+    // Magic and format of the snapshots written by the mapping compression plugin
+    private static final int SNAPSHOT_MAGIC = 0x5045534E;
+    private static final int SNAPSHOT_FORMAT = 1;
+
+    // Mapping files of the largest registries, which are loaded concurrently by the warmup
+    private static final String[] WARMUP_PATHS = {
+            "block/block_type_mappings",
+            "item/item_type_mappings",
+            "sound/sound_mappings",
+            "entity/entity_type_mappings",
+            "entity/legacy_entity_type_mappings",
+            "entity/entity_data_type_mappings",
+            "particle/particle_type_mappings",
+            "item/item_component_mappings",
+            "entity/entity_effect_mappings",
+            "item/item_potion_mappings",
+            "world/biome_mappings",
+            "enchantment/enchantment_type_mappings",
+            "block/block_entity_type_mappings",
+            "attribute/attribute_mappings",
+    };
+    // Mappings loaded ahead of time, taken by the first builder of their path
+    private static final Map<String, CompletableFuture<Mappings>> PRELOADED = new ConcurrentHashMap<>();
+    // Preloaded files taken by builders, the time spent reading them and the time builders waited for them
+    private static final AtomicInteger PRELOADS_TAKEN = new AtomicInteger();
+    private static final AtomicLong PRELOAD_READ_NANOS = new AtomicLong();
+    private static final AtomicLong PRELOAD_WAIT_NANOS = new AtomicLong();
+
     private final String mapPath;
-    private Map<ClientVersion, Map<String, Integer>> entries = new HashMap<>();
+    // Resolved ids, indexed by version and then by the index of the name
+    private @Nullable Map<String, Integer> names;
+    private int @Nullable [][] ids;
     private VersionMapper versionMapper;
 
     @Nullable
@@ -57,86 +98,161 @@ public class TypesBuilder {
         this(mapPath, false);
     }
 
+    /**
+     * Starts loading the mapping files of the largest registries concurrently on the common
+     * {@link ForkJoinPool}, so they are ready once the registries are initialized.
+     * The registries themselves are still initialized by the thread using them first.
+     *
+     * @see #finishWarmup()
+     */
+    @ApiStatus.Internal
+    public static void warmup() {
+        for (String path : WARMUP_PATHS) {
+            PRELOADED.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> read(key), ForkJoinPool.commonPool()));
+        }
+    }
+
+    /**
+     * Drops the preloaded mapping files which no registry took while packetevents initialized,
+     * registries initialized later read their files themselves. How long reading the taken files
+     * took on the pool and how long the registries waited for them instead is logged at debug level.
+     *
+     * @return the amount of dropped files
+     */
+    @ApiStatus.Internal
+    public static int finishWarmup() {
+        int dropped = 0;
+        for (Iterator<CompletableFuture<Mappings>> iterator = PRELOADED.values().iterator(); iterator.hasNext(); ) {
+            iterator.next().cancel(false);
+            iterator.remove();
+            dropped++;
+        }
+        int taken = PRELOADS_TAKEN.getAndSet(0);
+        long readMillis = PRELOAD_READ_NANOS.getAndSet(0L) / 1_000_000L;
+        long waitMillis = PRELOAD_WAIT_NANOS.getAndSet(0L) / 1_000_000L;
+        if (taken != 0 || dropped != 0) {
+            PacketEvents.getAPI().getLogManager().debug("Registries took " + taken + " preloaded mapping files, reading them took "
+                    + readMillis + "ms on other threads and the registries waited " + waitMillis + "ms for them; dropped "
+                    + dropped + " unused preloaded files");
+        }
+        return dropped;
+    }
+
     public void load() {
+        Mappings mappings = null;
+        CompletableFuture<Mappings> preloaded = PRELOADED.remove(mapPath);
+        if (preloaded != null) {
+            long start = System.nanoTime();
+            try {
+                mappings = preloaded.join();
+                PRELOAD_WAIT_NANOS.addAndGet(System.nanoTime() - start);
+                PRELOAD_READ_NANOS.addAndGet(mappings.readNanos);
+                PRELOADS_TAKEN.incrementAndGet();
+            } catch (CompletionException | CancellationException ignored) {
+                // loaded again below, so the failure is thrown on this thread
+            }
+        }
+        if (mappings == null) {
+            mappings = read(mapPath);
+        }
+        this.names = mappings.names;
+        this.ids = mappings.ids;
+        this.versionMapper = new VersionMapper(mappings.versions);
+    }
+
+    private static Mappings read(String mapPath) {
+        long start = System.nanoTime();
+        Mappings mappings = readSnapshot(mapPath);
+        if (mappings == null) {
+            mappings = readCompressed(mapPath);
+        }
+        mappings.complete();
+        mappings.readNanos = System.nanoTime() - start;
+        return mappings;
+    }
+
+    private static Mappings readCompressed(String mapPath) {
         try (final SequentialNBTReader.Compound compound = MappingHelper.decompress("mappings/" + mapPath)) {
             compound.skipOne(); // skip version tag for now
             int length = ((NBTNumber) compound.next().getValue()).getAsInt(); // Second tag is the length
             final SequentialNBTReader.Compound entries = (SequentialNBTReader.Compound) compound.next().getValue(); // Third tag are the entries
 
-            final ClientVersion[] versions = new ClientVersion[length];
+            final Mappings mappings = new Mappings(new ClientVersion[length]);
             final Map.Entry<String, NBT> first = entries.next();
             if (first.getValue().getType() == NBTType.LIST) {
-                loadAsArray(first, entries, versions);
+                loadAsArray(first, entries, mappings);
             } else {
-                loadAsMap(first, entries, versions);
+                loadAsMap(first, entries, mappings);
             }
-
-            versionMapper = new VersionMapper(versions);
+            return mappings;
         } catch (IOException e) {
             throw new RuntimeException("Unable to load mapping files.", e);
         }
     }
 
-    private void loadAsArray(
+    private static @Nullable Mappings readSnapshot(String mapPath) {
+        final ByteBuffer buffer = MappingHelper.loadSnapshot("mappings/" + mapPath);
+        if (buffer == null || buffer.getInt() != SNAPSHOT_MAGIC || buffer.get() != SNAPSHOT_FORMAT) {
+            return null;
+        }
+
+        final Mappings mappings = new Mappings(new ClientVersion[buffer.getInt()]);
+        for (int i = 0; i < mappings.versions.length; i++) {
+            mappings.versions[i] = ClientVersion.valueOf(MappingHelper.readSnapshotString(buffer));
+        }
+
+        final int nameCount = buffer.getInt();
+        for (int i = 0; i < nameCount; i++) {
+            mappings.names.put(MappingHelper.readSnapshotString(buffer), i);
+        }
+
+        final IntBuffer idBuffer = buffer.asIntBuffer();
+        for (int i = 0; i < mappings.versions.length; i++) {
+            mappings.ids[i] = new int[nameCount];
+            idBuffer.get(mappings.ids[i]);
+        }
+        return mappings;
+    }
+
+    private static void loadAsArray(
             final Map.Entry<String, NBT> first,
             final SequentialNBTReader.Compound entries,
-            final ClientVersion[] versions
+            final Mappings mappings
     ) {
-        final ClientVersion start = ClientVersion.valueOf(first.getKey());
-        versions[0] = start;
         final List<String> lastEntries = new ArrayList<>();
         for (NBT entry : ((SequentialNBTReader.List) first.getValue())) {
             lastEntries.add(((NBTString) entry).getValue());
         }
-
-        final Consumer<ClientVersion> mapLoader = version -> {
-            final Map<String, Integer> map = new HashMap<>();
-            for (int i = 0; i < lastEntries.size(); i++) {
-                map.put(lastEntries.get(i), i);
-            }
-            this.entries.put(version, map);
-        };
-        mapLoader.accept(start);
+        mappings.addVersion(0, ClientVersion.valueOf(first.getKey()), lastEntries);
 
         int i = 1;
         for (Map.Entry<String, NBT> entry : entries) {
-            final ClientVersion version = ClientVersion.valueOf(entry.getKey());
-            versions[i++] = version;
             final List<ListDiff<String>> diff = MappingHelper.createListDiff((SequentialNBTReader.Compound) entry.getValue());
 
             for (int j = diff.size() - 1; j >= 0; j--) {
                 diff.get(j).applyTo(lastEntries);
             }
-            mapLoader.accept(version);
+            mappings.addVersion(i++, ClientVersion.valueOf(entry.getKey()), lastEntries);
         }
     }
 
-    private void loadAsMap(
+    private static void loadAsMap(
             final Map.Entry<String, NBT> first,
             final SequentialNBTReader.Compound entries,
-            final ClientVersion[] versions
+            final Mappings mappings
     ) {
-        final ClientVersion start = ClientVersion.valueOf(first.getKey());
-        versions[0] = start;
         final Map<String, Integer> lastEntries = StreamSupport.stream(((SequentialNBTReader.Compound) first.getValue()).spliterator(), false)
                 .collect(Collectors.toMap(Map.Entry::getKey, entry -> ((NBTNumber) entry.getValue()).getAsInt()));
-
-        final Consumer<ClientVersion> mapLoader = version -> {
-            final Map<String, Integer> map = new HashMap<>(lastEntries);
-            this.entries.put(version, map);
-        };
-        mapLoader.accept(start);
+        mappings.addVersion(0, ClientVersion.valueOf(first.getKey()), lastEntries);
 
         int i = 1;
         for (Map.Entry<String, NBT> entry : entries) {
-            final ClientVersion version = ClientVersion.valueOf(entry.getKey());
-            versions[i++] = version;
             final List<MapDiff<String, Integer>> diff = MappingHelper.createDiff((SequentialNBTReader.Compound) entry.getValue());
 
             for (MapDiff<String, Integer> d : diff) {
                 d.applyTo(lastEntries);
             }
-            mapLoader.accept(version);
+            mappings.addVersion(i++, ClientVersion.valueOf(entry.getKey()), lastEntries);
         }
     }
 
@@ -158,24 +274,94 @@ public class TypesBuilder {
     }
 
     public void unloadFileMappings() {
-        entries.clear();
-        entries = null;
+        names = null;
+        ids = null;
     }
 
     public TypesBuilderData define(String key) {
         final ResourceLocation name = new ResourceLocation(key);
         final int[] ids = new int[getVersions().length];
-        int index = 0;
-        for (ClientVersion v : getVersions()) {
-            final Map<String, Integer> map = entries.get(v);
-            if (map.containsKey(key)) {
-                int id = map.get(key);
-                ids[index] = id;
-            } else {
-                ids[index] = -1;
-            }
-            index++;
+        final Integer nameIndex = names.get(key);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nameIndex != null ? this.ids[i][nameIndex] : -1;
         }
         return new TypesBuilderData(this, name, ids);
     }
+
+    /**
+     * Ids of every version of a mapping file, stored as one dense table per version over a shared
+     * pool of names, the same layout as the snapshots. Every version is needed anyway, as each
+     * defined type looks up its id in all of them. A table per version is larger than a single
+     * boxed map of the newest version would be, but a fraction of the boxed map per version
+     * kept before, and versions without changes share the table of the previous version.
+     * The tables are only held until {@link #unloadFileMappings()}.
+     */
+    private static final class Mappings {
+        private final ClientVersion[] versions;
+        private final Map<String, Integer> names = new HashMap<>();
+        private final int[][] ids;
+        private long readNanos;
+
+        private Mappings(ClientVersion[] versions) {
+            this.versions = versions;
+            this.ids = new int[versions.length][];
+        }
+
+        private int nameIndex(String name) {
+            Integer index = names.get(name);
+            if (index == null) {
+                index = names.size();
+                names.put(name, index);
+            }
+            return index;
+        }
+
+        private void addVersion(int index, ClientVersion version, List<String> entries) {
+            versions[index] = version;
+            final int[] nameIndices = new int[entries.size()];
+            for (int i = 0; i < nameIndices.length; i++) {
+                nameIndices[i] = nameIndex(entries.get(i));
+            }
+            final int[] versionIds = newVersionIds();
+            // later duplicates win, like they did in a map
+            for (int i = 0; i < nameIndices.length; i++) {
+                versionIds[nameIndices[i]] = i;
+            }
+            ids[index] = versionIds;
+        }
+
+        private void addVersion(int index, ClientVersion version, Map<String, Integer> entries) {
+            versions[index] = version;
+            for (String name : entries.keySet()) {
+                nameIndex(name);
+            }
+            final int[] versionIds = newVersionIds();
+            for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+                versionIds[names.get(entry.getKey())] = entry.getValue();
+            }
+            ids[index] = versionIds;
+        }
+
+        private int[] newVersionIds() {
+            final int[] versionIds = new int[names.size()];
+            Arrays.fill(versionIds, -1);
+            return versionIds;
+        }
+
+        /**
+         * Names added by later versions don't exist in the tables of earlier versions yet.
+         */
+        private void complete() {
+            for (int i = 0; i < ids.length; i++) {
+                int length = ids[i].length;
+                if (length < names.size()) {
+                    ids[i] = Arrays.copyOf(ids[i], names.size());
+                    Arrays.fill(ids[i], length, names.size(), -1);
+                }
+                if (i > 0 && Arrays.equals(ids[i], ids[i - 1])) {
+                    ids[i] = ids[i - 1]; // unchanged registry, the tables are never modified
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util.mappings;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Maps the network ids of every protocol version to their entries, stored as one array per version
+ * which is indexed by the id. Entries are only added while their registry is initialized.
+ *
+ * @param <T> the type of the entries
+ */
+@ApiStatus.Internal
+public final class VersionedIdTable<T> {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    // version index -> id -> entry
+    private Object[][] entries = new Object[0][];
+
+    /**
+     * Adds the entry for the given id, replacing the previous entry with the same id.
+     * Negative ids mark entries which don't exist in this version and are skipped.
+     *
+     * @param versionIndex the index of the version, see {@link TypesBuilder#getDataIndex}
+     * @param id           the id of the entry in this version
+     * @param entry        the entry
+     */
+    public void put(int versionIndex, int id, T entry) {
+        if (id < 0) {
+            return;
+        }
+        if (versionIndex >= this.entries.length) {
+            int length = this.entries.length;
+            this.entries = Arrays.copyOf(this.entries, versionIndex + 1);
+            Arrays.fill(this.entries, length, this.entries.length, EMPTY);
+        }
+        Object[] ids = this.entries[versionIndex];
+        if (id >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(id + 1, ids.length + (ids.length >> 1)));
+            this.entries[versionIndex] = ids;
+        }
+        ids[id] = entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(int versionIndex, int id) {
+        Object[][] entries = this.entries;
+        if (versionIndex < 0 || versionIndex >= entries.length) {
+            return null;
+        }
+        Object[] ids = entries[versionIndex];
+        return id >= 0 && id < ids.length ? (T) ids[id] : null;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.wrapper;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The encoded remainder of a packet, which is only decoded once it is accessed.
+ * <p>
+ * Only the position of the bytes in the packet buffer is remembered when the packet is read.
+ * If the value is never accessed, the original bytes are written back unchanged.
+ * As the packet buffer is released after the event, the value has to be accessed during the event.
+ *
+ * @param <T> Decoded type
+ * @see PacketWrapper#readRemainingLazily(PacketWrapper.Reader)
+ */
+public final class LazyValue<T> {
+    private final PacketWrapper<?> wrapper;
+    private final PacketWrapper.Reader<T> reader;
+    private @Nullable Object buffer;
+    private final int index;
+    private final int length;
+    // Set once the buffer can no longer be used
+    private byte[] bytes;
+
+    LazyValue(PacketWrapper<?> wrapper, PacketWrapper.Reader<T> reader, Object buffer, int index, int length) {
+        this.wrapper = wrapper;
+        this.reader = reader;
+        this.buffer = buffer;
+        this.index = index;
+        this.length = length;
+    }
+
+    /**
+     * Decodes the value.
+     * The caller is expected to store the result, every call decodes the bytes again.
+     *
+     * @return Decoded value
+     */
+    public T decode() {
+        Object source;
+        int sourceIndex;
+        if (this.bytes != null) {
+            source = UnpooledByteBufAllocationHelper.wrappedBuffer(this.bytes);
+            sourceIndex = 0;
+        } else {
+            source = this.buffer;
+            sourceIndex = this.index;
+        }
+        Object wrapperBuffer = this.wrapper.buffer;
+        int readerIndex = ByteBufHelper.readerIndex(source);
+        try {
+            this.wrapper.buffer = source;
+            ByteBufHelper.readerIndex(source, sourceIndex);
+            return this.reader.apply(this.wrapper);
+        } finally {
+            ByteBufHelper.readerIndex(source, readerIndex);
+            this.wrapper.buffer = wrapperBuffer;
+        }
+    }
+
+    /**
+     * Writes the original, undecoded bytes to the wrapper.
+     *
+     * @param wrapper Wrapper to write to
+     */
+    public void writeRaw(PacketWrapper<?> wrapper) {
+        wrapper.writeBytes(this.getBytes());
+    }
+
+    /**
+     * Copies the bytes out of the packet buffer, so the buffer can be cleared or released.
+     */
+    void detach() {
+        this.getBytes();
+    }
+
+    private byte[] getBytes() {
+        byte[] bytes = this.bytes;
+        if (bytes == null) {
+            bytes = new byte[this.length];
+            ByteBufHelper.getBytes(this.buffer, this.index, bytes);
+            this.bytes = bytes;
+            this.buffer = null;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return Length of the encoded value in bytes
+     */
+    public int getLength() {
+        return this.length;
+    }
+}
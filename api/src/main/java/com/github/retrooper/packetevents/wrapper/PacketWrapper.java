@@ -48,7 +48,7 @@ import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.ChatType;
@@ -78,6 +78,7 @@ import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
 import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
@@ -94,6 +95,7 @@ import com.github.retrooper.packetevents.util.MathUtil;
 import com.github.retrooper.packetevents.util.StringUtil;
 import com.github.retrooper.packetevents.util.Vector3i;
 import com.github.retrooper.packetevents.util.adventure.AdventureSerializer;
+import com.github.retrooper.packetevents.util.adventure.ComponentCache;
 import com.github.retrooper.packetevents.util.crypto.MinecraftEncryptionUtil;
 import com.github.retrooper.packetevents.util.crypto.SaltSignature;
 import com.github.retrooper.packetevents.util.crypto.SignatureData;
@@ -107,6 +109,7 @@ import org.jetbrains.annotations.ApiStatus.Experimental;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
@@ -132,6 +135,12 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     @ApiStatus.Internal
     public final Object bufferLock = new Object();
+    // Bound once per wrapper, so reading a whole packet doesn't look up the operator for every field
+    private ByteBufOperator byteBufOperator;
+    // Only set while lazy decoding is enabled, shared with wrappers copying from this one
+    private @Nullable List<LazyValue<?>> lazyValues;
+    // Start of the packet data in the event buffer this wrapper was read from, -1 if not read from an event
+    private int readIndex = -1;
 
     protected ClientVersion clientVersion;
     protected ServerVersion serverVersion;
@@ -227,7 +236,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     public final void prepareForSend(Object channel, boolean outgoing, boolean proxy) {
         // Null means the packet was manually created and wasn't sent by the server itself
         // A reference count of 0 means that the packet was freed (it was already sent)
-        if (buffer == null || ByteBufHelper.refCnt(buffer) == 0) {
+        if (buffer == null || getByteBufOperator().refCnt(buffer) == 0) {
             buffer = ChannelHelper.pooledByteBuf(channel);
         }
 
@@ -272,13 +281,148 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     public final void readEvent(ProtocolPacketEvent event) {
         PacketWrapper<?> last = event.getLastUsedWrapper();
         if (last != null) {
+            lazyValues = last.lazyValues;
+            readIndex = last.readIndex;
             copy((T) last);
         } else {
+            if (PacketEvents.getAPI().getSettings().isLazyDecodingEnabled()) {
+                lazyValues = new ArrayList<>(1);
+            }
+            readIndex = getByteBufOperator().readerIndex(buffer);
             read();
         }
         event.setLastUsedWrapper(this);
     }
 
+    /**
+     * Whether this wrapper may be reused for another packet of the same type once its event was processed.
+     * Only wrappers which assign all of their fields in {@link #read()} may be recycled.
+     *
+     * @return Whether this wrapper can be recycled
+     * @see ProtocolPacketEvent#getWrapper(Class)
+     */
+    public boolean isRecyclable() {
+        return false;
+    }
+
+    /**
+     * Called before a recycled wrapper reads the packet of a new event.
+     * Wrappers which initialize fields from the event in their constructor have to do the same here.
+     *
+     * @param event Event, which is about to be read
+     */
+    protected void onReuse(ProtocolPacketEvent event) {
+    }
+
+    /**
+     * Binds a recycled wrapper to a new event and reads its packet, as the event constructor would.
+     *
+     * @param event Event to read
+     */
+    @ApiStatus.Internal
+    public final void reuse(ProtocolPacketEvent event) {
+        clientVersion = event.getUser().getClientVersion();
+        serverVersion = event.getServerVersion();
+        user = event.getUser();
+        buffer = event.getByteBuf();
+        packetTypeData.setPacketType(event.getPacketType());
+        packetTypeData.setNativePacketId(event.getPacketId());
+        onReuse(event);
+        readEvent(event);
+    }
+
+    /**
+     * Clears the references to the packet of a recycled wrapper, so the pool doesn't keep buffers or users alive.
+     */
+    @ApiStatus.Internal
+    public final void release() {
+        buffer = null;
+        user = null;
+        lazyValues = null;
+        readIndex = -1;
+    }
+
+    /**
+     * Whether this wrapper is reading an event with lazy decoding enabled.
+     * Wrappers may then use {@link #readRemainingLazily(Reader)} for expensive trailing fields.
+     *
+     * @return Whether values may be decoded lazily
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#lazyDecoding(boolean)
+     */
+    protected boolean isLazyDecoding() {
+        return lazyValues != null;
+    }
+
+    /**
+     * Skips the remaining bytes of the packet and remembers their position,
+     * so they can be decoded with the reader once they are accessed.
+     *
+     * @param reader Reader for the remaining bytes
+     * @param <V>    Decoded type
+     * @return Lazily decoded value
+     */
+    protected <V> LazyValue<V> readRemainingLazily(Reader<V> reader) {
+        ByteBufOperator operator = getByteBufOperator();
+        int readerIndex = operator.readerIndex(buffer);
+        int length = operator.readableBytes(buffer);
+        LazyValue<V> value = new LazyValue<>(this, reader, buffer, readerIndex, length);
+        operator.readerIndex(buffer, readerIndex + length);
+        if (lazyValues == null) {
+            lazyValues = new ArrayList<>(1);
+        }
+        lazyValues.add(value);
+        return value;
+    }
+
+    /**
+     * Writes the changes made to this wrapper directly over the bytes it was read from,
+     * without clearing the buffer and encoding the whole packet again.
+     *
+     * @return Whether the changes were written, false if the packet has to be encoded again
+     * @see #writeInPlace()
+     */
+    @ApiStatus.Internal
+    public final boolean rewriteInPlace() {
+        if (readIndex == -1) {
+            return false;
+        }
+        ByteBufOperator operator = getByteBufOperator();
+        int writerIndex = operator.writerIndex(buffer);
+        operator.writerIndex(buffer, readIndex);
+        try {
+            return writeInPlace();
+        } finally {
+            operator.writerIndex(buffer, writerIndex);
+        }
+    }
+
+    /**
+     * Writes the packet over the bytes it was read from, starting at the writer index.
+     * Wrappers can implement this if their changed fields can be written without changing the length
+     * of the encoded packet, e.g. for fixed size fields or VarInts using {@link #writeVarInt(int, int)}.
+     * Bytes which aren't written are left as they were read.
+     * <p>
+     * If the changes can't be written in place, this has to return false before writing anything.
+     *
+     * @return Whether the packet was written in place
+     */
+    protected boolean writeInPlace() {
+        return false;
+    }
+
+    /**
+     * Copies the bytes of all values which haven't been decoded yet out of the packet buffer.
+     * This has to happen before the buffer is cleared to write the wrapper into it again.
+     */
+    @ApiStatus.Internal
+    public final void detachLazyValues() {
+        if (lazyValues != null) {
+            for (LazyValue<?> value : lazyValues) {
+                value.detach();
+            }
+        }
+    }
+
     public ClientVersion getClientVersion() {
         return clientVersion;
     }
@@ -301,6 +445,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public void setBuffer(Object buffer) {
         this.buffer = buffer;
+        this.readIndex = -1;
+    }
+
+    private ByteBufOperator getByteBufOperator() {
+        ByteBufOperator byteBufOperator = this.byteBufOperator;
+        if (byteBufOperator == null) {
+            byteBufOperator = PacketEvents.getAPI().getNettyManager().getByteBufOperator();
+            this.byteBufOperator = byteBufOperator;
+        }
+        return byteBufOperator;
     }
 
     /**
@@ -343,23 +497,23 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     @Deprecated
     public void resetByteBuf() {
-        ByteBufHelper.clear(buffer);
+        getByteBufOperator().clear(buffer);
     }
 
     public void resetBuffer() {
-        ByteBufHelper.clear(buffer);
+        getByteBufOperator().clear(buffer);
     }
 
     public byte readByte() {
-        return ByteBufHelper.readByte(buffer);
+        return getByteBufOperator().readByte(buffer);
     }
 
     public void writeByte(int value) {
-        ByteBufHelper.writeByte(buffer, value);
+        getByteBufOperator().writeByte(buffer, value);
     }
 
     public short readUnsignedByte() {
-        return ByteBufHelper.readUnsignedByte(buffer);
+        return getByteBufOperator().readUnsignedByte(buffer);
     }
 
     public boolean readBoolean() {
@@ -371,34 +525,23 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readInt() {
-        return ByteBufHelper.readInt(buffer);
+        return getByteBufOperator().readInt(buffer);
     }
 
     public void writeInt(int value) {
-        ByteBufHelper.writeInt(buffer, value);
+        getByteBufOperator().writeInt(buffer, value);
     }
 
     public int readMedium() {
-        return ByteBufHelper.readMedium(buffer);
+        return getByteBufOperator().readMedium(buffer);
     }
 
     public void writeMedium(int value) {
-        ByteBufHelper.writeMedium(buffer, value);
+        getByteBufOperator().writeMedium(buffer, value);
     }
 
     public int readVarInt() {
-        int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte();
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
-            }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        return getByteBufOperator().readVarInt(buffer);
     }
 
     public void writeVarInt(int value) {
@@ -426,6 +569,34 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         }
     }
 
+    /**
+     * Writes a VarInt using exactly the given number of bytes, padding it with empty continuation bytes.
+     * This allows replacing a VarInt without moving the bytes following it.
+     *
+     * @param value  Value
+     * @param length Number of bytes to write, at least {@link #getVarIntSize(int)} of the value
+     */
+    public void writeVarInt(int value, int length) {
+        for (int i = 1; i < length; i++) {
+            writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    public static int getVarIntSize(int value) {
+        if ((value & (0xFFFFFFFF << 7)) == 0) {
+            return 1;
+        } else if ((value & (0xFFFFFFFF << 14)) == 0) {
+            return 2;
+        } else if ((value & (0xFFFFFFFF << 21)) == 0) {
+            return 3;
+        } else if ((value & (0xFFFFFFFF << 28)) == 0) {
+            return 4;
+        }
+        return 5;
+    }
+
     public <K, V> Map<K, V> readMap(Reader<K> keyFunction, Reader<V> valueFunction) {
         int size = readVarInt();
         Map<K, V> map = new HashMap<>(size);
@@ -515,7 +686,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         ItemType type = ItemTypes.getById(serverVersion.toClientVersion(), typeID);
         int amount = readByte();
         int legacyData = v1_13_2 ? -1 : readShort();
-        NBTCompound nbt = readNBT();
+        NBTCompound nbt = readLazyNBT();
         return ItemStack.builder()
                 .type(type)
                 .amount(amount)
@@ -617,6 +788,20 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return NBTCodec.readNBTFromBuffer(buffer, serverVersion);
     }
 
+    /**
+     * Reads a compound which is only parsed once it is accessed, if lazy decoding is enabled.
+     * An untouched compound is written back with its original bytes.
+     *
+     * @return the possibly lazily parsed compound
+     * @see #isLazyDecoding()
+     */
+    public NBTCompound readLazyNBT() {
+        if (!this.isLazyDecoding()) {
+            return this.readNBT();
+        }
+        return (NBTCompound) NBTCodec.readLazyNBTFromBuffer(buffer, serverVersion);
+    }
+
     public NBTCompound readUnlimitedNBT() {
         return (NBTCompound) this.readUnlimitedNBTRaw();
     }
@@ -645,8 +830,10 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         } else if (j < 0) {
             throw new RuntimeException("The received encoded string buffer length is less than zero! Weird string!");
         } else {
-            String s = ByteBufHelper.toString(buffer, ByteBufHelper.readerIndex(buffer), j, StandardCharsets.UTF_8);
-            ByteBufHelper.readerIndex(buffer, ByteBufHelper.readerIndex(buffer) + j);
+            ByteBufOperator operator = getByteBufOperator();
+            int readerIndex = operator.readerIndex(buffer);
+            String s = operator.toString(buffer, readerIndex, j, StandardCharsets.UTF_8);
+            operator.readerIndex(buffer, readerIndex + j);
             if (s.length() > maxLen) {
                 throw new RuntimeException("The received string length is longer than maximum allowed (" + j + " > " + maxLen + ")");
             } else {
@@ -678,7 +865,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
             throw new IllegalStateException("String too big (was " + bytes.length + " bytes encoded, max " + maxLen + ")");
         } else {
             writeVarInt(bytes.length);
-            ByteBufHelper.writeBytes(buffer, bytes);
+            getByteBufOperator().writeBytes(buffer, bytes);
         }
     }
 
@@ -694,7 +881,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public Component readComponentAsNBT() {
-        return AdventureSerializer.fromNbt(readNBTRaw());
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_20_2)) {
+            // named root tags are not supported by the streaming codec
+            return AdventureSerializer.fromNbt(readNBTRaw());
+        }
+        try {
+            ByteBufNBTSerializer.Reader reader = ByteBufNBTSerializer.INSTANCE.reader(buffer, NBTLimiter.forBuffer(buffer));
+            return AdventureSerializer.getNBTSerializer().deserialize(reader, reader.readType());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public Component readComponentAsJSON() {
@@ -703,6 +899,30 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public void writeComponent(Component component) {
+        ComponentCache cache = AdventureSerializer.getComponentCache();
+        if (!cache.isEnabled()) {
+            this.writeComponentUncached(component);
+            return;
+        }
+        ByteBufOperator operator = this.getByteBufOperator();
+        byte[] encoded = cache.get(component, this.serverVersion);
+        if (encoded != null) {
+            operator.writeBytes(buffer, encoded);
+            return;
+        }
+        if (!cache.markWritten(component, this.serverVersion)) {
+            // only copy the encoding of component instances which are actually reused
+            this.writeComponentUncached(component);
+            return;
+        }
+        int start = operator.writerIndex(buffer);
+        this.writeComponentUncached(component);
+        encoded = new byte[operator.writerIndex(buffer) - start];
+        operator.getBytes(buffer, start, encoded);
+        cache.put(component, this.serverVersion, encoded);
+    }
+
+    private void writeComponentUncached(Component component) {
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_20_3)) {
             this.writeComponentAsNBT(component);
         } else {
@@ -711,7 +931,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public void writeComponentAsNBT(Component component) {
-        writeNBTRaw(AdventureSerializer.toNbt(component));
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_20_2)) {
+            writeNBTRaw(AdventureSerializer.toNbt(component));
+            return;
+        }
+        try {
+            AdventureSerializer.getNBTSerializer().serialize(component, ByteBufNBTSerializer.INSTANCE.writer(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public void writeComponentAsJSON(Component component) {
@@ -724,7 +952,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public void writeStyle(Style style) {
-        writeNBT(AdventureSerializer.getNBTSerializer().serializeStyle(style));
+        if (this.serverVersion.isOlderThan(ServerVersion.V_1_20_2)) {
+            writeNBT(AdventureSerializer.getNBTSerializer().serializeStyle(style));
+            return;
+        }
+        try {
+            AdventureSerializer.getNBTSerializer().serializeStyle(style, ByteBufNBTSerializer.INSTANCE.writer(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public ResourceLocation readIdentifier(int maxLen) {
@@ -744,15 +980,15 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readUnsignedShort() {
-        return ByteBufHelper.readUnsignedShort(buffer);
+        return getByteBufOperator().readUnsignedShort(buffer);
     }
 
     public short readShort() {
-        return ByteBufHelper.readShort(buffer);
+        return getByteBufOperator().readShort(buffer);
     }
 
     public void writeShort(int value) {
-        ByteBufHelper.writeShort(buffer, value);
+        getByteBufOperator().writeShort(buffer, value);
     }
 
     public int readVarShort() {
@@ -778,11 +1014,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long readLong() {
-        return ByteBufHelper.readLong(buffer);
+        return getByteBufOperator().readLong(buffer);
     }
 
     public void writeLong(long value) {
-        ByteBufHelper.writeLong(buffer, value);
+        getByteBufOperator().writeLong(buffer, value);
     }
 
     public long readVarLong() {
@@ -805,33 +1041,33 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public float readFloat() {
-        return ByteBufHelper.readFloat(buffer);
+        return getByteBufOperator().readFloat(buffer);
     }
 
     public void writeFloat(float value) {
-        ByteBufHelper.writeFloat(buffer, value);
+        getByteBufOperator().writeFloat(buffer, value);
     }
 
     public double readDouble() {
-        return ByteBufHelper.readDouble(buffer);
+        return getByteBufOperator().readDouble(buffer);
     }
 
     public void writeDouble(double value) {
-        ByteBufHelper.writeDouble(buffer, value);
+        getByteBufOperator().writeDouble(buffer, value);
     }
 
     public byte[] readRemainingBytes() {
-        return readBytes(ByteBufHelper.readableBytes(buffer));
+        return readBytes(getByteBufOperator().readableBytes(buffer));
     }
 
     public byte[] readBytes(int size) {
         byte[] bytes = new byte[size];
-        ByteBufHelper.readBytes(buffer, bytes);
+        getByteBufOperator().readBytes(buffer, bytes);
         return bytes;
     }
 
     public void writeBytes(byte[] array) {
-        ByteBufHelper.writeBytes(buffer, array);
+        getByteBufOperator().writeBytes(buffer, array);
     }
 
     public byte[] readByteArray(int maxLength) {
@@ -843,7 +1079,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public byte[] readByteArray() {
-        return readByteArray(ByteBufHelper.readableBytes(buffer));
+        return readByteArray(getByteBufOperator().readableBytes(buffer));
     }
 
     public void writeByteArray(byte[] array) {
@@ -852,7 +1088,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int[] readVarIntArray() {
-        int readableBytes = ByteBufHelper.readableBytes(buffer);
+        int readableBytes = getByteBufOperator().readableBytes(buffer);
         int size = readVarInt();
         if (size > readableBytes) {
             throw new IllegalStateException("VarIntArray with size " + size + " is bigger than allowed " + readableBytes);
@@ -883,12 +1119,12 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public byte[] readByteArrayOfSize(int size) {
         byte[] array = new byte[size];
-        ByteBufHelper.readBytes(buffer, array);
+        getByteBufOperator().readBytes(buffer, array);
         return array;
     }
 
     public void writeByteArrayOfSize(byte[] array) {
-        ByteBufHelper.writeBytes(buffer, array);
+        getByteBufOperator().writeBytes(buffer, array);
     }
 
     public int[] readVarIntArrayOfSize(int size) {
@@ -906,7 +1142,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public long[] readLongArray() {
-        int readableBytes = ByteBufHelper.readableBytes(buffer) / 8;
+        int readableBytes = getByteBufOperator().readableBytes(buffer) / 8;
         int size = readVarInt();
         if (size > readableBytes) {
             throw new IllegalStateException("LongArray with size " + size + " is bigger than allowed " + readableBytes);
@@ -1381,7 +1617,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     public <T extends Enum<T>> EnumSet<T> readEnumSet(Class<T> enumClazz) {
         T[] values = enumClazz.getEnumConstants();
         byte[] bytes = new byte[-Math.floorDiv(-values.length, 8)];
-        ByteBufHelper.readBytes(getBuffer(), bytes);
+        getByteBufOperator().readBytes(buffer, bytes);
         BitSet bitSet = BitSet.valueOf(bytes);
         EnumSet<T> set = EnumSet.noneOf(enumClazz);
         for (int i = 0; i < values.length; i++) {
@@ -1522,7 +1758,13 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     public <Z extends MappedEntity> Z readMappedEntity(IRegistry<Z> registry) {
         IRegistry<Z> replacedRegistry = this.getRegistryHolder().getRegistryOr(registry);
-        return this.readMappedEntity((BiFunction<ClientVersion, Integer, Z>) replacedRegistry);
+        // look up the id directly instead of boxing it for the function
+        int id = this.readVarInt();
+        Z entity = replacedRegistry.getById(this.serverVersion.toClientVersion(), id);
+        if (entity == null) {
+            throw new IllegalStateException("Can't find mapped entity with id " + id + " using " + replacedRegistry);
+        }
+        return entity;
     }
 
     public <Z extends MappedEntity> Z readMappedEntityOrDirect(IRegistry<Z> registry, Reader<Z> directReader) {
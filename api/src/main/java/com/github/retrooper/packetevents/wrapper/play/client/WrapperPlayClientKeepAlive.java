@@ -40,6 +40,11 @@ public class WrapperPlayClientKeepAlive extends PacketWrapper<WrapperPlayClientK
         this.id = id;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_12_2)) {
@@ -19,6 +19,7 @@
 package com.github.retrooper.packetevents.wrapper.play.client;
 
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
@@ -35,10 +36,7 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
 
     public WrapperPlayClientPlayerFlying(PacketReceiveEvent event) {
         super(event, false);
-        positionChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION ||
-                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
-        rotationChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_ROTATION ||
-                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+        onReuse(event);
         readEvent(event);
     }
 
@@ -64,6 +62,19 @@ public class WrapperPlayClientPlayerFlying extends PacketWrapper<WrapperPlayClie
                 || type == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
+    @Override
+    protected void onReuse(ProtocolPacketEvent event) {
+        positionChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION ||
+                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+        rotationChanged = event.getPacketType() == PacketType.Play.Client.PLAYER_ROTATION ||
+                event.getPacketType() == PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION;
+    }
+
     @Override
     public void read() {
         Vector3d position = new Vector3d();
@@ -42,6 +42,11 @@ public class WrapperPlayClientPong extends PacketWrapper<WrapperPlayClientPong>
         this.id = id;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         this.id = readInt();
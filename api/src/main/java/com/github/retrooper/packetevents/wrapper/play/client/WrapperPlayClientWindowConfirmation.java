@@ -53,6 +53,11 @@ public class WrapperPlayClientWindowConfirmation extends PacketWrapper<WrapperPl
         this.accepted = accepted;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         windowId = readUnsignedByte();
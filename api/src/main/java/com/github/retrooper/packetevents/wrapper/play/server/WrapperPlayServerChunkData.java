@@ -20,8 +20,10 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -41,9 +43,10 @@ import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkR
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_8;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_9;
 import com.github.retrooper.packetevents.protocol.world.dimension.DimensionTypes;
+import com.github.retrooper.packetevents.wrapper.LazyValue;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.BitSet;
@@ -62,6 +65,10 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
     // 1.18 only (lighting) - for writing data
     private LightData lightData;
     private boolean ignoreOldData;
+    // Everything after the chunk coordinates, if decoded lazily
+    private @Nullable LazyValue<Column> lazyColumn;
+    private int chunkX;
+    private int chunkZ;
 
     public WrapperPlayServerChunkData(PacketSendEvent event) {
         super(event);
@@ -86,7 +93,19 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
     public void read() {
         int chunkX = readInt();
         int chunkZ = readInt();
+        if (isLazyDecoding()) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.lazyColumn = readRemainingLazily(wrapper -> {
+                readColumn(chunkX, chunkZ);
+                return column;
+            });
+        } else {
+            readColumn(chunkX, chunkZ);
+        }
+    }
 
+    private void readColumn(int chunkX, int chunkZ) {
         // All chunks are full chunks in 1.17 and above to avoid issues with arbitrary world height
         boolean checkFullChunk = serverVersion.isOlderThan(ServerVersion.V_1_17);
         // Don't read a boolean if there isn't a boolean to be read
@@ -145,8 +164,23 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
-        byte[] data = readByteArray();
-        data = deflate(data, chunkMask, fullChunk);
+        byte[] data;
+        NetStreamInput dataIn;
+        byte[] lazySections = null;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18) && isLazyDecoding()) {
+            // Only copy the sections out of the packet, they are indexed and decoded by the column once accessed
+            data = null;
+            dataIn = null;
+            lazySections = readBytes(readVarInt());
+        } else if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            // Decode the sections straight from the packet buffer, without copying them into an array first
+            data = null;
+            dataIn = new ByteBufNetStreamInput(ByteBufHelper.readSlice(buffer, readVarInt()));
+        } else {
+            // 1.7/1.8 don't use this NetStreamInput
+            data = deflate(readByteArray(), chunkMask, fullChunk);
+            dataIn = null;
+        }
 
         boolean hasBlocklight = (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThan(ServerVersion.V_1_14))
                 && !serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8);
@@ -155,9 +189,7 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 || this.user != null && this.user.getDimensionType().equals(DimensionTypes.OVERWORLD)
                 && this.serverVersion.isOlderThan(ServerVersion.V_1_14);
 
-        // 1.7/1.8 don't use this NetStreamInput
-        NetStreamInput dataIn = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? new NetStreamInput(new ByteArrayInputStream(data)) : null;
-        BaseChunk[] chunks = getChunkReader().read(this.user.getDimensionType(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
+        BaseChunk[] chunks = lazySections != null ? null : getChunkReader().read(this.user.getDimensionType(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
 
         if (hasBiomeData && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
             if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) { // Uses ints
@@ -186,11 +218,11 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
             for (int i = 0; i < tileEntities.length; i++) {
-                tileEntities[i] = new TileEntity(readByte(), readShort(), readVarInt(), readNBT());
+                tileEntities[i] = new TileEntity(readByte(), readShort(), readVarInt(), readLazyNBT());
             }
         } else {
             for (int i = 0; i < tileEntities.length; i++) {
-                tileEntities[i] = new TileEntity(readNBT());
+                tileEntities[i] = new TileEntity(readLazyNBT());
             }
         }
 
@@ -213,7 +245,9 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
                 }
             }
         } else {
-            if (hasHeightMaps) {
+            if (lazySections != null) {
+                column = new Column(chunkX, chunkZ, fullChunk, lazySections, chunkSize, tileEntities, heightMaps);
+            } else if (hasHeightMaps) {
                 column = new Column(chunkX, chunkZ, fullChunk, chunks, tileEntities, heightMaps);
             } else {
                 column = new Column(chunkX, chunkZ, fullChunk, chunks, tileEntities);
@@ -257,6 +291,12 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void write() {
+        if (lazyColumn != null) {
+            writeInt(chunkX);
+            writeInt(chunkZ);
+            lazyColumn.writeRaw(this);
+            return;
+        }
         writeInt(column.getX());
         writeInt(column.getZ());
 
@@ -285,25 +325,30 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         NetStreamOutput dataOut = new NetStreamOutput(dataBytes);
 
         BitSet chunkMask = new BitSet();
-        BaseChunk[] chunks = column.getChunks();
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+        if (v1_18) {
+            for (int index = 0; index < column.getChunkCount(); index++) {
+                // Sections of a lazy column which were never accessed are copied back unchanged
+                if (!column.writeRawChunk(dataOut, index)) {
+                    Chunk_v1_18.write(dataOut, (Chunk_v1_18) column.getChunk(index));
+                }
+            }
+        } else if (v1_9) {
+            BaseChunk[] chunks = column.getChunks();
             for (int index = 0; index < chunks.length; index++) {
                 BaseChunk chunk = chunks[index];
-                if (v1_18) {
-                    Chunk_v1_18.write(dataOut, (Chunk_v1_18) chunk);
-                } else if (v1_9 && chunk != null) {
+                if (chunk != null) {
                     chunkMask.set(index);
                     Chunk_v1_9.write(dataOut, (Chunk_v1_9) chunk);
                 }
             }
         } else if (v1_8) {
-            NetworkChunkData data = ChunkReader_v1_8.chunksToData((Chunk_v1_8[]) chunks, column.getBiomeDataBytes());
+            NetworkChunkData data = ChunkReader_v1_8.chunksToData((Chunk_v1_8[]) column.getChunks(), column.getBiomeDataBytes());
             writeShort(data.getMask());
             writeByteArray(data.getData());
             return;
         } else {
-            NetworkChunkData data = ChunkReader_v1_7.chunksToData((Chunk_v1_7[]) chunks, column.getBiomeDataBytes());
+            NetworkChunkData data = ChunkReader_v1_7.chunksToData((Chunk_v1_7[]) column.getChunks(), column.getBiomeDataBytes());
             Deflater deflater = new Deflater(-1);
 
             byte deflated[] = new byte[data.getData().length];
@@ -402,38 +447,72 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         }
     }
 
+    @Override
+    protected boolean writeInPlace() {
+        // The column is unchanged as long as it wasn't decoded
+        if (lazyColumn == null) {
+            return false;
+        }
+        writeInt(chunkX);
+        writeInt(chunkZ);
+        return true;
+    }
+
     @Override
     public void copy(WrapperPlayServerChunkData wrapper) {
+        wrapper.decodeLazyColumn();
         this.column = wrapper.column;
         this.lightData = wrapper.lightData != null
                 ? wrapper.lightData.clone() : null;
         this.ignoreOldData = wrapper.ignoreOldData;
     }
 
+    public int getChunkX() {
+        return lazyColumn != null ? chunkX : column.getX();
+    }
+
+    public int getChunkZ() {
+        return lazyColumn != null ? chunkZ : column.getZ();
+    }
+
     public Column getColumn() {
+        decodeLazyColumn();
         return column;
     }
 
     public void setColumn(Column column) {
+        decodeLazyColumn();
         this.column = column;
     }
 
     public LightData getLightData() {
+        decodeLazyColumn();
         return lightData;
     }
 
     public void setLightData(LightData lightData) {
+        decodeLazyColumn();
         this.lightData = lightData;
     }
 
     public boolean isIgnoreOldData() {
+        decodeLazyColumn();
         return ignoreOldData;
     }
 
     public void setIgnoreOldData(boolean ignoreOldData) {
+        decodeLazyColumn();
         this.ignoreOldData = ignoreOldData;
     }
 
+    private void decodeLazyColumn() {
+        if (lazyColumn != null) {
+            // Also sets the light data and the ignore old data flag
+            lazyColumn.decode();
+            lazyColumn = null;
+        }
+    }
+
     private ChunkReader getChunkReader() {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return chunkReader_v1_18;
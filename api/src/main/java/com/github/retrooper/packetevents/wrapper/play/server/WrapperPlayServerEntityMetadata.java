@@ -21,16 +21,22 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityMetadataProvider;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.LazyValue;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
 public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlayServerEntityMetadata> {
     private int entityID;
     private List<EntityData> entityMetadata;
+    private @Nullable LazyValue<List<EntityData>> lazyEntityMetadata;
+    // Encoded length of the entity id, to rewrite the packet in place
+    private int entityIdLength;
 
     public WrapperPlayServerEntityMetadata(PacketSendEvent event) {
         super(event);
@@ -48,8 +54,14 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
         entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
-        entityMetadata = readEntityMetadata();
+        entityIdLength = ByteBufHelper.readerIndex(buffer) - readerIndex;
+        if (isLazyDecoding()) {
+            lazyEntityMetadata = readRemainingLazily(PacketWrapper::readEntityMetadata);
+        } else {
+            entityMetadata = readEntityMetadata();
+        }
     }
 
     @Override
@@ -59,13 +71,36 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         } else {
             writeInt(entityID);
         }
-        writeEntityMetadata(entityMetadata);
+        if (lazyEntityMetadata != null) {
+            lazyEntityMetadata.writeRaw(this);
+        } else {
+            writeEntityMetadata(entityMetadata);
+        }
+    }
+
+    @Override
+    protected boolean writeInPlace() {
+        // The metadata is only known to be unchanged if it was never decoded
+        if (lazyEntityMetadata == null) {
+            return false;
+        }
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            if (getVarIntSize(entityID) > entityIdLength) {
+                return false;
+            }
+            writeVarInt(entityID, entityIdLength);
+        } else {
+            writeInt(entityID);
+        }
+        return true;
     }
 
     @Override
     public void copy(WrapperPlayServerEntityMetadata wrapper) {
         entityID = wrapper.entityID;
         entityMetadata = wrapper.entityMetadata;
+        lazyEntityMetadata = wrapper.lazyEntityMetadata;
+        entityIdLength = wrapper.entityIdLength;
     }
 
     public int getEntityId() {
@@ -77,14 +112,20 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     }
 
     public List<EntityData> getEntityMetadata() {
+        if (lazyEntityMetadata != null) {
+            entityMetadata = lazyEntityMetadata.decode();
+            lazyEntityMetadata = null;
+        }
         return entityMetadata;
     }
 
     public void setEntityMetadata(List<EntityData> entityMetadata) {
         this.entityMetadata = entityMetadata;
+        this.lazyEntityMetadata = null;
     }
 
     public void setEntityMetadata(EntityMetadataProvider metadata) {
         this.entityMetadata = metadata.entityData(serverVersion.toClientVersion());
+        this.lazyEntityMetadata = null;
     }
 }
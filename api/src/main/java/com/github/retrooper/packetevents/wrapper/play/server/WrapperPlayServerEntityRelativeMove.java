@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
@@ -33,6 +34,8 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
     private double deltaY;
     private double deltaZ;
     private boolean onGround;
+    // Encoded length of the entity id, to rewrite the packet in place
+    private int entityIdLength;
 
     public WrapperPlayServerEntityRelativeMove(PacketSendEvent event) {
         super(event);
@@ -47,9 +50,16 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
         this.onGround = onGround;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
         entityID = readVarInt();
+        entityIdLength = ByteBufHelper.readerIndex(buffer) - readerIndex;
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             deltaX = readShort() / MODERN_DELTA_DIVISOR;
             deltaY = readShort() / MODERN_DELTA_DIVISOR;
@@ -66,6 +76,20 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
     @Override
     public void write() {
         writeVarInt(entityID);
+        writeMovement();
+    }
+
+    @Override
+    protected boolean writeInPlace() {
+        if (getVarIntSize(entityID) > entityIdLength) {
+            return false;
+        }
+        writeVarInt(entityID, entityIdLength);
+        writeMovement();
+        return true;
+    }
+
+    private void writeMovement() {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
             writeShort((short) (deltaX * MODERN_DELTA_DIVISOR));
             writeShort((short) (deltaY * MODERN_DELTA_DIVISOR));
@@ -86,6 +110,7 @@ public class WrapperPlayServerEntityRelativeMove extends PacketWrapper<WrapperPl
         deltaY = wrapper.deltaY;
         deltaZ = wrapper.deltaZ;
         onGround = wrapper.onGround;
+        entityIdLength = wrapper.entityIdLength;
     }
 
     public int getEntityId() {
@@ -52,6 +52,11 @@ public class WrapperPlayServerEntityRelativeMoveAndRotation extends PacketWrappe
         this.onGround = onGround;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         entityID = readVarInt();
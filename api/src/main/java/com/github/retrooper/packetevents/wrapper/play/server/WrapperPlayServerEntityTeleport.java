@@ -20,6 +20,7 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.entity.EntityPositionData;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.teleport.RelativeFlag;
@@ -47,6 +48,8 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
      */
     private RelativeFlag relativeFlags;
     private boolean onGround;
+    // Encoded length of the entity id, to rewrite the packet in place
+    private int entityIdLength;
 
     public WrapperPlayServerEntityTeleport(PacketSendEvent event) {
         super(event);
@@ -79,12 +82,15 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void read() {
+        int readerIndex = ByteBufHelper.readerIndex(this.buffer);
         if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             this.entityID = this.readVarInt();
+            this.entityIdLength = ByteBufHelper.readerIndex(this.buffer) - readerIndex;
             this.values = EntityPositionData.read(this);
             this.relativeFlags = new RelativeFlag(this.readInt());
         } else {
             this.entityID = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? this.readVarInt() : this.readInt();
+            this.entityIdLength = ByteBufHelper.readerIndex(this.buffer) - readerIndex;
             Vector3d position = this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? Vector3d.read(this) :
                     new Vector3d(this.readInt() / 32d, this.readInt() / 32d, this.readInt() / 32d);
             float yaw = this.readByte() / ROTATION_FACTOR;
@@ -98,16 +104,33 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
 
     @Override
     public void write() {
-        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
             this.writeVarInt(this.entityID);
+        } else {
+            this.writeInt(this.entityID);
+        }
+        this.writePosition();
+    }
+
+    @Override
+    protected boolean writeInPlace() {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
+            if (getVarIntSize(this.entityID) > this.entityIdLength) {
+                return false;
+            }
+            this.writeVarInt(this.entityID, this.entityIdLength);
+        } else {
+            this.writeInt(this.entityID);
+        }
+        this.writePosition();
+        return true;
+    }
+
+    private void writePosition() {
+        if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
             EntityPositionData.write(this, this.values);
             this.writeInt(this.relativeFlags.getFullMask());
         } else {
-            if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8)) {
-                this.writeVarInt(this.entityID);
-            } else {
-                this.writeInt(this.entityID);
-            }
             if (this.serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
                 Vector3d.write(this, this.values.getPosition());
             } else {
@@ -130,6 +153,7 @@ public class WrapperPlayServerEntityTeleport extends PacketWrapper<WrapperPlaySe
         this.values = wrapper.values;
         this.relativeFlags = wrapper.relativeFlags;
         this.onGround = wrapper.onGround;
+        this.entityIdLength = wrapper.entityIdLength;
     }
 
     public int getEntityId() {
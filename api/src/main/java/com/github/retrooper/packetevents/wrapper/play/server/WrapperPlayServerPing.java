@@ -42,6 +42,11 @@ public class WrapperPlayServerPing extends PacketWrapper<WrapperPlayServerPing>
         this.id = id;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         this.id = readInt();
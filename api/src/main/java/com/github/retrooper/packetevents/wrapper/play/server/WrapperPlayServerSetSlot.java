@@ -22,13 +22,16 @@ import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.LazyValue;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.jetbrains.annotations.Nullable;
 
 public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSetSlot> {
     private int windowID;
     private int stateID;
     private int slot;
     private ItemStack item;
+    private @Nullable LazyValue<ItemStack> lazyItem;
 
     public WrapperPlayServerSetSlot(PacketSendEvent event) {
         super(event);
@@ -49,7 +52,11 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
             stateID = readVarInt();
         }
         slot = readShort();
-        item = readItemStack();
+        if (isLazyDecoding()) {
+            lazyItem = readRemainingLazily(PacketWrapper::readItemStack);
+        } else {
+            item = readItemStack();
+        }
     }
 
     @Override
@@ -59,7 +66,11 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
             writeVarInt(stateID);
         }
         writeShort(slot);
-        writeItemStack(item);
+        if (lazyItem != null) {
+            lazyItem.writeRaw(this);
+        } else {
+            writeItemStack(item);
+        }
     }
 
     @Override
@@ -68,6 +79,7 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
         stateID = wrapper.stateID;
         slot = wrapper.slot;
         item = wrapper.item;
+        lazyItem = wrapper.lazyItem;
     }
 
     public int getWindowId() {
@@ -95,10 +107,15 @@ public class WrapperPlayServerSetSlot extends PacketWrapper<WrapperPlayServerSet
     }
 
     public ItemStack getItem() {
+        if (lazyItem != null) {
+            item = lazyItem.decode();
+            lazyItem = null;
+        }
         return item;
     }
 
     public void setItem(ItemStack item) {
         this.item = item;
+        this.lazyItem = null;
     }
 }
@@ -40,7 +40,7 @@ public class WrapperPlayServerUpdateEntityNBT extends PacketWrapper<WrapperPlayS
     @Override
     public void read() {
         this.entityId = readVarInt();
-        this.nbtCompound = readNBT();
+        this.nbtCompound = readLazyNBT();
     }
 
     @Override
@@ -61,6 +61,11 @@ public class WrapperPlayServerWindowConfirmation extends PacketWrapper<WrapperPl
         this.accepted = accepted;
     }
 
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
     @Override
     public void read() {
         this.windowId = readUnsignedByte();
@@ -0,0 +1,80 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.adventure.AdventureNBTSerializer;
+import com.github.retrooper.packetevents.util.adventure.AdventureSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdventureNBTStreamTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test streamed components match the tree based serializer")
+    public void testStreamParity() throws IOException {
+        AdventureNBTSerializer serializer = AdventureSerializer.getNBTSerializer();
+        Component component = Component.text()
+                .content("Hello ")
+                .color(TextColor.color(0x12AB34))
+                .decorate(TextDecoration.BOLD)
+                .clickEvent(ClickEvent.runCommand("/spawn"))
+                .hoverEvent(HoverEvent.showText(Component.text("hover", NamedTextColor.RED)))
+                .append(Component.translatable("chat.type.text", Component.text("player"), Component.text("message")))
+                .append(Component.selector("@a", Component.text(", ")))
+                .append(Component.text("plain"))
+                .build();
+
+        for (Component value : new Component[]{component, Component.text("plain")}) {
+            ByteBuf expected = Unpooled.buffer();
+            ByteBufNBTSerializer.INSTANCE.serializeTag(expected, serializer.serialize(value), false);
+            ByteBuf actual = Unpooled.buffer();
+            serializer.serialize(value, ByteBufNBTSerializer.INSTANCE.writer(actual));
+            assertArrayEquals(ByteBufUtil.getBytes(expected), ByteBufUtil.getBytes(actual));
+
+            ByteBufNBTSerializer.Reader reader = ByteBufNBTSerializer.INSTANCE.reader(actual, NBTLimiter.forBuffer(actual));
+            assertEquals(value, serializer.deserialize(reader, reader.readType()));
+            assertEquals(0, actual.readableBytes());
+        }
+
+        Style style = Style.style(NamedTextColor.GOLD, TextDecoration.ITALIC);
+        ByteBuf expected = Unpooled.buffer();
+        ByteBufNBTSerializer.INSTANCE.serializeTag(expected, serializer.serializeStyle(style), false);
+        ByteBuf actual = Unpooled.buffer();
+        serializer.serializeStyle(style, ByteBufNBTSerializer.INSTANCE.writer(actual));
+        assertArrayEquals(ByteBufUtil.getBytes(expected), ByteBufUtil.getBytes(actual));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.ExecutionMode;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.event.UserDisconnectEvent;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncEventDispatcherTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test ordered asynchronous dispatch with a bounded queue")
+    public void testAsyncDispatch() {
+        List<Runnable> tasks = new ArrayList<>();
+        PacketEvents.getAPI().getSettings().asyncListenerExecutor(tasks::add).asyncListenerQueueSize(2);
+        try {
+            EventManager eventManager = new EventManager();
+            List<UserDisconnectEvent> received = new ArrayList<>();
+            eventManager.registerListener(new PacketListenerAbstract(PacketListenerPriority.NORMAL, ExecutionMode.ASYNC) {
+                @Override
+                public void onUserDisconnect(UserDisconnectEvent event) {
+                    received.add(event);
+                }
+            });
+
+            User user = new User(null, ConnectionState.PLAY, ClientVersion.getLatest(),
+                    new UserProfile(UUID.randomUUID(), "test"));
+            UserDisconnectEvent first = new UserDisconnectEvent(user);
+            UserDisconnectEvent second = new UserDisconnectEvent(user);
+            eventManager.callEvent(first);
+            eventManager.callEvent(second);
+            // exceeds the queue size of the user
+            eventManager.callEvent(new UserDisconnectEvent(user));
+
+            assertTrue(received.isEmpty());
+            assertEquals(1, tasks.size());
+            assertEquals(2, eventManager.getAsyncDispatcher().getPendingEvents(user));
+
+            tasks.remove(0).run();
+            assertEquals(Arrays.asList(first, second), received);
+            assertEquals(0, eventManager.getAsyncDispatcher().getPendingEvents());
+            assertEquals(2, eventManager.getAsyncDispatcher().getDispatchedEvents());
+            assertEquals(1, eventManager.getAsyncDispatcher().getDroppedEvents());
+        } finally {
+            PacketEvents.getAPI().getSettings().asyncListenerExecutor(null).asyncListenerQueueSize(4096);
+        }
+    }
+
+    @Test
+    @DisplayName("Test asynchronous packet listeners read a copy of the packet")
+    public void testPacketCopy() throws Exception {
+        List<Runnable> tasks = new ArrayList<>();
+        PacketEvents.getAPI().getSettings().asyncListenerExecutor(tasks::add);
+        try {
+            EventManager eventManager = new EventManager();
+            List<Long> received = new ArrayList<>();
+            eventManager.registerListener(new PacketListenerAbstract(PacketListenerPriority.NORMAL, ExecutionMode.ASYNC) {
+                @Override
+                public void onPacketSend(PacketSendEvent event) {
+                    received.add(new WrapperPlayServerKeepAlive(event).getId());
+                }
+            });
+
+            User user = new User(null, ConnectionState.PLAY, ClientVersion.getLatest(),
+                    new UserProfile(UUID.randomUUID(), "test"));
+            ByteBuf buffer = keepAlive(user, 1L);
+            PacketSendEvent event = EventCreationUtil.createSendEvent(null, user, null, buffer, true);
+            eventManager.callEvent(event);
+
+            // the pipeline rewrites and releases the original buffer before the listener runs
+            ByteBuf rewritten = keepAlive(user, 2L);
+            buffer.clear().writeBytes(rewritten);
+            rewritten.release();
+            buffer.release();
+            assertEquals(1, tasks.size());
+            tasks.remove(0).run();
+
+            assertEquals(Arrays.asList(1L), received);
+            assertEquals(0, eventManager.getAsyncDispatcher().getPendingEvents());
+        } finally {
+            PacketEvents.getAPI().getSettings().asyncListenerExecutor(null);
+        }
+    }
+
+    @Test
+    @DisplayName("Test events arriving after a disconnect are dropped")
+    public void testEventsAfterDisconnect() {
+        List<Runnable> tasks = new ArrayList<>();
+        PacketEvents.getAPI().getSettings().asyncListenerExecutor(tasks::add);
+        try {
+            EventManager eventManager = new EventManager();
+            List<UserDisconnectEvent> received = new ArrayList<>();
+            eventManager.registerListener(new PacketListenerAbstract(PacketListenerPriority.NORMAL, ExecutionMode.ASYNC) {
+                @Override
+                public void onUserDisconnect(UserDisconnectEvent event) {
+                    received.add(event);
+                }
+            });
+
+            EmbeddedChannel channel = new EmbeddedChannel();
+            User user = new User(channel, ConnectionState.PLAY, ClientVersion.getLatest(),
+                    new UserProfile(UUID.randomUUID(), "test"));
+            UserDisconnectEvent disconnect = new UserDisconnectEvent(user);
+            eventManager.callEvent(disconnect);
+            eventManager.getAsyncDispatcher().removeUser(user);
+            channel.close();
+
+            // still draining the closed queue
+            eventManager.callEvent(new UserDisconnectEvent(user));
+            assertEquals(1, eventManager.getAsyncDispatcher().getDroppedEvents());
+            assertEquals(1, tasks.size());
+            tasks.remove(0).run();
+            assertEquals(Arrays.asList(disconnect), received);
+
+            // the drained queue was removed and isn't created again
+            eventManager.callEvent(new UserDisconnectEvent(user));
+            assertTrue(tasks.isEmpty());
+            assertEquals(2, eventManager.getAsyncDispatcher().getDroppedEvents());
+            assertEquals(0, eventManager.getAsyncDispatcher().getPendingEvents(user));
+            assertEquals(Arrays.asList(disconnect), received);
+        } finally {
+            PacketEvents.getAPI().getSettings().asyncListenerExecutor(null);
+        }
+    }
+
+    private static ByteBuf keepAlive(User user, long id) {
+        ByteBuf buffer = Unpooled.buffer();
+        PacketWrapper<?> wrapper = new WrapperPlayServerKeepAlive(id);
+        wrapper.setBuffer(buffer);
+        wrapper.writeVarInt(PacketType.Play.Server.KEEP_ALIVE.getId(user.getClientVersion()));
+        wrapper.write();
+        return buffer;
+    }
+}
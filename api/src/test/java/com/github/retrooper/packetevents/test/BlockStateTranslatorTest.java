@@ -0,0 +1,116 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.BlockFace;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.states.BlockStateTranslator;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.enums.Axis;
+import com.github.retrooper.packetevents.protocol.world.states.enums.Half;
+import com.github.retrooper.packetevents.protocol.world.states.enums.Shape;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateType;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockStateTranslatorTest extends BaseDummyAPITest {
+
+    private static final ClientVersion FROM = ClientVersion.V_1_13;
+    private static final ClientVersion TO = ClientVersion.getLatest();
+
+    @Test
+    @DisplayName("Test translating single ids between versions")
+    public void testTranslateId() {
+        assertNull(BlockStateTranslator.getRemapTable(TO, TO));
+        for (StateType type : new StateType[]{StateTypes.STONE, StateTypes.OAK_STAIRS, StateTypes.REDSTONE_WIRE}) {
+            int fromId = WrappedBlockState.getDefaultState(FROM, type).getGlobalId();
+            int toId = WrappedBlockState.getDefaultState(TO, type).getGlobalId();
+            assertEquals(toId, BlockStateTranslator.translate(FROM, TO, fromId));
+            assertEquals(fromId, BlockStateTranslator.translate(TO, FROM, toId));
+        }
+        assertEquals(0, BlockStateTranslator.translate(FROM, TO, Integer.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Test translating non-default states keeps their properties")
+    public void testTranslateProperties() {
+        WrappedBlockState stairs = WrappedBlockState.getDefaultState(FROM, StateTypes.OAK_STAIRS);
+        stairs.setFacing(BlockFace.EAST);
+        stairs.setHalf(Half.TOP);
+        stairs.setShape(Shape.OUTER_LEFT);
+        stairs.setWaterlogged(true);
+        WrappedBlockState translatedStairs = translate(stairs);
+        assertEquals(BlockFace.EAST, translatedStairs.getFacing());
+        assertEquals(Half.TOP, translatedStairs.getHalf());
+        assertEquals(Shape.OUTER_LEFT, translatedStairs.getShape());
+        assertTrue(translatedStairs.isWaterlogged());
+
+        WrappedBlockState log = WrappedBlockState.getDefaultState(FROM, StateTypes.OAK_LOG);
+        log.setAxis(Axis.X);
+        assertEquals(Axis.X, translate(log).getAxis());
+
+        WrappedBlockState wire = WrappedBlockState.getDefaultState(FROM, StateTypes.REDSTONE_WIRE);
+        wire.setPower(7);
+        assertEquals(7, translate(wire).getPower());
+    }
+
+    private static WrappedBlockState translate(WrappedBlockState state) {
+        // non-default states would resolve to the default state if the id lookup was wrong
+        int fromId = state.getGlobalId();
+        assertNotEquals(WrappedBlockState.getDefaultState(FROM, state.getType()).getGlobalId(), fromId);
+        int toId = BlockStateTranslator.translate(FROM, TO, fromId);
+        WrappedBlockState translated = WrappedBlockState.getByGlobalId(TO, toId);
+        assertEquals(state.getType(), translated.getType());
+        assertNotEquals(WrappedBlockState.getDefaultState(TO, state.getType()).getGlobalId(), toId);
+        assertEquals(fromId, BlockStateTranslator.translate(TO, FROM, toId));
+        return translated;
+    }
+
+    @Test
+    @DisplayName("Test translating a chunk palette between versions")
+    public void testTranslatePalette() {
+        int stone = WrappedBlockState.getDefaultState(FROM, StateTypes.STONE).getGlobalId();
+        int stairs = WrappedBlockState.getDefaultState(FROM, StateTypes.OAK_STAIRS).getGlobalId();
+        DataPalette palette = DataPalette.createForChunk();
+        palette.set(0, 0, 0, 0);
+        palette.set(1, 0, 0, stone);
+        palette.set(2, 0, 0, stairs);
+        WrappedBlockState rotated = WrappedBlockState.getDefaultState(FROM, StateTypes.OAK_STAIRS);
+        rotated.setFacing(BlockFace.WEST);
+        rotated.setWaterlogged(true);
+        palette.set(3, 0, 0, rotated.getGlobalId());
+        BlockStateTranslator.translate(FROM, TO, palette);
+
+        assertEquals(0, palette.get(0, 0, 0));
+        assertEquals(WrappedBlockState.getDefaultState(TO, StateTypes.STONE).getGlobalId(), palette.get(1, 0, 0));
+        assertEquals(WrappedBlockState.getDefaultState(TO, StateTypes.OAK_STAIRS).getGlobalId(), palette.get(2, 0, 0));
+        WrappedBlockState translated = WrappedBlockState.getByGlobalId(TO, palette.get(3, 0, 0));
+        assertEquals(StateTypes.OAK_STAIRS, translated.getType());
+        assertEquals(BlockFace.WEST, translated.getFacing());
+        assertTrue(translated.isWaterlogged());
+    }
+}
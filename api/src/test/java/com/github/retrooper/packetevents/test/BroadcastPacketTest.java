@@ -0,0 +1,122 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BroadcastPacketTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test broadcasting encodes once per client version on proxies")
+    public void testProxyBroadcast() {
+        RecordingProtocolManager manager = new RecordingProtocolManager();
+        User modern = user(ClientVersion.V_1_20_3);
+        User otherModern = user(ClientVersion.V_1_20_3);
+        User legacy = user(ClientVersion.V_1_8);
+        User handshaking = user(null);
+
+        manager.broadcastPacket(Arrays.asList(modern, handshaking, otherModern, legacy),
+                new WrapperPlayServerKeepAlive(1L), false, true);
+
+        assertEquals(2, manager.encoded.size());
+        assertEquals(Arrays.asList(modern.getChannel(), otherModern.getChannel(), legacy.getChannel()), manager.channels);
+        manager.assertReleased();
+    }
+
+    @Test
+    @DisplayName("Test broadcasting encodes once on backend servers")
+    public void testServerBroadcast() {
+        RecordingProtocolManager manager = new RecordingProtocolManager();
+        User first = user(ClientVersion.V_1_20_3);
+        User second = user(null);
+        User closed = user(ClientVersion.V_1_20_3);
+        ((EmbeddedChannel) closed.getChannel()).close();
+
+        manager.broadcastPacket(Arrays.asList(first, closed, second),
+                new WrapperPlayServerKeepAlive(1L), true, false);
+
+        assertEquals(1, manager.encoded.size());
+        assertEquals(Arrays.asList(first.getChannel(), second.getChannel()), manager.channels);
+        manager.assertReleased();
+    }
+
+    private static User user(ClientVersion version) {
+        return new User(new EmbeddedChannel(), ConnectionState.PLAY, version,
+                new UserProfile(UUID.randomUUID(), "test"));
+    }
+
+    private static final class RecordingProtocolManager extends ProtocolManagerAbstract {
+
+        private final List<ByteBuf> encoded = new ArrayList<>();
+        private final List<Object> channels = new ArrayList<>();
+
+        @Override
+        public ProtocolVersion getPlatformVersion() {
+            return ProtocolVersion.UNKNOWN;
+        }
+
+        @Override
+        public Object[] transformWrappers(PacketWrapper<?> wrapper, Object channel, boolean outgoing) {
+            ByteBuf buffer = Unpooled.buffer().writeByte(this.encoded.size());
+            this.encoded.add(buffer);
+            return new Object[]{buffer};
+        }
+
+        @Override
+        public void sendPacket(Object channel, Object byteBuf) {
+            this.record(channel, (ByteBuf) byteBuf);
+        }
+
+        @Override
+        public void sendPacketSilently(Object channel, Object byteBuf) {
+            this.record(channel, (ByteBuf) byteBuf);
+        }
+
+        private void record(Object channel, ByteBuf buffer) {
+            this.channels.add(channel);
+            buffer.release();
+        }
+
+        private void assertReleased() {
+            for (ByteBuf buffer : this.encoded) {
+                assertEquals(0, buffer.refCnt());
+            }
+        }
+    }
+}
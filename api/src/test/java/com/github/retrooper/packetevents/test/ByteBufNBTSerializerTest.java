@@ -0,0 +1,85 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByteArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTDouble;
+import com.github.retrooper.packetevents.protocol.nbt.NBTIntArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ByteBufNBTSerializerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test parity with the stream based serializer")
+    public void testSerializerParity() throws IOException {
+        NBTCompound display = new NBTCompound();
+        display.setTag("Name", new NBTString("{\"text\":\"Sword é世\u0000\"}"));
+        NBTList<NBTString> lore = new NBTList<>(NBTType.STRING);
+        lore.addTag(new NBTString("first"));
+        lore.addTag(new NBTString(""));
+        display.setTag("Lore", lore);
+        NBTCompound tag = new NBTCompound();
+        tag.setTag("display", display);
+        tag.setTag("Damage", new NBTShort((short) 12));
+        tag.setTag("Unbreakable", new NBTByte(true));
+        tag.setTag("custom_key_ü", new NBTDouble(0.5D));
+        tag.setTag("bytes", new NBTByteArray(new byte[]{1, -2, 3}));
+        tag.setTag("ints", new NBTIntArray(new int[]{Integer.MIN_VALUE, 0, 7}));
+        tag.setTag("longs", new NBTLongArray(new long[]{Long.MAX_VALUE, -1L}));
+        tag.setTag("empty", new NBTList<>(NBTType.END));
+
+        for (boolean named : new boolean[]{true, false}) {
+            ByteBuf expected = Unpooled.buffer();
+            DefaultNBTSerializer.INSTANCE.serializeTag(new ByteBufOutputStream(expected), tag, named);
+            ByteBuf actual = Unpooled.buffer();
+            ByteBufNBTSerializer.INSTANCE.serializeTag(actual, tag, named);
+            assertArrayEquals(ByteBufUtil.getBytes(expected), ByteBufUtil.getBytes(actual));
+
+            NBT read = ByteBufNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.forBuffer(actual), actual, named);
+            assertEquals(tag, read);
+            assertEquals(0, actual.readableBytes());
+            assertEquals(DefaultNBTSerializer.INSTANCE.deserializeTag(NBTLimiter.noop(), new ByteBufInputStream(expected), named), read);
+            expected.release();
+            actual.release();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ByteBufNetStreamInputTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test reading from a buffer like from a stream")
+    public void testReadParity() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NetStreamOutput out = new NetStreamOutput(bytes);
+        out.writeByte(14);
+        out.writeShort(-4096);
+        out.writeVarInt(300);
+        out.writeVarInt(-1);
+        long[] longs = new long[37];
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = 0x0123456789ABCDEFL * (i + 1);
+        }
+        out.writeVarInt(longs.length);
+        out.writeLongs(longs);
+        out.writeInt(42);
+        byte[] data = bytes.toByteArray();
+
+        NetStreamInput expected = new NetStreamInput(new ByteArrayInputStream(data));
+        ByteBuf buffer = Unpooled.wrappedBuffer(data);
+        NetStreamInput actual = new ByteBufNetStreamInput(buffer);
+        assertEquals(expected.readByte(), actual.readByte());
+        assertEquals(expected.readShort(), actual.readShort());
+        assertEquals(expected.readVarInt(), actual.readVarInt());
+        assertEquals(expected.readVarInt(), actual.readVarInt());
+        int length = expected.readVarInt();
+        assertEquals(length, actual.readVarInt());
+        long[] expectedLongs = expected.readLongs(length);
+        assertArrayEquals(longs, expectedLongs);
+        assertArrayEquals(expectedLongs, actual.readLongs(length));
+        assertEquals(expected.readInt(), actual.readInt());
+        assertEquals(0, buffer.readableBytes());
+        buffer.release();
+    }
+}
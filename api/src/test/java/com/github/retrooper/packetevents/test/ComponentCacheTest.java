@@ -0,0 +1,111 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.adventure.AdventureSerializer;
+import com.github.retrooper.packetevents.util.adventure.ComponentCache;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ComponentCacheTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test cached component encodings are bounded and counted")
+    public void testComponentCache() {
+        ComponentCache cache = new ComponentCache(8);
+        Component component = Component.text("cached", NamedTextColor.GREEN);
+        byte[] encoded = {1, 2, 3, 4, 5};
+
+        assertNull(cache.get(component, ServerVersion.V_1_20_3));
+        assertFalse(cache.markWritten(component, ServerVersion.V_1_20_3));
+        assertTrue(cache.markWritten(component, ServerVersion.V_1_20_3));
+        cache.put(component, ServerVersion.V_1_20_3, encoded);
+        assertArrayEquals(encoded, cache.get(component, ServerVersion.V_1_20_3));
+        // only the same instance is found, and only for the same version
+        assertNull(cache.get(Component.text("cached", NamedTextColor.GREEN), ServerVersion.V_1_20_3));
+        assertNull(cache.get(component, ServerVersion.V_1_19_4));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0.25D, cache.getHitRate());
+        assertEquals(5, cache.getSize());
+
+        // exceeding the size evicts older encodings
+        cache.put(Component.text("other"), ServerVersion.V_1_20_3, new byte[]{6, 7, 8, 9});
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getSize());
+        assertEquals(1, cache.getEntryCount());
+        assertNull(cache.get(component, ServerVersion.V_1_20_3));
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    @DisplayName("Test written components are only cached once they are reused")
+    public void testWriteComponent() {
+        Component component = Component.text("header", NamedTextColor.GOLD);
+        byte[] expected = writeComponent(component);
+        PacketEvents.getAPI().getSettings().componentCacheSize(1 << 16);
+        try {
+            ComponentCache cache = AdventureSerializer.getComponentCache();
+            assertTrue(cache.isEnabled());
+
+            assertArrayEquals(expected, writeComponent(component));
+            assertEquals(0, cache.getEntryCount());
+            assertArrayEquals(expected, writeComponent(component));
+            assertEquals(1, cache.getEntryCount());
+            assertEquals(expected.length, cache.getSize());
+            assertArrayEquals(expected, writeComponent(component));
+            assertEquals(1, cache.getHitCount());
+
+            // equal components built for a single packet are serialized again
+            assertArrayEquals(expected, writeComponent(Component.text("header", NamedTextColor.GOLD)));
+            assertEquals(1, cache.getHitCount());
+        } finally {
+            PacketEvents.getAPI().getSettings().componentCacheSize(0L);
+        }
+        assertFalse(AdventureSerializer.getComponentCache().isEnabled());
+    }
+
+    private static byte[] writeComponent(Component component) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            PacketWrapper.createUniversalPacketWrapper(buffer).writeComponent(component);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+}
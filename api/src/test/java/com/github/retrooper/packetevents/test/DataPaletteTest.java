@@ -0,0 +1,81 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.ListPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.MapPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+public class DataPaletteTest {
+
+    @Test
+    @DisplayName("Test map palette lookups")
+    public void testMapPalette() {
+        MapPalette palette = new MapPalette(5);
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, palette.stateToId(i * 4099));
+        }
+        assertEquals(-1, palette.stateToId(7));
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, palette.stateToId(i * 4099));
+            assertEquals(i * 4099, palette.idToState(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test setting all states at once")
+    public void testSetAll() {
+        int size = PaletteType.CHUNK.getStorageSize();
+        int[] states = new int[size];
+        for (int i = 0; i < size; i++) {
+            states[i] = i % 3 == 0 ? 0 : i % 100;
+        }
+        Chunk_v1_18 chunk = new Chunk_v1_18();
+        chunk.setAll(states);
+        assertInstanceOf(MapPalette.class, chunk.getChunkData().palette);
+        assertEquals(7, chunk.getChunkData().storage.getBitsPerEntry());
+        int blockCount = 0;
+        for (int i = 0; i < size; i++) {
+            assertEquals(states[i], chunk.getBlockId(i & 15, i >> 8, i >> 4 & 15));
+            blockCount += states[i] != 0 ? 1 : 0;
+        }
+        assertEquals(blockCount, chunk.getBlockCount());
+
+        for (int i = 0; i < size; i++) {
+            states[i] = i;
+        }
+        DataPalette palette = DataPalette.createForChunk();
+        palette.setAll(states);
+        assertInstanceOf(GlobalPalette.class, palette.palette);
+        assertEquals(size - 1, palette.get(15, 15, 15));
+
+        chunk.fill(5);
+        assertInstanceOf(ListPalette.class, chunk.getChunkData().palette);
+        assertEquals(5, chunk.getBlockId(3, 9, 12));
+        assertEquals(size, chunk.getBlockCount());
+    }
+}
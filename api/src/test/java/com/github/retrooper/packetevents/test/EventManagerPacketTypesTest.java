@@ -0,0 +1,46 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerCommon;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventManagerPacketTypesTest {
+
+    @Test
+    @DisplayName("Test packet type interest filtering")
+    public void testPacketTypeFiltering() {
+        EventManager eventManager = new EventManager();
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA, false));
+
+        PacketListenerCommon typed = new PacketListenerAbstract(PacketListenerPriority.HIGH) {
+            @Override
+            public Set<PacketTypeCommon> getPacketTypes() {
+                return Collections.singleton(PacketType.Play.Client.KEEP_ALIVE);
+            }
+        };
+        eventManager.registerListener(typed);
+        assertTrue(eventManager.hasListeners(PacketType.Play.Client.KEEP_ALIVE, false));
+        assertFalse(eventManager.hasListeners(PacketType.Play.Client.KEEP_ALIVE, true));
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA, false));
+
+        PacketListenerCommon untyped = new PacketListenerAbstract(PacketListenerPriority.LOW) {
+        };
+        eventManager.registerListener(untyped);
+        assertTrue(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA, false));
+
+        eventManager.unregisterListener(untyped);
+        assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA, false));
+        assertTrue(eventManager.hasListeners(PacketType.Play.Client.KEEP_ALIVE, false));
+    }
+}
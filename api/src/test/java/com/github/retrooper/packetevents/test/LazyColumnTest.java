@@ -0,0 +1,89 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyColumnTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test decoding single sections of a lazy column")
+    public void testLazySections() {
+        // Register air first, so it keeps the first palette id
+        Chunk_v1_18 sparse = new Chunk_v1_18();
+        sparse.set(0, 0, 0, 0);
+        sparse.set(1, 2, 3, 7);
+        sparse.set(15, 15, 15, 9);
+        Chunk_v1_18 dense = new Chunk_v1_18();
+        dense.set(0, 0, 0, 0);
+        for (int i = 0; i < 300; i++) {
+            dense.set(i & 15, i >> 8, (i >> 4) & 15, i + 1);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NetStreamOutput out = new NetStreamOutput(bytes);
+        Chunk_v1_18.write(out, new Chunk_v1_18());
+        Chunk_v1_18.write(out, sparse);
+        Chunk_v1_18.write(out, dense);
+        // Singleton palettes for blocks and biomes
+        out.writeShort(4096);
+        out.writeByte(0);
+        out.writeVarInt(1);
+        out.writeVarInt(0);
+        out.writeByte(0);
+        out.writeVarInt(3);
+        out.writeVarInt(0);
+        byte[] data = bytes.toByteArray();
+
+        Column column = new Column(0, 0, true, data, 4, new TileEntity[0], new NBTCompound());
+        assertEquals(4, column.getChunkCount());
+        assertEquals(7, column.getBlockId(1, 16 + 2, 3));
+        assertEquals(9, column.getBlockId(-1, 31, -1));
+        assertEquals(1, column.getBlockId(4, 3 * 16 + 8, 4));
+        assertEquals(0, column.getBlockId(0, 4 * 16, 0));
+
+        // The first and third section were never accessed
+        ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+        NetStreamOutput rewrittenOut = new NetStreamOutput(rewritten);
+        assertTrue(column.writeRawChunk(rewrittenOut, 0));
+        assertFalse(column.writeRawChunk(rewrittenOut, 1));
+        Chunk_v1_18.write(rewrittenOut, (Chunk_v1_18) column.getChunk(1));
+        assertTrue(column.writeRawChunk(rewrittenOut, 2));
+        assertFalse(column.writeRawChunk(rewrittenOut, 3));
+        Chunk_v1_18.write(rewrittenOut, (Chunk_v1_18) column.getChunk(3));
+        assertArrayEquals(data, rewritten.toByteArray());
+
+        assertEquals(300, column.getChunks()[2].getBlockId(11, 1, 2));
+        assertFalse(column.writeRawChunk(rewrittenOut, 0));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LazyNBTCompoundTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test lazily read compounds are written verbatim and parsed on access")
+    public void testLazyCompound() throws IOException {
+        NBTCompound nested = new NBTCompound();
+        nested.setTag("text", new NBTString("lazy"));
+        NBTList<NBTCompound> items = new NBTList<>(NBTType.COMPOUND);
+        items.addTag(nested);
+        NBTCompound tag = new NBTCompound();
+        tag.setTag("id", new NBTString("minecraft:chest"));
+        tag.setTag("x", new NBTInt(-12));
+        tag.setTag("Items", items);
+
+        for (boolean named : new boolean[]{true, false}) {
+            ByteBuf encoded = Unpooled.buffer();
+            ByteBufNBTSerializer.INSTANCE.serializeTag(encoded, tag, named);
+            byte[] expected = ByteBufUtil.getBytes(encoded);
+            encoded.writeByte(42);
+
+            NBT read = ByteBufNBTSerializer.INSTANCE.deserializeLazyTag(NBTLimiter.forBuffer(encoded), encoded, named);
+            assertInstanceOf(NBTCompound.class, read);
+            assertNotNull(((NBTCompound) read).getEncodedTags());
+            assertEquals(1, encoded.readableBytes());
+
+            // untouched compounds are written back verbatim
+            ByteBuf written = Unpooled.buffer();
+            ByteBufNBTSerializer.INSTANCE.serializeTag(written, read, named);
+            assertArrayEquals(expected, ByteBufUtil.getBytes(written));
+
+            // accessing the compound parses it
+            NBTCompound copy = ((NBTCompound) read).copy();
+            assertEquals(-12, ((NBTCompound) read).getNumberTagOrThrow("x").getAsInt());
+            assertNull(((NBTCompound) read).getEncodedTags());
+            assertEquals(tag, read);
+            assertEquals(tag, copy);
+        }
+    }
+
+    @Test
+    @DisplayName("Test lazily read compounds are fully visible to concurrent readers")
+    public void testConcurrentDecode() throws Exception {
+        NBTCompound tag = new NBTCompound();
+        for (int i = 0; i < 32; i++) {
+            tag.setTag("key" + i, new NBTInt(i));
+        }
+        ByteBuf encoded = Unpooled.buffer();
+        ByteBufNBTSerializer.INSTANCE.serializeTag(encoded, tag, false);
+
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                encoded.readerIndex(0);
+                NBTCompound read = (NBTCompound) ByteBufNBTSerializer.INSTANCE
+                        .deserializeLazyTag(NBTLimiter.forBuffer(encoded), encoded, false);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Integer>> results = new ArrayList<>(threads);
+                for (int i = 0; i < threads; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        // every reader has to see all entries, even when another thread is still decoding them
+                        assertEquals(31, read.getNumberTagOrThrow("key31").getAsInt());
+                        return read.size();
+                    }));
+                }
+                start.countDown();
+                for (Future<Integer> result : results) {
+                    assertEquals(32, result.get());
+                }
+                assertEquals(tag, read);
+            }
+        } finally {
+            executor.shutdownNow();
+            encoded.release();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappingSnapshotTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test mapping snapshots resolve the same ids as replaying the diffs")
+    public void testSnapshotParity() {
+        // sounds use array mappings, items use object mappings
+        assertParity("sound/sound_mappings", "entity.allay.death", "block.stone.break", "missing");
+        assertParity("item/item_type_mappings", "air", "stone", "diamond_sword", "missing");
+    }
+
+    @Test
+    @DisplayName("Test preloaded mappings resolve the same ids as loading them directly")
+    public void testWarmupParity() {
+        TypesBuilder.finishWarmup();
+        TypesBuilder.warmup();
+        TypesBuilder preloaded = new TypesBuilder("item/item_type_mappings");
+        TypesBuilder loaded = new TypesBuilder("item/item_type_mappings");
+
+        assertArrayEquals(loaded.getVersions(), preloaded.getVersions());
+        for (String key : new String[]{"air", "stone", "diamond_sword", "missing"}) {
+            assertArrayEquals(loaded.define(key).getData(), preloaded.define(key).getData(), key);
+        }
+
+        // every other preloaded file was never taken and is dropped once starting finished
+        assertTrue(TypesBuilder.finishWarmup() > 0);
+        assertEquals(0, TypesBuilder.finishWarmup());
+    }
+
+    private static void assertParity(String path, String... keys) {
+        TypesBuilder snapshot = new TypesBuilder(path);
+
+        PacketEventsSettings settings = PacketEvents.getAPI().getSettings();
+        Function<String, InputStream> provider = settings.getResourceProvider();
+        TypesBuilder replayed;
+        try {
+            settings.customResourceProvider(resource -> resource.endsWith(".snapshot") ? null : provider.apply(resource));
+            replayed = new TypesBuilder(path);
+        } finally {
+            settings.customResourceProvider(provider);
+        }
+
+        assertArrayEquals(replayed.getVersions(), snapshot.getVersions());
+        for (String key : keys) {
+            assertArrayEquals(replayed.define(key).getData(), snapshot.define(key).getData(), key);
+        }
+    }
+}
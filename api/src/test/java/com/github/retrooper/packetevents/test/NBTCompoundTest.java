@@ -0,0 +1,82 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTKeyPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NBTCompoundTest {
+
+    @Test
+    @DisplayName("Test compound entries keep their order while growing and shrinking")
+    public void testCompactStorage() {
+        NBTCompound compound = new NBTCompound();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            compound.setTag("key" + i, new NBTInt(i));
+            expected.add("key" + i);
+            assertEquals(expected, new ArrayList<>(compound.getTagNames()));
+        }
+        compound.setTag("key3", new NBTInt(-3));
+        assertEquals(expected, new ArrayList<>(compound.getTagNames()));
+        assertEquals(-3, compound.getNumberTagOrThrow("key3").getAsInt());
+
+        NBTCompound small = new NBTCompound();
+        small.setTag("a", new NBTInt(1));
+        small.setTag("b", new NBTInt(2));
+        small.setTag("c", new NBTInt(3));
+        assertEquals(new NBTInt(2), small.removeTag("b"));
+        assertNull(small.getTagOrNull("b"));
+        assertEquals(2, small.size());
+
+        NBTCompound reordered = new NBTCompound();
+        reordered.setTag("c", new NBTInt(3));
+        reordered.setTag("a", new NBTInt(1));
+        assertEquals(small, reordered);
+        assertEquals(small.hashCode(), reordered.hashCode());
+        assertEquals(compound, compound.copy());
+    }
+
+    @Test
+    @DisplayName("Test decoded keys are shared through the key pool")
+    public void testKeyPool() {
+        String key = NBTKeyPool.intern(new String("minecraft:custom_name"));
+        assertSame(key, NBTKeyPool.intern(new String("minecraft:custom_name")));
+
+        // long keys are not worth keeping around
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.append('k');
+        }
+        String longKey = builder.toString();
+        assertSame(longKey, NBTKeyPool.intern(longKey));
+        assertNotSame(longKey, NBTKeyPool.intern(new String(longKey)));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketEventRecyclerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test reusing events and wrappers once they were processed")
+    public void testRecycling() throws Exception {
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.getLatest(),
+                new UserProfile(UUID.randomUUID(), "test"));
+        ByteBuf first = keepAlive(user, 1L);
+        ByteBuf second = keepAlive(user, 2L);
+
+        PacketEvents.getAPI().getSettings().eventRecycling(true);
+        try {
+            PacketSendEvent event = EventCreationUtil.createSendEvent(null, user, null, first, true);
+            WrapperPlayServerKeepAlive wrapper = event.getWrapper(WrapperPlayServerKeepAlive.class);
+            assertEquals(1L, wrapper.getId());
+            assertSame(wrapper, event.getWrapper(WrapperPlayServerKeepAlive.class));
+            assertTrue(event.recycle());
+            assertNull(event.getUser());
+
+            PacketSendEvent reused = EventCreationUtil.createSendEvent(null, user, null, second, true);
+            assertSame(event, reused);
+            assertEquals(PacketType.Play.Server.KEEP_ALIVE, reused.getPacketType());
+            assertFalse(reused.isCancelled());
+            WrapperPlayServerKeepAlive reusedWrapper = reused.getWrapper(WrapperPlayServerKeepAlive.class);
+            assertSame(wrapper, reusedWrapper);
+            assertEquals(2L, reusedWrapper.getId());
+            assertTrue(reused.recycle());
+        } finally {
+            PacketEvents.getAPI().getSettings().eventRecycling(false);
+        }
+
+        // events created without recycling are never pooled
+        PacketSendEvent event = EventCreationUtil.createSendEvent(null, user, null, first.readerIndex(0), true);
+        assertFalse(event.recycle());
+        first.release();
+        second.release();
+    }
+
+    private static ByteBuf keepAlive(User user, long id) {
+        ByteBuf buffer = Unpooled.buffer();
+        PacketWrapper<?> wrapper = new WrapperPlayServerKeepAlive(id);
+        wrapper.setBuffer(buffer);
+        wrapper.writeVarInt(PacketType.Play.Server.KEEP_ALIVE.getId(user.getClientVersion()));
+        wrapper.write();
+        return buffer;
+    }
+}
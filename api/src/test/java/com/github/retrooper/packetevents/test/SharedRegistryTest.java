@@ -0,0 +1,109 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.biome.Biomes;
+import com.github.retrooper.packetevents.protocol.world.damagetype.DamageType;
+import com.github.retrooper.packetevents.protocol.world.damagetype.DamageTypes;
+import com.github.retrooper.packetevents.resources.ResourceLocation;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.SynchronizedRegistriesHandler;
+import com.github.retrooper.packetevents.util.mappings.SynchronizedRegistriesHandler.RegistryEntry;
+import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperConfigServerRegistryData.RegistryElement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SharedRegistryTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test synchronized registries are shared by content")
+    public void testSharedByContent() {
+        RegistryEntry<?> entry = SynchronizedRegistriesHandler.getRegistryEntry(Biomes.getRegistry().getRegistryKey());
+        assertNotNull(entry);
+
+        ClientVersion version = ClientVersion.getLatest();
+        Object first = entry.computeSharedRegistry(elements("plains", "desert"), version);
+        Object second = entry.computeSharedRegistry(elements("plains", "desert"), version);
+        Object reordered = entry.computeSharedRegistry(elements("desert", "plains"), version);
+        Object otherVersion = entry.computeSharedRegistry(elements("plains", "desert"), ClientVersion.V_1_20_5);
+
+        assertSame(first, second);
+        assertNotSame(first, reordered);
+        assertNotSame(first, otherVersion);
+    }
+
+    @Test
+    @DisplayName("Test synchronized registries are compared by their element data")
+    public void testSharedByData() {
+        RegistryEntry<?> entry = SynchronizedRegistriesHandler.getRegistryEntry(DamageTypes.getRegistry().getRegistryKey());
+        assertNotNull(entry);
+
+        ClientVersion version = ClientVersion.getLatest();
+        Object vanilla = entry.computeSharedRegistry(inFire(0.1F), version);
+        assertSame(vanilla, entry.computeSharedRegistry(inFire(0.1F), version));
+        assertNotSame(vanilla, entry.computeSharedRegistry(inFire(0.5F), version));
+    }
+
+    @Test
+    @DisplayName("Test shared registries are evicted once no user holds them")
+    public void testEvictedOnceUnused() throws InterruptedException {
+        RegistryEntry<?> entry = SynchronizedRegistriesHandler.getRegistryEntry(Biomes.getRegistry().getRegistryKey());
+        assertNotNull(entry);
+
+        ClientVersion version = ClientVersion.getLatest();
+        WeakReference<Object> released = new WeakReference<>(
+                entry.computeSharedRegistry(elements("forest", "taiga"), version));
+        for (int i = 0; i < 100 && released.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        assertNull(released.get(), "registry not collected");
+
+        // the content is decoded into a fresh registry, which is shared again
+        Object fresh = entry.computeSharedRegistry(elements("forest", "taiga"), version);
+        assertNotNull(fresh);
+        assertSame(fresh, entry.computeSharedRegistry(elements("forest", "taiga"), version));
+    }
+
+    private static List<RegistryElement> elements(String... names) {
+        RegistryElement[] elements = new RegistryElement[names.length];
+        for (int i = 0; i < names.length; i++) {
+            elements[i] = new RegistryElement(new ResourceLocation(names[i]), null);
+        }
+        return Arrays.asList(elements);
+    }
+
+    private static List<RegistryElement> inFire(float exhaustion) {
+        NBTCompound data = (NBTCompound) DamageType.encode(DamageTypes.IN_FIRE, ClientVersion.getLatest());
+        data.setTag("exhaustion", new NBTFloat(exhaustion));
+        return Arrays.asList(new RegistryElement(DamageTypes.IN_FIRE.getName(), data));
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.item.type.ItemType;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.util.mappings.VersionedIdTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class VersionedIdTableTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test versioned id table lookups")
+    public void testLookups() {
+        VersionedIdTable<String> table = new VersionedIdTable<>();
+        table.put(2, 0, "a");
+        table.put(2, 100, "b");
+        table.put(0, 5, "c");
+        table.put(0, 5, "d");
+        table.put(1, -1, "missing");
+
+        assertEquals("a", table.get(2, 0));
+        assertEquals("b", table.get(2, 100));
+        assertEquals("d", table.get(0, 5));
+        assertNull(table.get(2, 50));
+        assertNull(table.get(2, 101));
+        assertNull(table.get(1, -1));
+        assertNull(table.get(1, 0));
+        assertNull(table.get(3, 0));
+        assertNull(table.get(-1, 0));
+    }
+
+    @Test
+    @DisplayName("Test versioned registry lookups by id")
+    public void testRegistryLookups() {
+        for (ClientVersion version : new ClientVersion[]{ClientVersion.V_1_12_2, ClientVersion.V_1_16_5, ClientVersion.getLatest()}) {
+            for (ItemType type : ItemTypes.getRegistry().getEntries()) {
+                int id = type.getId(version);
+                if (id != -1) {
+                    // legacy versions map several items to the same id
+                    assertEquals(id, ItemTypes.getRegistry().getById(version, id).getId(version), type.getName().toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.BlockFace;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import com.github.retrooper.packetevents.protocol.world.states.enums.Half;
+import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class WrappedBlockStateTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test property changes resolve the matching global id")
+    public void testPropertyTransitions() {
+        ClientVersion version = ClientVersion.getLatest();
+        WrappedBlockState defaultState = WrappedBlockState.getDefaultState(version, StateTypes.OAK_STAIRS, false);
+        int defaultId = defaultState.getGlobalId();
+
+        WrappedBlockState state = WrappedBlockState.getDefaultState(version, StateTypes.OAK_STAIRS);
+        state.setFacing(BlockFace.EAST);
+        state.setHalf(Half.TOP);
+        state.setWaterlogged(true);
+        assertEquals(BlockFace.EAST, state.getFacing());
+        assertEquals(Half.TOP, state.getHalf());
+        assertNotEquals(defaultId, state.getGlobalId());
+        assertEquals(WrappedBlockState.getByGlobalId(version, state.getGlobalId(), false), state);
+
+        state.setFacing(defaultState.getFacing());
+        state.setHalf(defaultState.getHalf());
+        state.setWaterlogged(false);
+        assertEquals(defaultId, state.getGlobalId());
+        assertEquals(defaultState, state);
+        // The shared default state is left untouched
+        assertEquals(defaultId, WrappedBlockState.getDefaultState(version, StateTypes.OAK_STAIRS, false).getGlobalId());
+    }
+}
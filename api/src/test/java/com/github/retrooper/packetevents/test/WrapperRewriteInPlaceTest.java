@@ -0,0 +1,75 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRelativeMove;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WrapperRewriteInPlaceTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("Test rewriting changed fields over the original bytes")
+    public void testRewriteInPlace() throws Exception {
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.getLatest(),
+                new UserProfile(UUID.randomUUID(), "test"));
+        ByteBuf buffer = Unpooled.buffer();
+        PacketWrapper<?> original = new WrapperPlayServerEntityRelativeMove(300, 1, 0.5, -1, true);
+        original.setBuffer(buffer);
+        original.writeVarInt(PacketType.Play.Server.ENTITY_RELATIVE_MOVE.getId(user.getClientVersion()));
+        original.write();
+        int length = buffer.readableBytes();
+
+        WrapperPlayServerEntityRelativeMove wrapper = new WrapperPlayServerEntityRelativeMove(
+                new PacketPlaySendEvent(null, user, null, buffer, true));
+        // fits into the two bytes used by the original entity id
+        wrapper.setEntityId(5);
+        wrapper.setOnGround(false);
+        assertTrue(wrapper.rewriteInPlace());
+        assertEquals(length, buffer.writerIndex());
+
+        buffer.readerIndex(0);
+        WrapperPlayServerEntityRelativeMove rewritten = new WrapperPlayServerEntityRelativeMove(
+                new PacketPlaySendEvent(null, user, null, buffer, true));
+        assertEquals(5, rewritten.getEntityId());
+        assertEquals(0.5, rewritten.getDeltaY());
+        assertFalse(rewritten.isOnGround());
+
+        // needs more bytes than the original entity id
+        rewritten.setEntityId(1_000_000);
+        assertFalse(rewritten.rewriteInPlace());
+        buffer.release();
+    }
+}
@@ -0,0 +1,35 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":api"))
+    jmh(project(":netty-common"))
+    jmh(libs.bundles.adventure)
+    jmh(libs.adventure.text.serializer.legacy)
+    jmh(project(":patch:adventure-text-serializer-gson"))
+    jmh(libs.gson)
+    jmh(libs.netty)
+    jmh("org.jetbrains:annotations:23.0.0")
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+    }
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Run a subset with -PjmhIncludes=PacketTypeLookup
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+}
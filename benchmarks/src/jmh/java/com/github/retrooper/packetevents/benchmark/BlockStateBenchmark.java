@@ -0,0 +1,80 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global id to block state lookups, performed for every block in decoded chunks and block changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlockStateBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private ClientVersion version;
+    private int[] globalIds;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.version = BenchmarkPacketEvents.getServerVersion().toClientVersion();
+
+        // most chunk blocks are one of a few common states
+        SplittableRandom random = new SplittableRandom(0);
+        this.globalIds = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            this.globalIds[i] = random.nextInt(4) == 0 ? random.nextInt(20000) : random.nextInt(16);
+        }
+        // load the mappings outside the measurement
+        WrappedBlockState.getByGlobalId(this.version, 1, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void getByGlobalId(Blackhole blackhole) {
+        for (int globalId : this.globalIds) {
+            blackhole.consume(WrappedBlockState.getByGlobalId(this.version, globalId, false));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void getByGlobalIdClone(Blackhole blackhole) {
+        for (int globalId : this.globalIds) {
+            blackhole.consume(WrappedBlockState.getByGlobalId(this.version, globalId));
+        }
+    }
+}
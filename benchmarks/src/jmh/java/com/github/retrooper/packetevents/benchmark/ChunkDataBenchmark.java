@@ -0,0 +1,150 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.benchmark.base.PacketCorpus;
+import com.github.retrooper.packetevents.event.simple.PacketPlaySendEvent;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.LightData;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and encoding of full chunk packets, the largest packets sent during play.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkDataBenchmark {
+
+    private User user;
+    private ByteBuf[] packets;
+    private int[] payloadStarts;
+    private PacketPlaySendEvent[] events;
+    private WrapperPlayServerChunkData[] wrappers;
+    private ByteBuf writeBuffer;
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkPacketEvents.setup();
+        this.user = BenchmarkPacketEvents.createUser();
+
+        byte[][] corpus = PacketCorpus.load("chunk_data", this::createChunks);
+        int packetId = PacketType.Play.Server.CHUNK_DATA.getId(this.user.getClientVersion());
+        this.packets = new ByteBuf[corpus.length];
+        this.payloadStarts = new int[corpus.length];
+        this.events = new PacketPlaySendEvent[corpus.length];
+        this.wrappers = new WrapperPlayServerChunkData[corpus.length];
+        for (int i = 0; i < corpus.length; i++) {
+            ByteBuf buffer = Unpooled.buffer(corpus[i].length + 5);
+            PacketWrapper.createUniversalPacketWrapper(buffer).writeVarInt(packetId);
+            buffer.writeBytes(corpus[i]);
+            this.packets[i] = buffer;
+            this.events[i] = new PacketPlaySendEvent(null, this.user, null, buffer, true);
+            this.payloadStarts[i] = buffer.readerIndex();
+            this.wrappers[i] = new WrapperPlayServerChunkData(this.events[i]);
+        }
+        this.writeBuffer = Unpooled.buffer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ByteBuf packet : this.packets) {
+            packet.release();
+        }
+        this.writeBuffer.release();
+    }
+
+    private List<byte[]> createChunks() {
+        SplittableRandom random = new SplittableRandom(0);
+        int sections = this.user.getTotalWorldHeight() >> 4;
+        List<byte[]> chunks = new ArrayList<>();
+        for (int c = 0; c < 16; c++) {
+            BaseChunk[] chunks18 = new BaseChunk[sections];
+            for (int s = 0; s < sections; s++) {
+                Chunk_v1_18 chunk = new Chunk_v1_18();
+                // lower sections are mostly stone with ores, upper sections stay empty
+                if (s < sections / 2) {
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            for (int x = 0; x < 16; x++) {
+                                chunk.set(x, y, z, 1 + random.nextInt(random.nextInt(8) == 0 ? 64 : 2));
+                            }
+                        }
+                    }
+                }
+                chunks18[s] = chunk;
+            }
+            NBTCompound heightMaps = new NBTCompound();
+            heightMaps.setTag("MOTION_BLOCKING", new NBTLongArray(new long[37]));
+            Column column = new Column(c, 0, true, chunks18, new TileEntity[0], heightMaps);
+            LightData lightData = new LightData(false, new BitSet(), new BitSet(), new BitSet(), new BitSet(),
+                    0, 0, new byte[0][], new byte[0][]);
+            chunks.add(PacketCorpus.encode(new WrapperPlayServerChunkData(column, lightData)));
+        }
+        return chunks;
+    }
+
+    private int next() {
+        int index = this.index;
+        this.index = index + 1 == this.packets.length ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public WrapperPlayServerChunkData read() {
+        int index = this.next();
+        this.packets[index].readerIndex(this.payloadStarts[index]);
+        return new WrapperPlayServerChunkData(this.events[index]);
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        WrapperPlayServerChunkData wrapper = this.wrappers[this.next()];
+        this.writeBuffer.clear();
+        wrapper.setBuffer(this.writeBuffer);
+        wrapper.write();
+        return this.writeBuffer;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.benchmark.base.PacketCorpus;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of entity metadata lists, as sent with every entity spawn and metadata update.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityMetadataBenchmark {
+
+    private ByteBuf[] packets;
+    private PacketWrapper<?>[] wrappers;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.packets = PacketCorpus.wrap(PacketCorpus.load("entity_metadata", EntityMetadataBenchmark::createMetadata));
+        this.wrappers = new PacketWrapper<?>[this.packets.length];
+        for (int i = 0; i < this.packets.length; i++) {
+            this.wrappers[i] = PacketWrapper.createUniversalPacketWrapper(this.packets[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ByteBuf packet : this.packets) {
+            packet.release();
+        }
+    }
+
+    private static List<byte[]> createMetadata() {
+        List<byte[]> metadata = new ArrayList<>();
+        // entity flags only, the most common update
+        metadata.add(encode(Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0x02))));
+        // living entity with health and a custom name
+        metadata.add(encode(Arrays.asList(
+                new EntityData(0, EntityDataTypes.BYTE, (byte) 0),
+                new EntityData(1, EntityDataTypes.INT, 300),
+                new EntityData(2, EntityDataTypes.OPTIONAL_ADV_COMPONENT, Optional.of(Component.text("Benchmark"))),
+                new EntityData(3, EntityDataTypes.BOOLEAN, true),
+                new EntityData(9, EntityDataTypes.FLOAT, 20F))));
+        return metadata;
+    }
+
+    private static byte[] encode(List<EntityData> entityData) {
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(null);
+        return PacketCorpus.encode(wrapper, () -> wrapper.writeEntityMetadata(entityData));
+    }
+
+    @Benchmark
+    public List<EntityData> read() {
+        int index = this.index;
+        this.index = index + 1 == this.packets.length ? 0 : index + 1;
+        this.packets[index].readerIndex(0);
+        return this.wrappers[index].readEntityMetadata();
+    }
+}
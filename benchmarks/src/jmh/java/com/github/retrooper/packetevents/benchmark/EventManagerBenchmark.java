@@ -0,0 +1,96 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.simple.PacketPlayReceiveEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event creation and dispatch of a small serverbound packet to a varying number of listeners.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventManagerBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int listeners;
+
+    private EventManager eventManager;
+    private User user;
+    private ByteBuf packet;
+    private int sink;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.user = BenchmarkPacketEvents.createUser();
+
+        this.eventManager = new EventManager();
+        PacketListenerPriority[] priorities = PacketListenerPriority.values();
+        for (int i = 0; i < this.listeners; i++) {
+            this.eventManager.registerListener(new PacketListenerAbstract(priorities[i % priorities.length]) {
+                @Override
+                public void onPacketReceive(PacketReceiveEvent event) {
+                    if (event.getPacketType() == PacketType.Play.Client.KEEP_ALIVE) {
+                        EventManagerBenchmark.this.sink++;
+                    }
+                }
+            });
+        }
+
+        this.packet = Unpooled.buffer();
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(this.packet);
+        wrapper.writeVarInt(PacketType.Play.Client.KEEP_ALIVE.getId(this.user.getClientVersion()));
+        wrapper.writeLong(System.nanoTime());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.packet.release();
+    }
+
+    @Benchmark
+    public int dispatch() throws Exception {
+        this.packet.readerIndex(0);
+        PacketPlayReceiveEvent event = new PacketPlayReceiveEvent(null, this.user, null, this.packet, true);
+        this.eventManager.callEvent(event);
+        return this.sink;
+    }
+}
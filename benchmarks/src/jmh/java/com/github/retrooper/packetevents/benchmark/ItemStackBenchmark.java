@@ -0,0 +1,112 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.benchmark.base.PacketCorpus;
+import com.github.retrooper.packetevents.protocol.component.ComponentTypes;
+import com.github.retrooper.packetevents.protocol.component.builtin.item.ItemEnchantments;
+import com.github.retrooper.packetevents.protocol.component.builtin.item.ItemLore;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentType;
+import com.github.retrooper.packetevents.protocol.item.enchantment.type.EnchantmentTypes;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of item stacks with data components, as found in inventory and equipment packets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemStackBenchmark {
+
+    private ByteBuf[] packets;
+    private PacketWrapper<?>[] wrappers;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.packets = PacketCorpus.wrap(PacketCorpus.load("item_stack", ItemStackBenchmark::createItems));
+        this.wrappers = new PacketWrapper<?>[this.packets.length];
+        for (int i = 0; i < this.packets.length; i++) {
+            this.wrappers[i] = PacketWrapper.createUniversalPacketWrapper(this.packets[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ByteBuf packet : this.packets) {
+            packet.release();
+        }
+    }
+
+    private static List<byte[]> createItems() {
+        Map<EnchantmentType, Integer> enchantments = new HashMap<>();
+        enchantments.put(EnchantmentTypes.SHARPNESS, 5);
+        enchantments.put(EnchantmentTypes.UNBREAKING, 3);
+
+        List<byte[]> items = new ArrayList<>();
+        items.add(encode(ItemStack.builder().type(ItemTypes.STONE).amount(64).build()));
+        items.add(encode(ItemStack.builder().type(ItemTypes.DIAMOND_SWORD).amount(1)
+                .component(ComponentTypes.MAX_DAMAGE, 1561)
+                .component(ComponentTypes.DAMAGE, 12)
+                .component(ComponentTypes.ENCHANTMENTS, new ItemEnchantments(enchantments, true))
+                .build()));
+        items.add(encode(ItemStack.builder().type(ItemTypes.DIAMOND_SWORD).amount(1)
+                .component(ComponentTypes.CUSTOM_NAME, Component.text("Benchmark", NamedTextColor.GOLD))
+                .component(ComponentTypes.LORE, new ItemLore(Arrays.asList(
+                        Component.text("first line", NamedTextColor.GRAY),
+                        Component.text("second line", NamedTextColor.DARK_GRAY))))
+                .build()));
+        return items;
+    }
+
+    private static byte[] encode(ItemStack itemStack) {
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(null);
+        return PacketCorpus.encode(wrapper, () -> wrapper.writeItemStackModern(itemStack));
+    }
+
+    @Benchmark
+    public ItemStack read() {
+        int index = this.index;
+        this.index = index + 1 == this.packets.length ? 0 : index + 1;
+        this.packets[index].readerIndex(0);
+        return this.wrappers[index].readItemStackModern();
+    }
+}
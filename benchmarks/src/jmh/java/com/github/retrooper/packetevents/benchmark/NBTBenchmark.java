@@ -0,0 +1,154 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.benchmark.base.PacketCorpus;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufInputStream;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufOutputStream;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTFloat;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLimiter;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.DefaultNBTSerializer;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing of network NBT, shaped like registry data and block entity tags.
+ * The stream benchmarks run the previous {@link DefaultNBTSerializer} path for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NBTBenchmark {
+
+    private ServerVersion version;
+    private ByteBuf[] packets;
+    private NBT[] tags;
+    private ByteBuf writeBuffer;
+    private int index;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+        this.version = BenchmarkPacketEvents.getServerVersion();
+        this.packets = PacketCorpus.wrap(PacketCorpus.load("nbt", () -> createTags(this.version)));
+        this.tags = new NBT[this.packets.length];
+        for (int i = 0; i < this.packets.length; i++) {
+            this.tags[i] = NBTCodec.readNBTFromBuffer(this.packets[i], this.version);
+        }
+        this.writeBuffer = Unpooled.buffer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (ByteBuf packet : this.packets) {
+            packet.release();
+        }
+        this.writeBuffer.release();
+    }
+
+    private static List<byte[]> createTags(ServerVersion version) {
+        NBTList<NBTCompound> entries = NBTList.createCompoundList();
+        for (int i = 0; i < 64; i++) {
+            NBTCompound element = new NBTCompound();
+            element.setTag("has_precipitation", new NBTByte(i % 2 == 0));
+            element.setTag("temperature", new NBTFloat(0.8F));
+            element.setTag("downfall", new NBTFloat(0.4F));
+            NBTCompound effects = new NBTCompound();
+            effects.setTag("fog_color", new NBTInt(12638463));
+            effects.setTag("sky_color", new NBTInt(7907327 + i));
+            effects.setTag("water_color", new NBTInt(4159204));
+            effects.setTag("water_fog_color", new NBTInt(329011));
+            element.setTag("effects", effects);
+
+            NBTCompound entry = new NBTCompound();
+            entry.setTag("name", new NBTString("minecraft:biome_" + i));
+            entry.setTag("id", new NBTInt(i));
+            entry.setTag("element", element);
+            entries.addTag(entry);
+        }
+        NBTCompound registry = new NBTCompound();
+        registry.setTag("type", new NBTString("minecraft:worldgen/biome"));
+        registry.setTag("value", entries);
+
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(null);
+        return Collections.singletonList(PacketCorpus.encode(wrapper,
+                () -> NBTCodec.writeNBTToBuffer(wrapper.getBuffer(), version, registry)));
+    }
+
+    @Benchmark
+    public NBT read() {
+        int index = this.index;
+        this.index = index + 1 == this.packets.length ? 0 : index + 1;
+        this.packets[index].readerIndex(0);
+        return NBTCodec.readNBTFromBuffer(this.packets[index], this.version);
+    }
+
+    @Benchmark
+    public NBT readStream() throws IOException {
+        int index = this.index;
+        this.index = index + 1 == this.packets.length ? 0 : index + 1;
+        ByteBuf packet = this.packets[index];
+        packet.readerIndex(0);
+        boolean named = this.version.isOlderThan(ServerVersion.V_1_20_2);
+        return DefaultNBTSerializer.INSTANCE.deserializeTag(
+                NBTLimiter.forBuffer(packet), new ByteBufInputStream(packet), named);
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        int index = this.index;
+        this.index = index + 1 == this.tags.length ? 0 : index + 1;
+        this.writeBuffer.clear();
+        NBTCodec.writeNBTToBuffer(this.writeBuffer, this.version, this.tags[index]);
+        return this.writeBuffer;
+    }
+
+    @Benchmark
+    public ByteBuf writeStream() throws IOException {
+        int index = this.index;
+        this.index = index + 1 == this.tags.length ? 0 : index + 1;
+        this.writeBuffer.clear();
+        boolean named = this.version.isOlderThan(ServerVersion.V_1_20_2);
+        DefaultNBTSerializer.INSTANCE.serializeTag(new ByteBufOutputStream(this.writeBuffer), this.tags[index], named);
+        return this.writeBuffer;
+    }
+}
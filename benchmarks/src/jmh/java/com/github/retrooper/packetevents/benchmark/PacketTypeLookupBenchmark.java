@@ -0,0 +1,94 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous boxed {@code Map<Byte, Map<Integer, PacketTypeCommon>>} packet type lookup
+ * with the dense array tables and the per-user cached table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketTypeLookupBenchmark {
+
+    private static final ClientVersion VERSION = ClientVersion.getLatest();
+
+    private final Map<Byte, Map<Integer, PacketTypeCommon>> legacyIdMap = new HashMap<>();
+    private int[] packetIds;
+    private User user;
+
+    @Setup
+    public void setup() {
+        PacketType.prepare();
+
+        // rebuild the lookup shape which was used before the dense tables
+        Map<Integer, PacketTypeCommon> idMap = this.legacyIdMap.computeIfAbsent((byte) 0, k -> new HashMap<>());
+        for (PacketType.Play.Server packetType : PacketType.Play.Server.values()) {
+            int id = packetType.getId(VERSION);
+            if (id != -1) {
+                idMap.put(id, packetType);
+            }
+        }
+        this.packetIds = idMap.keySet().stream().mapToInt(Integer::intValue).toArray();
+
+        this.user = new User(null, ConnectionState.PLAY, VERSION, new UserProfile(UUID.randomUUID(), "benchmark"));
+    }
+
+    @Benchmark
+    public void legacyMapLookup(Blackhole blackhole) {
+        for (int packetId : this.packetIds) {
+            blackhole.consume(this.legacyIdMap.get((byte) 0).get(packetId));
+        }
+    }
+
+    @Benchmark
+    public void staticLookup(Blackhole blackhole) {
+        for (int packetId : this.packetIds) {
+            blackhole.consume(PacketType.Play.Server.getById(VERSION, packetId));
+        }
+    }
+
+    @Benchmark
+    public void userTableLookup(Blackhole blackhole) {
+        for (int packetId : this.packetIds) {
+            blackhole.consume(this.user.getPacketTypeTable(PacketSide.SERVER, VERSION).getById(packetId));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BenchmarkPacketEvents;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primitive reads and writes every wrapper is built on.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketWrapperBenchmark {
+
+    private static final int COUNT = 1024;
+
+    private int[] values;
+    private ByteBuf varIntBuffer;
+    private ByteBuf stringBuffer;
+    private ByteBuf writeBuffer;
+    private PacketWrapper<?> varIntWrapper;
+    private PacketWrapper<?> stringWrapper;
+    private PacketWrapper<?> writeWrapper;
+
+    @Setup
+    public void setup() {
+        BenchmarkPacketEvents.setup();
+
+        // mix of small ids and large values, like entity ids and positions
+        SplittableRandom random = new SplittableRandom(0);
+        this.values = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            this.values[i] = i % 4 == 0 ? random.nextInt() : random.nextInt(128);
+        }
+
+        this.varIntBuffer = Unpooled.buffer();
+        this.varIntWrapper = PacketWrapper.createUniversalPacketWrapper(this.varIntBuffer);
+        for (int value : this.values) {
+            this.varIntWrapper.writeVarInt(value);
+        }
+
+        this.stringBuffer = Unpooled.buffer();
+        this.stringWrapper = PacketWrapper.createUniversalPacketWrapper(this.stringBuffer);
+        for (int i = 0; i < COUNT; i++) {
+            this.stringWrapper.writeString("minecraft:entity_" + this.values[i]);
+        }
+
+        this.writeBuffer = Unpooled.buffer(COUNT * 5);
+        this.writeWrapper = PacketWrapper.createUniversalPacketWrapper(this.writeBuffer);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.varIntBuffer.release();
+        this.stringBuffer.release();
+        this.writeBuffer.release();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readVarInt(Blackhole blackhole) {
+        this.varIntBuffer.readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(this.varIntWrapper.readVarInt());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void writeVarInt() {
+        this.writeBuffer.clear();
+        for (int value : this.values) {
+            this.writeWrapper.writeVarInt(value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void readString(Blackhole blackhole) {
+        this.stringBuffer.readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(this.stringWrapper.readString());
+        }
+    }
+}
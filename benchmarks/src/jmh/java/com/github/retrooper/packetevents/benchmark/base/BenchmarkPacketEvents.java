@@ -0,0 +1,177 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark.base;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import io.github.retrooper.packetevents.impl.netty.manager.server.ServerManagerAbstract;
+
+import java.util.UUID;
+
+/**
+ * Minimal platform-less packetevents instance for running benchmarks outside a server.
+ */
+public final class BenchmarkPacketEvents {
+
+    private static final ServerVersion SERVER_VERSION = ServerVersion.getLatest();
+
+    private BenchmarkPacketEvents() {
+    }
+
+    public static synchronized void setup() {
+        if (PacketEvents.getAPI() == null) {
+            PacketEventsAPI<Object> api = new BenchmarkAPI();
+            PacketEvents.setAPI(api);
+            api.load();
+            api.init();
+        }
+    }
+
+    public static ServerVersion getServerVersion() {
+        return SERVER_VERSION;
+    }
+
+    public static User createUser() {
+        return new User(null, ConnectionState.PLAY, SERVER_VERSION.toClientVersion(),
+                new UserProfile(UUID.randomUUID(), "benchmark"));
+    }
+
+    private static final class BenchmarkAPI extends PacketEventsAPI<Object> {
+
+        private final ProtocolManager protocolManager = new ProtocolManagerAbstract() {
+            @Override
+            public ProtocolVersion getPlatformVersion() {
+                return ProtocolVersion.UNKNOWN;
+            }
+        };
+        private final ServerManager serverManager = new ServerManagerAbstract() {
+            @Override
+            public ServerVersion getVersion() {
+                return SERVER_VERSION;
+            }
+        };
+        private final NettyManager nettyManager = new NettyManagerImpl();
+        private final ChannelInjector injector = new ChannelInjector() {
+            @Override
+            public void inject() {
+            }
+
+            @Override
+            public void uninject() {
+            }
+
+            @Override
+            public void updateUser(Object channel, User user) {
+            }
+
+            @Override
+            public void setPlayer(Object channel, Object player) {
+            }
+
+            @Override
+            public boolean isProxy() {
+                return false;
+            }
+        };
+
+        private boolean loaded;
+        private boolean initialized;
+        private boolean terminated;
+
+        @Override
+        public void load() {
+            if (!this.loaded) {
+                if (!PacketType.isPrepared()) {
+                    PacketType.prepare();
+                }
+                this.loaded = true;
+            }
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return this.loaded;
+        }
+
+        @Override
+        public void init() {
+            this.load();
+            this.initialized = true;
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return this.initialized;
+        }
+
+        @Override
+        public void terminate() {
+            this.initialized = false;
+            this.terminated = true;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.terminated;
+        }
+
+        @Override
+        public Object getPlugin() {
+            return null;
+        }
+
+        @Override
+        public ServerManager getServerManager() {
+            return this.serverManager;
+        }
+
+        @Override
+        public ProtocolManager getProtocolManager() {
+            return this.protocolManager;
+        }
+
+        @Override
+        public PlayerManager getPlayerManager() {
+            return null;
+        }
+
+        @Override
+        public NettyManager getNettyManager() {
+            return this.nettyManager;
+        }
+
+        @Override
+        public ChannelInjector getInjector() {
+            return this.injector;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.benchmark.base;
+
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Packet payloads the benchmarks run against.
+ * <p>
+ * Captured packets can be supplied by pointing the {@code packetevents.benchmark.corpus} system property
+ * to a directory containing {@code <name>.bin} files. Each file is a sequence of packets, every packet
+ * prefixed with its length as a VarInt and without the packet id. If no captured corpus exists for a name,
+ * synthetic packets are generated instead.
+ */
+public final class PacketCorpus {
+
+    public static final String CORPUS_PROPERTY = "packetevents.benchmark.corpus";
+
+    private PacketCorpus() {
+    }
+
+    public static byte[][] load(String name, Supplier<List<byte[]>> fallback) {
+        String directory = System.getProperty(CORPUS_PROPERTY);
+        if (directory != null) {
+            Path file = Paths.get(directory, name + ".bin");
+            if (Files.isRegularFile(file)) {
+                return read(file);
+            }
+        }
+        return fallback.get().toArray(new byte[0][]);
+    }
+
+    public static byte[] encode(PacketWrapper<?> wrapper) {
+        return encode(wrapper, wrapper::write);
+    }
+
+    public static byte[] encode(PacketWrapper<?> wrapper, Runnable writer) {
+        ByteBuf buffer = Unpooled.buffer();
+        try {
+            wrapper.setBuffer(buffer);
+            writer.run();
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        } finally {
+            wrapper.setBuffer(null);
+            buffer.release();
+        }
+    }
+
+    public static ByteBuf[] wrap(byte[][] packets) {
+        ByteBuf[] buffers = new ByteBuf[packets.length];
+        for (int i = 0; i < packets.length; i++) {
+            buffers[i] = Unpooled.wrappedBuffer(packets[i]);
+        }
+        return buffers;
+    }
+
+    private static byte[][] read(Path file) {
+        ByteBuf buffer;
+        try {
+            buffer = Unpooled.wrappedBuffer(Files.readAllBytes(file));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        List<byte[]> packets = new ArrayList<>();
+        while (buffer.isReadable()) {
+            byte[] packet = new byte[readVarInt(buffer)];
+            buffer.readBytes(packet);
+            packets.add(packet);
+        }
+        return packets.toArray(new byte[0][]);
+    }
+
+    private static int readVarInt(ByteBuf buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = buffer.readByte();
+            value |= (currentByte & 0x7F) << (length++ * 7);
+        } while ((currentByte & 0x80) == 0x80 && length < 5);
+        return value;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.retrooper.compression
+
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.file.Path
+import java.util.*
+import kotlin.io.path.createDirectories
+import kotlin.io.path.outputStream
+
+/**
+ * Writes the fully resolved ids of every version, so they can be loaded without replaying the diffs.
+ *
+ * Format (big endian):
+ * - int magic, byte format version
+ * - int version count, followed by the version names
+ * - int name count, followed by the sorted names (string pool)
+ * - for every version, an int id for every name of the pool, -1 if the name doesn't exist
+ *
+ * Strings are written as an unsigned short byte length, followed by their UTF-8 bytes.
+ */
+object MappingSnapshot {
+
+    const val MAGIC = 0x5045534E // PESN
+    const val FORMAT_VERSION = 1
+
+    fun write(path: Path, versions: SortedMap<EntryVersion, Map<String, Int>>) {
+        val names = versions.values.flatMapTo(TreeSet()) { it.keys }.toList()
+        try {
+            path.parent.createDirectories()
+            DataOutputStream(path.outputStream().buffered()).use { out ->
+                out.writeInt(MAGIC)
+                out.writeByte(FORMAT_VERSION)
+
+                out.writeInt(versions.size)
+                for (version in versions.keys) {
+                    out.writeString(version.toString())
+                }
+
+                out.writeInt(names.size)
+                for (name in names) {
+                    out.writeString(name)
+                }
+
+                for (ids in versions.values) {
+                    for (name in names) {
+                        out.writeInt(ids[name] ?: -1)
+                    }
+                }
+            }
+        } catch (e: IOException) {
+            throw RuntimeException("Failed to write mapping snapshot: $path", e)
+        }
+    }
+
+    private fun DataOutputStream.writeString(string: String) {
+        val bytes = string.toByteArray(Charsets.UTF_8)
+        require(bytes.size <= 0xFFFF) { "String too long for mapping snapshot: $string" }
+        writeShort(bytes.size)
+        write(bytes)
+    }
+
+}
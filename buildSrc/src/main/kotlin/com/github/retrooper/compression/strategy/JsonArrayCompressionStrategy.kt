@@ -22,6 +22,7 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asStringList
 import com.github.steveice10.opennbt.tag.builtin.ByteTag
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag
@@ -29,6 +30,7 @@ import com.github.steveice10.opennbt.tag.builtin.IntTag
 import com.github.steveice10.opennbt.tag.builtin.ListTag
 import com.github.steveice10.opennbt.tag.builtin.StringTag
 import com.google.gson.JsonObject
+import java.util.*
 
 object JsonArrayCompressionStrategy : JsonCompressionStrategy() {
 
@@ -91,4 +93,11 @@ object JsonArrayCompressionStrategy : JsonCompressionStrategy() {
         tag.put("entries", nbtEntries)
     }
 
+    override fun resolve(json: JsonObject): SortedMap<EntryVersion, Map<String, Int>> {
+        // the id of an entry is its index, later duplicates win like at runtime
+        return separateVersions(json).mapValuesTo(TreeMap<EntryVersion, Map<String, Int>>()) { (_, value) ->
+            value.asJsonArray.asStringList.withIndex().associate { it.value to it.index }
+        }
+    }
+
 }
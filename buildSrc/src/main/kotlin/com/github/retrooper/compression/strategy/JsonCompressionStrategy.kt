@@ -19,6 +19,7 @@ package com.github.retrooper.compression.strategy
 
 import com.github.retrooper.compression.CompressionUtil
 import com.github.retrooper.compression.EntryVersion
+import com.github.retrooper.compression.MappingSnapshot
 import com.github.steveice10.opennbt.tag.builtin.ByteTag
 import com.github.steveice10.opennbt.tag.builtin.CompoundTag
 import com.google.gson.JsonElement
@@ -37,10 +38,20 @@ abstract class JsonCompressionStrategy : CompressionStrategy {
         serialize(tag, json)
 
         CompressionUtil.writeNbt(to, tag)
+
+        val resolved = resolve(json)
+        if (resolved != null) {
+            MappingSnapshot.write(to.resolveSibling(to.fileName.toString().removeSuffix(".nbt") + ".snapshot"), resolved)
+        }
     }
 
     abstract fun serialize(tag: CompoundTag, json: JsonObject)
 
+    /**
+     * Resolves the ids of every version for a [MappingSnapshot], or returns null if the file has no ids.
+     */
+    protected open fun resolve(json: JsonObject): SortedMap<EntryVersion, Map<String, Int>>? = null
+
     protected fun separateVersions(json: JsonObject): TreeMap<EntryVersion, JsonElement> {
         return json.entrySet().associateTo(TreeMap()) { EntryVersion.fromString(it.key) to it.value }
     }
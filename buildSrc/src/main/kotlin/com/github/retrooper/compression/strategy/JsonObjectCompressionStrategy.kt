@@ -22,10 +22,12 @@ import com.github.difflib.algorithm.myers.MeyersDiff
 import com.github.difflib.patch.ChangeDelta
 import com.github.difflib.patch.DeleteDelta
 import com.github.difflib.patch.InsertDelta
+import com.github.retrooper.compression.EntryVersion
 import com.github.retrooper.compression.asPrimitiveMap
 import com.github.steveice10.opennbt.tag.builtin.*
 import com.google.gson.JsonObject
 import com.google.gson.JsonPrimitive
+import java.util.*
 
 object JsonObjectCompressionStrategy : JsonCompressionStrategy() {
 
@@ -89,6 +91,14 @@ object JsonObjectCompressionStrategy : JsonCompressionStrategy() {
         tag.put("entries", nbtEntries)
     }
 
+    override fun resolve(json: JsonObject): SortedMap<EntryVersion, Map<String, Int>> {
+        return separateVersions(json).mapValuesTo(TreeMap<EntryVersion, Map<String, Int>>()) { (_, value) ->
+            value.asJsonObject.asPrimitiveMap
+                .filterValues { it.isNumber }
+                .mapValues { it.value.asInt }
+        }
+    }
+
     private val JsonPrimitive.asNbtTag: Tag get() = if (isNumber) {
         IntTag(asInt)
     } else if (isString) {
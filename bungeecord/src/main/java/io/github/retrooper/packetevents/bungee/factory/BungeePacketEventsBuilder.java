@@ -36,6 +36,7 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
 import io.github.retrooper.packetevents.impl.netty.manager.player.PlayerManagerAbstract;
 import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
@@ -199,6 +200,10 @@ public class BungeePacketEventsBuilder {
                     PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
                     PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
                     PacketEvents.TIMEOUT_HANDLER_NAME = "pe-timeout-handler-" + id;
+                    if (getSettings().isMappingWarmupEnabled()) {
+                        // start reading the mapping files before the registries need them
+                        TypesBuilder.warmup();
+                    }
 
                     injector.inject();
                     loaded = true;
@@ -230,6 +235,8 @@ public class BungeePacketEventsBuilder {
 
                     PacketType.Play.Client.load();
                     PacketType.Play.Server.load();
+                    // drop the preloaded mapping files no registry needed while starting
+                    TypesBuilder.finishWarmup();
                     initialized = true;
                 }
             }
@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -43,6 +45,11 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
+        if (!PacketEventsImplHelper.hasListeners(PacketSide.CLIENT, user, byteBuf, false, false)) {
+            // Nobody listens for this packet, pass it on without copying
+            output.add(byteBuf.retain());
+            return;
+        }
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
             int firstReaderIndex = transformed.readerIndex();
@@ -51,7 +58,8 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
             int readerIndex = transformed.readerIndex();
             PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
             if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
+                if (packetReceiveEvent.getLastUsedWrapper() != null && !packetReceiveEvent.getLastUsedWrapper().rewriteInPlace()) {
+                    packetReceiveEvent.getLastUsedWrapper().detachLazyValues();
                     ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
                     packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
                     packetReceiveEvent.getLastUsedWrapper().write();
@@ -66,6 +74,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     task.run();
                 }
             }
+            packetReceiveEvent.recycle();
         } finally {
             transformed.release();
         }
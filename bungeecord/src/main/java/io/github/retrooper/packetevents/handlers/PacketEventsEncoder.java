@@ -21,8 +21,10 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import io.github.retrooper.packetevents.injector.CustomPipelineUtil;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
@@ -61,13 +63,23 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
 
     public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
         boolean doCompression = handleCompressionOrder(ctx, buffer);
+        if (!PacketEventsImplHelper.hasListeners(PacketSide.SERVER, user, buffer, false, false)) {
+            // Nobody listens for this packet, pass it on untouched
+            if (doCompression) {
+                this.recompress(ctx, buffer, promise);
+            } else {
+                ctx.write(buffer, promise);
+            }
+            return;
+        }
         int firstReaderIndex = buffer.readerIndex();
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player,
                 buffer, false);
         int readerIndex = buffer.readerIndex();
         PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
         if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
+            if (packetSendEvent.getLastUsedWrapper() != null && !packetSendEvent.getLastUsedWrapper().rewriteInPlace()) {
+                packetSendEvent.getLastUsedWrapper().detachLazyValues();
                 ByteBufHelper.clear(packetSendEvent.getByteBuf());
                 packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
                 packetSendEvent.getLastUsedWrapper().write();
@@ -87,6 +99,7 @@ public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
                 task.run();
             }
         }
+        packetSendEvent.recycle();
     }
 
     @Override
@@ -29,6 +29,7 @@ import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
 import io.github.retrooper.packetevents.impl.netty.manager.player.PlayerManagerAbstract;
 import net.fabricmc.api.EnvType;
@@ -92,6 +93,10 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
         PacketEvents.DECODER_NAME = "pe-decoder-" + id;
         PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
         PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
+        if (this.getSettings().isMappingWarmupEnabled()) {
+            // start reading the mapping files before the registries need them
+            TypesBuilder.warmup();
+        }
 
         // register internal packet listener (should be the first listener)
         // this listener doesn't do any modifications to the packets, just reads data
@@ -119,6 +124,8 @@ public class FabricPacketEventsAPI extends PacketEventsAPI<FabricLoader> {
 
         PacketType.Play.Client.load();
         PacketType.Play.Server.load();
+        // drop the preloaded mapping files no registry needed while starting
+        TypesBuilder.finishWarmup();
         this.initialized = true;
     }
 
@@ -0,0 +1,101 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.impl.netty.buffer;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteOrder;
+
+/**
+ * Bulk reads shared by the netty buffer operators of all platforms.
+ */
+public final class ByteBufBulkReader {
+
+    private ByteBufBulkReader() {
+    }
+
+    public static int readVarInt(ByteBuf buf) {
+        int readerIndex = buf.readerIndex();
+        if (buf.writerIndex() - readerIndex < 4) {
+            return readVarIntBytewise(buf);
+        }
+        // Peek four bytes at once, most VarInts are fully contained in them
+        int word = buf.getInt(readerIndex);
+        int value = (word >>> 24) & 0x7F;
+        if ((word & 0x80000000) == 0) {
+            buf.readerIndex(readerIndex + 1);
+            return value;
+        }
+        value |= ((word >>> 16) & 0x7F) << 7;
+        if ((word & 0x800000) == 0) {
+            buf.readerIndex(readerIndex + 2);
+            return value;
+        }
+        value |= ((word >>> 8) & 0x7F) << 14;
+        if ((word & 0x8000) == 0) {
+            buf.readerIndex(readerIndex + 3);
+            return value;
+        }
+        value |= (word & 0x7F) << 21;
+        if ((word & 0x80) == 0) {
+            buf.readerIndex(readerIndex + 4);
+            return value;
+        }
+        buf.readerIndex(readerIndex + 4);
+        byte lastByte = buf.readByte();
+        if ((lastByte & 0x80) == 0x80) {
+            throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+        }
+        return value | lastByte << 28;
+    }
+
+    private static int readVarIntBytewise(ByteBuf buf) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = buf.readByte();
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    public static void readLongs(ByteBuf buf, long[] destination, int offset, int length) {
+        int readerIndex = buf.readerIndex();
+        int bytes = length << 3;
+        if (buf.writerIndex() - readerIndex < bytes) {
+            throw new IndexOutOfBoundsException("Trying to read " + length + " longs, but only "
+                    + buf.readableBytes() + " bytes are readable");
+        }
+        if (buf.nioBufferCount() == 1) {
+            // Copy all longs at once from a view of the memory
+            buf.nioBuffer(readerIndex, bytes).order(ByteOrder.BIG_ENDIAN)
+                    .asLongBuffer().get(destination, offset, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                destination[offset + i] = buf.getLong(readerIndex + (i << 3));
+            }
+        }
+        buf.readerIndex(readerIndex + bytes);
+    }
+}
@@ -243,4 +243,14 @@ public class ByteBufOperatorImpl implements ByteBufOperator {
     public Object resetWriterIndex(Object buffer) {
         return ((ByteBuf)buffer).resetWriterIndex();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return ByteBufBulkReader.readVarInt((ByteBuf) buffer);
+    }
+
+    @Override
+    public void readLongs(Object buffer, long[] destination, int offset, int length) {
+        ByteBufBulkReader.readLongs((ByteBuf) buffer, destination, offset, length);
+    }
 }
@@ -28,6 +28,7 @@ import com.github.retrooper.packetevents.manager.server.ServerManager;
 import com.github.retrooper.packetevents.netty.NettyManager;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import io.github.retrooper.packetevents.impl.netty.BuildData;
 import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
 import io.github.retrooper.packetevents.impl.netty.manager.player.PlayerManagerAbstract;
@@ -92,6 +93,10 @@ public class NettyPacketEventsBuilder {
                     PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + data.getName().toLowerCase();
                     PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + data.getName().toLowerCase();
                     PacketEvents.TIMEOUT_HANDLER_NAME = "pe-timeout-handler-" + data.getName().toLowerCase();
+                    if (getSettings().isMappingWarmupEnabled()) {
+                        // start reading the mapping files before the registries need them
+                        TypesBuilder.warmup();
+                    }
                     injector.inject();
 
                     loaded = true;
@@ -120,6 +125,8 @@ public class NettyPacketEventsBuilder {
 
                     PacketType.Play.Client.load();
                     PacketType.Play.Server.load();
+                    // drop the preloaded mapping files no registry needed while starting
+                    TypesBuilder.finishWarmup();
                     initialized = true;
                 }
             }
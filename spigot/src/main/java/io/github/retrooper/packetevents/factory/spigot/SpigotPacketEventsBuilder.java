@@ -30,6 +30,7 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import io.github.retrooper.packetevents.bukkit.InternalBukkitListener;
 import io.github.retrooper.packetevents.injector.SpigotChannelInjector;
 import io.github.retrooper.packetevents.injector.connection.ServerConnectionInitializer;
@@ -100,6 +101,10 @@ public class SpigotPacketEventsBuilder {
                     PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
                     PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
                     PacketEvents.TIMEOUT_HANDLER_NAME = "pe-timeout-handler-" + id;
+                    if (getSettings().isMappingWarmupEnabled()) {
+                        // start reading the mapping files before the registries need them
+                        TypesBuilder.warmup();
+                    }
                     try {
                         SpigotReflectionUtil.init();
                         CustomPipelineUtil.init();
@@ -168,6 +173,8 @@ public class SpigotPacketEventsBuilder {
                         injector.updatePlayer(user, player);
                     }
 
+                    // drop the preloaded mapping files no registry needed while starting
+                    TypesBuilder.finishWarmup();
                     initialized = true;
                 }
             }
@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.netty.buffer;
 
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import io.github.retrooper.packetevents.impl.netty.buffer.ByteBufBulkReader;
 import io.netty.buffer.ByteBuf;
 
 import java.nio.charset.Charset;
@@ -245,4 +246,14 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
     public Object resetWriterIndex(Object buffer) {
         return ((ByteBuf)buffer).resetWriterIndex();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return ByteBufBulkReader.readVarInt((ByteBuf) buffer);
+    }
+
+    @Override
+    public void readLongs(Object buffer, long[] destination, int offset, int length) {
+        ByteBufBulkReader.readLongs((ByteBuf) buffer, destination, offset, length);
+    }
 }
@@ -29,6 +29,7 @@ import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import io.github.retrooper.packetevents.sponge.injector.SpongeChannelInjector;
 import io.github.retrooper.packetevents.sponge.injector.connection.ServerConnectionInitializer;
 import io.github.retrooper.packetevents.sponge.manager.protocol.ProtocolManagerImpl;
@@ -97,6 +98,10 @@ public class SpongePacketEventsBuilder {
                 PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
                 PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
                 PacketEvents.TIMEOUT_HANDLER_NAME = "pe-timeout-handler-" + id;
+                if (getSettings().isMappingWarmupEnabled()) {
+                    // start reading the mapping files before the registries need them
+                    TypesBuilder.warmup();
+                }
                 try {
                     SpongeReflectionUtil.init();
                     CustomPipelineUtil.init();
@@ -153,6 +158,8 @@ public class SpongePacketEventsBuilder {
                     ViaVersionUtil.checkIfViaIsPresent();
                 }
 
+                // drop the preloaded mapping files no registry needed while starting
+                TypesBuilder.finishWarmup();
                 initialized = true;
             }
 
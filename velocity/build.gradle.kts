@@ -18,9 +18,19 @@ dependencies {
     shadow(project(":netty-common"))
     compileShadowOnly(libs.bstats.velocity)
     // Velocity already bundles with adventure
+
+    testImplementation(project(":api"))
+    testImplementation(project(":netty-common"))
+    testImplementation(libs.netty)
+    testImplementation(libs.velocity)
+    testImplementation(testlibs.bundles.junit)
 }
 
 tasks {
+    test {
+        useJUnitPlatform()
+    }
+
     runVelocity {
         velocityVersion("3.3.0-SNAPSHOT")
         runDirectory = rootDir.resolve("run/velocity/")
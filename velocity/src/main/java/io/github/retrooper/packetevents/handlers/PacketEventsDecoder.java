@@ -21,10 +21,12 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EnumUtil;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
 import com.velocitypowered.api.proxy.Player;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
@@ -48,6 +50,11 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
+        if (!PacketEventsImplHelper.hasListeners(PacketSide.CLIENT, user, byteBuf, false, false)) {
+            // Nobody listens for this packet, pass it on without copying
+            output.add(byteBuf.retain());
+            return;
+        }
         ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
         try {
             int firstReaderIndex = transformed.readerIndex();
@@ -56,7 +63,8 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
             int readerIndex = transformed.readerIndex();
             PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
             if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
+                if (packetReceiveEvent.getLastUsedWrapper() != null && !packetReceiveEvent.getLastUsedWrapper().rewriteInPlace()) {
+                    packetReceiveEvent.getLastUsedWrapper().detachLazyValues();
                     ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
                     packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
                     packetReceiveEvent.getLastUsedWrapper().write();
@@ -69,6 +77,7 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
                     task.run();
                 }
             }
+            packetReceiveEvent.recycle();
         } finally {
             transformed.release();
         }
@@ -21,16 +21,21 @@ package io.github.retrooper.packetevents.handlers;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.velocitypowered.api.proxy.Player;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
 
 @ChannelHandler.Sharable
-public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
+public class PacketEventsEncoder extends ChannelOutboundHandlerAdapter {
     public Player player;
     public User user;
 
@@ -38,40 +43,86 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         this.user = user;
     }
 
-    public void read(ChannelHandlerContext ctx, ByteBuf buffer) throws Exception {
-        int firstReaderIndex = buffer.readerIndex();
-        PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
-                false);
-        int readerIndex = buffer.readerIndex();
-        PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
-        if (!packetSendEvent.isCancelled()) {
-            if (packetSendEvent.getLastUsedWrapper() != null) {
-                ByteBufHelper.clear(packetSendEvent.getByteBuf());
-                packetSendEvent.getLastUsedWrapper().writeVarInt(packetSendEvent.getPacketId());
-                packetSendEvent.getLastUsedWrapper().write();
+    public void read(ChannelHandlerContext ctx, ByteBuf buffer, ChannelPromise promise) throws Exception {
+        // The buffer which still has to be released if the packet can't be passed on
+        ByteBuf owned = buffer;
+        PacketSendEvent packetSendEvent = null;
+        try {
+            int firstReaderIndex = buffer.readerIndex();
+            packetSendEvent = EventCreationUtil.createSendEvent(ctx.channel(), user, player, buffer,
+                    false);
+            int readerIndex = buffer.readerIndex();
+            PacketEvents.getAPI().getEventManager().callEvent(packetSendEvent, () -> buffer.readerIndex(readerIndex));
+            if (!packetSendEvent.isCancelled()) {
+                PacketWrapper<?> wrapper = packetSendEvent.getLastUsedWrapper();
+                if (wrapper == null) {
+                    // Nothing was changed, pass on the original buffer
+                    buffer.readerIndex(firstReaderIndex);
+                } else if (isExclusive(buffer)) {
+                    if (!wrapper.rewriteInPlace()) {
+                        wrapper.detachLazyValues();
+                        ByteBufHelper.clear(buffer);
+                        wrapper.writeVarInt(packetSendEvent.getPacketId());
+                        wrapper.write();
+                    } else {
+                        buffer.readerIndex(firstReaderIndex);
+                    }
+                } else {
+                    // The buffer may be shared with other connections, encode the packet into a new one
+                    wrapper.detachLazyValues();
+                    ByteBuf encoded = ctx.alloc().buffer();
+                    buffer.release();
+                    owned = encoded;
+                    wrapper.setBuffer(encoded);
+                    packetSendEvent.setByteBuf(encoded);
+                    wrapper.writeVarInt(packetSendEvent.getPacketId());
+                    wrapper.write();
+                }
+            } else {
+                buffer.release();
+                owned = Unpooled.EMPTY_BUFFER;
             }
-            buffer.readerIndex(firstReaderIndex);
-        } else {
-            ByteBufHelper.clear(packetSendEvent.getByteBuf());
-        }
-        if (packetSendEvent.hasPostTasks()) {
-            for (Runnable task : packetSendEvent.getPostTasks()) {
-                task.run();
+            ByteBuf written = owned;
+            owned = null;
+            ctx.write(written, promise);
+            if (packetSendEvent.hasPostTasks()) {
+                for (Runnable task : packetSendEvent.getPostTasks()) {
+                    task.run();
+                }
+            }
+        } catch (Throwable throwable) {
+            if (owned != null) {
+                owned.release();
+            }
+            throw throwable;
+        } finally {
+            if (packetSendEvent != null) {
+                packetSendEvent.recycle();
             }
         }
     }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) throws Exception {
-        if (!msg.isReadable()) return;
-
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(msg);
-        try {
-            read(ctx, transformed);
-            out.writeBytes(transformed);
-        } finally {
-            transformed.release();
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (!(msg instanceof ByteBuf)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+        ByteBuf buf = (ByteBuf) msg;
+        if (!buf.isReadable() || !PacketEventsImplHelper.hasListeners(PacketSide.SERVER, user, buf, false, false)) {
+            // Nobody listens for this packet, pass it on untouched
+            ctx.write(buf, promise);
+            return;
         }
+        this.read(ctx, buf, promise);
+    }
+
+    /**
+     * Raw packets forwarded from the backend server may be slices or duplicates of buffers
+     * which are still in use elsewhere, so only buffers owned by this write are modified.
+     */
+    private static boolean isExclusive(ByteBuf buffer) {
+        return buffer.unwrap() == null && buffer.refCnt() == 1 && !buffer.isReadOnly();
     }
 
     @Override
@@ -79,4 +130,3 @@ public class PacketEventsEncoder extends MessageToByteEncoder<ByteBuf> {
         super.exceptionCaught(ctx, cause);
     }
 }
-
@@ -33,6 +33,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.settings.PacketEventsSettings;
 import com.github.retrooper.packetevents.util.LogManager;
+import com.github.retrooper.packetevents.util.mappings.TypesBuilder;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.network.ProtocolVersion;
 import com.velocitypowered.api.plugin.PluginContainer;
@@ -175,6 +176,10 @@ public class VelocityPacketEventsBuilder {
                     PacketEvents.CONNECTION_HANDLER_NAME = "pe-connection-handler-" + id;
                     PacketEvents.SERVER_CHANNEL_HANDLER_NAME = "pe-connection-initializer-" + id;
                     PacketEvents.TIMEOUT_HANDLER_NAME = "pe-timeout-handler-" + id;
+                    if (getSettings().isMappingWarmupEnabled()) {
+                        // start reading the mapping files before the registries need them
+                        TypesBuilder.warmup();
+                    }
                     injector.inject();
 
                     loaded = true;
@@ -219,6 +224,8 @@ public class VelocityPacketEventsBuilder {
 
                 PacketType.Play.Client.load();
                 PacketType.Play.Server.load();
+                // drop the preloaded mapping files no registry needed while starting
+                TypesBuilder.finishWarmup();
                 initialized = true;
             }
 
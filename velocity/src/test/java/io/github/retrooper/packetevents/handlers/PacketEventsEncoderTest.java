@@ -0,0 +1,306 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2024 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.handlers;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.event.PacketListenerAbstract;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import io.github.retrooper.packetevents.impl.netty.manager.server.ServerManagerAbstract;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PacketEventsEncoderTest {
+
+    private final List<ByteBuf> allocated = new ArrayList<>();
+    private EmbeddedChannel channel;
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        PacketEvents.setAPI(new TestPacketEventsAPI());
+        PacketEvents.getAPI().load();
+        this.channel = new EmbeddedChannel();
+        // remember the buffers the encoder allocates, to check they are released
+        this.channel.config().setAllocator(new UnpooledByteBufAllocator(false) {
+            @Override
+            protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+                ByteBuf buffer = super.newHeapBuffer(initialCapacity, maxCapacity);
+                allocated.add(buffer);
+                return buffer;
+            }
+
+            @Override
+            protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+                ByteBuf buffer = super.newDirectBuffer(initialCapacity, maxCapacity);
+                allocated.add(buffer);
+                return buffer;
+            }
+        });
+        this.user = new User(this.channel, ConnectionState.PLAY, ClientVersion.getLatest(),
+                new UserProfile(UUID.randomUUID(), "test"));
+        this.channel.pipeline().addLast(new PacketEventsEncoder(this.user));
+    }
+
+    @AfterEach
+    public void teardown() {
+        this.channel.finishAndReleaseAll();
+        PacketEvents.setAPI(null);
+    }
+
+    @Test
+    @DisplayName("Test packets which weren't changed are passed on untouched")
+    public void testPassThrough() {
+        List<Long> received = new ArrayList<>();
+        this.onPacketSend(event -> received.add(new WrapperPlayServerKeepAlive(event).getId()));
+
+        ByteBuf buffer = this.keepAlive(1L);
+        this.channel.writeOutbound(buffer);
+        ByteBuf written = this.channel.readOutbound();
+
+        assertSame(buffer, written);
+        assertEquals(0, written.readerIndex());
+        assertEquals(1, received.size());
+        assertEquals(1L, received.get(0));
+        written.release();
+    }
+
+    @Test
+    @DisplayName("Test changed packets are rewritten into buffers owned by the write")
+    public void testRewriteInPlace() {
+        this.onPacketSend(event -> {
+            new WrapperPlayServerKeepAlive(event).setId(2L);
+            event.markForReEncode(true);
+        });
+
+        ByteBuf buffer = this.keepAlive(1L);
+        this.channel.writeOutbound(buffer);
+        ByteBuf written = this.channel.readOutbound();
+
+        assertSame(buffer, written);
+        assertArrayEquals(this.keepAliveBytes(2L), ByteBufUtil.getBytes(written));
+        written.release();
+        assertEquals(0, buffer.refCnt());
+    }
+
+    @Test
+    @DisplayName("Test changed packets in shared buffers are encoded into a new buffer")
+    public void testSharedBufferReEncode() {
+        this.onPacketSend(event -> {
+            new WrapperPlayServerKeepAlive(event).setId(2L);
+            event.markForReEncode(true);
+        });
+
+        ByteBuf shared = this.keepAlive(1L);
+        this.channel.writeOutbound(shared.retainedSlice());
+        ByteBuf written = this.channel.readOutbound();
+
+        assertNotSame(shared, written);
+        assertTrue(this.allocated.contains(written));
+        assertArrayEquals(this.keepAliveBytes(2L), ByteBufUtil.getBytes(written));
+        // the shared buffer is left as it was, only the slice of this write was released
+        assertArrayEquals(this.keepAliveBytes(1L), ByteBufUtil.getBytes(shared));
+        assertEquals(1, shared.refCnt());
+        written.release();
+        shared.release();
+    }
+
+    @Test
+    @DisplayName("Test buffers are released when encoding the changed packet fails")
+    public void testReleaseOnFailure() {
+        this.onPacketSend(event -> {
+            new WrapperPlayServerKeepAlive(event) {
+                @Override
+                public void write() {
+                    throw new IllegalStateException("failed to encode");
+                }
+            }.setId(2L);
+            event.markForReEncode(true);
+        });
+
+        ByteBuf exclusive = this.keepAlive(1L);
+        assertThrows(IllegalStateException.class, () -> this.channel.writeOutbound(exclusive));
+        assertEquals(0, exclusive.refCnt());
+
+        ByteBuf shared = this.keepAlive(1L);
+        assertThrows(IllegalStateException.class, () -> this.channel.writeOutbound(shared.retainedSlice()));
+        assertEquals(1, shared.refCnt());
+        shared.release();
+
+        assertNull(this.channel.readOutbound());
+        assertFalse(this.allocated.isEmpty());
+        for (ByteBuf buffer : this.allocated) {
+            assertEquals(0, buffer.refCnt());
+        }
+    }
+
+    private void onPacketSend(PacketSendListener listener) {
+        PacketEvents.getAPI().getEventManager().registerListener(new PacketListenerAbstract() {
+            @Override
+            public void onPacketSend(PacketSendEvent event) {
+                listener.onPacketSend(event);
+            }
+        });
+    }
+
+    private ByteBuf keepAlive(long id) {
+        ByteBuf buffer = Unpooled.buffer();
+        PacketWrapper<?> wrapper = new WrapperPlayServerKeepAlive(id);
+        wrapper.setBuffer(buffer);
+        wrapper.writeVarInt(PacketType.Play.Server.KEEP_ALIVE.getId(this.user.getClientVersion()));
+        wrapper.write();
+        return buffer;
+    }
+
+    private byte[] keepAliveBytes(long id) {
+        ByteBuf buffer = this.keepAlive(id);
+        try {
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PacketSendListener {
+
+        void onPacketSend(PacketSendEvent event);
+    }
+
+    private static final class TestPacketEventsAPI extends PacketEventsAPI<Object> {
+
+        private final ProtocolManager protocolManager = new ProtocolManagerAbstract() {
+            @Override
+            public ProtocolVersion getPlatformVersion() {
+                return ProtocolVersion.UNKNOWN;
+            }
+        };
+        private final ServerManager serverManager = new ServerManagerAbstract() {
+            @Override
+            public ServerVersion getVersion() {
+                return ServerVersion.getLatest();
+            }
+        };
+        private final NettyManager nettyManager = new NettyManagerImpl();
+        private boolean loaded;
+        private boolean initialized;
+        private boolean terminated;
+
+        @Override
+        public void load() {
+            if (!PacketType.isPrepared()) {
+                PacketType.prepare();
+            }
+            this.loaded = true;
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return this.loaded;
+        }
+
+        @Override
+        public void init() {
+            this.load();
+            this.initialized = true;
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return this.initialized;
+        }
+
+        @Override
+        public void terminate() {
+            this.initialized = false;
+            this.terminated = true;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.terminated;
+        }
+
+        @Override
+        public Object getPlugin() {
+            return this;
+        }
+
+        @Override
+        public ServerManager getServerManager() {
+            return this.serverManager;
+        }
+
+        @Override
+        public ProtocolManager getProtocolManager() {
+            return this.protocolManager;
+        }
+
+        @Override
+        public PlayerManager getPlayerManager() {
+            return null;
+        }
+
+        @Override
+        public NettyManager getNettyManager() {
+            return this.nettyManager;
+        }
+
+        @Override
+        public ChannelInjector getInjector() {
+            return null;
+        }
+    }
+}